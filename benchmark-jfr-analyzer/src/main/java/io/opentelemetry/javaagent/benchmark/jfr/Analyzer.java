@@ -6,7 +6,9 @@
 package io.opentelemetry.javaagent.benchmark.jfr;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,11 +29,11 @@ public class Analyzer {
   private static int totalSamples = 0;
 
   public static void main(String[] args) throws Exception {
-    File jfrFile = new File(args[0]);
-    List<RecordedEvent> events =
-        RecordingFile.readAllEvents(jfrFile.toPath()).stream()
-            .filter(e -> e.getEventType().getName().equals("jdk.ExecutionSample"))
-            .collect(Collectors.toList());
+    if (args.length == 2 && args[0].equals("--startup")) {
+      printStartupPhases(readExecutionSamples(new File(args[1])));
+      return;
+    }
+    List<RecordedEvent> events = readExecutionSamples(new File(args[0]));
 
     Set<String> agentCallers = getAgentCallers(events);
 
@@ -54,6 +56,32 @@ public class Analyzer {
     }
   }
 
+  private static List<RecordedEvent> readExecutionSamples(File jfrFile) throws IOException {
+    return RecordingFile.readAllEvents(jfrFile.toPath()).stream()
+        .filter(e -> e.getEventType().getName().equals("jdk.ExecutionSample"))
+        .collect(Collectors.toList());
+  }
+
+  // attributes the samples of a recording of the application startup to the agent startup phases,
+  // the time spent per instrumentation module is reported by the agent startup profiler
+  private static void printStartupPhases(List<RecordedEvent> events) {
+    Map<StartupPhase, Integer> phaseSamples = new EnumMap<>(StartupPhase.class);
+    for (RecordedEvent event : events) {
+      StartupPhase phase = StartupPhase.of(event.getStackTrace());
+      if (phase != null) {
+        phaseSamples.merge(phase, 1, Integer::sum);
+      }
+    }
+
+    System.out.println("Total samples: " + events.size());
+    for (StartupPhase phase : StartupPhase.values()) {
+      int samples = phaseSamples.getOrDefault(phase, 0);
+      System.out.format(
+          "%-22s %6d (%.2f%%)%n",
+          phase.description + ":", samples, 100 * samples / (double) events.size());
+    }
+  }
+
   // getting direct callers since those are likely the instrumented methods
   private static Set<String> getAgentCallers(List<RecordedEvent> events) {
     return events.stream()
@@ -148,6 +176,63 @@ public class Analyzer {
         + frame.getLineNumber();
   }
 
+  // ordered by precedence: e.g. muzzle and helper injection run inside of the type matching and the
+  // transformation of a class, the last phase covers the rest of the agent code
+  private enum StartupPhase {
+    HELPER_INJECTION("helper injection", "io.opentelemetry.javaagent.tooling.HelperInjector"),
+    VIRTUAL_FIELDS("virtual fields", "io.opentelemetry.javaagent.tooling.field."),
+    MUZZLE(
+        "muzzle",
+        "io.opentelemetry.javaagent.tooling.muzzle.ReferenceMatcher",
+        "io.opentelemetry.javaagent.tooling.instrumentation."
+            + "InstrumentationModuleInstaller$MuzzleMatcher"),
+    CLASS_LOADER_MATCHING(
+        "class loader matching",
+        "io.opentelemetry.javaagent.extension.matcher.ClassLoaderHasClassesNamedMatcher",
+        "io.opentelemetry.javaagent.bootstrap.internal.ClassLoaderResourceCache"),
+    ADVICE_WEAVING(
+        "advice weaving", "net.bytebuddy.dynamic.scaffold.TypeWriter", "net.bytebuddy.asm.Advice"),
+    TYPE_MATCHING(
+        "type matching",
+        "net.bytebuddy.agent.builder.AgentBuilder$RawMatcher",
+        "io.opentelemetry.javaagent.tooling.bytebuddy.matcher."),
+    OTHER("other agent code", "io.opentelemetry.javaagent.", "net.bytebuddy.");
+
+    private final String description;
+    private final String[] classNamePrefixes;
+
+    StartupPhase(String description, String... classNamePrefixes) {
+      this.description = description;
+      this.classNamePrefixes = classNamePrefixes;
+    }
+
+    @Nullable
+    private static StartupPhase of(RecordedStackTrace stackTrace) {
+      List<RecordedFrame> frames = stackTrace.getFrames();
+      for (StartupPhase phase : values()) {
+        for (RecordedFrame frame : frames) {
+          if (phase.matches(frame.getMethod())) {
+            return phase;
+          }
+        }
+      }
+      return null;
+    }
+
+    private boolean matches(RecordedMethod method) {
+      String className = method.getType().getName();
+      if (className.startsWith("io.opentelemetry.javaagent.benchmark.")) {
+        return false;
+      }
+      for (String classNamePrefix : classNamePrefixes) {
+        if (className.startsWith(classNamePrefix)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   private static class Node {
 
     private final String frame;
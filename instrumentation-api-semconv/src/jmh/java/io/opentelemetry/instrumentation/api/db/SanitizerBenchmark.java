@@ -0,0 +1,80 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.db;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the SQL and Redis command sanitizers. The {@code sql*Cached} benchmarks measure the
+ * common case, in which the sanitized statement is found in the cache, the {@code sql*Scan} ones
+ * bypass the cache and measure the scanner itself.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class SanitizerBenchmark {
+
+  private static final String SELECT =
+      "SELECT o.id, o.total, c.name FROM orders o JOIN customers c ON o.customer_id = c.id"
+          + " WHERE o.status = 'SHIPPED' AND o.total > 100.50 ORDER BY o.created_at DESC LIMIT 20";
+
+  private static final List<Object> REDIS_ARGS =
+      Arrays.asList("user:1234", "name", "John Doe", "email", "john@example.com");
+
+  private String bulkInsert;
+
+  @Setup
+  public void setup() {
+    StringBuilder sb = new StringBuilder("INSERT INTO events (id, type, payload) VALUES ");
+    for (int i = 0; i < 10_000; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append('(').append(i).append(", 'click', '{\"x\": ").append(i).append("}')");
+    }
+    bulkInsert = sb.toString();
+  }
+
+  @Benchmark
+  public SqlStatementInfo sqlSelectCached() {
+    return SqlStatementSanitizer.sanitize(SELECT);
+  }
+
+  @Benchmark
+  public SqlStatementInfo sqlSelectScan() {
+    return AutoSqlSanitizer.sanitize(SELECT, SqlDialect.DEFAULT);
+  }
+
+  @Benchmark
+  public SqlStatementInfo sqlBulkInsertCached() {
+    return SqlStatementSanitizer.sanitize(bulkInsert);
+  }
+
+  @Benchmark
+  public SqlStatementInfo sqlBulkInsertScan() {
+    return AutoSqlSanitizer.sanitize(bulkInsert, SqlDialect.DEFAULT);
+  }
+
+  @Benchmark
+  public String redisHmset() {
+    return RedisCommandSanitizer.sanitize("HMSET", REDIS_ARGS);
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class ForwardedHeaderParserBenchmark {
+
+  private static final String FORWARDED =
+      "for=\"[2001:db8:cafe::17]:4711\";proto=https;by=203.0.113.43, for=198.51.100.17";
+  private static final String FORWARDED_FOR = "203.0.113.195, 70.41.3.18, 150.172.238.178";
+
+  @Benchmark
+  public String forwardedClientIp() {
+    return ForwardedHeaderParser.extractClientIpFromForwardedHeader(FORWARDED);
+  }
+
+  @Benchmark
+  public String forwardedProto() {
+    return ForwardedHeaderParser.extractProtoFromForwardedHeader(FORWARDED);
+  }
+
+  @Benchmark
+  public String forwardedForClientIp() {
+    return ForwardedHeaderParser.extractClientIpFromForwardedForHeader(FORWARDED_FOR);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.instrumentation.api.instrumenter.SpanKindExtractor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link HttpRouteHolder#updateHttpRoute(Context, HttpRouteSource, String)}, called by
+ * the web framework instrumentations once or more per server request.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class HttpRouteHolderBenchmark {
+
+  private static final String ROUTE = "/users/{id}/orders";
+
+  private Instrumenter<String, String> instrumenter;
+  private Context serverContext;
+
+  @Setup
+  public void setup() {
+    instrumenter =
+        Instrumenter.<String, String>builder(OpenTelemetry.noop(), "benchmark", request -> request)
+            .addContextCustomizer(HttpRouteHolder.get())
+            .newInstrumenter(SpanKindExtractor.alwaysServer());
+    serverContext = instrumenter.start(Context.root(), "GET");
+    HttpRouteHolder.updateHttpRoute(serverContext, HttpRouteSource.CONTROLLER, ROUTE);
+  }
+
+  /** A route that was already set by a source of the same or higher priority. */
+  @Benchmark
+  public Context updateRouteAlreadySet() {
+    HttpRouteHolder.updateHttpRoute(serverContext, HttpRouteSource.CONTROLLER, ROUTE);
+    return serverContext;
+  }
+
+  /** A whole server request: the route is first set by a servlet, and then by a controller. */
+  @Benchmark
+  public Context startUpdateRouteEnd() {
+    Context context = instrumenter.start(Context.root(), "GET");
+    HttpRouteHolder.updateHttpRoute(context, HttpRouteSource.SERVLET, "/users/*");
+    HttpRouteHolder.updateHttpRoute(context, HttpRouteSource.CONTROLLER, ROUTE);
+    instrumenter.end(context, "GET", "200", null);
+    return context;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.instrumentation.api.internal.CompactAttributes;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class MetricsViewBenchmark {
+
+  private static final Attributes START_ATTRIBUTES = startAttributes();
+  private static final Attributes END_ATTRIBUTES = endAttributes();
+
+  @Benchmark
+  public Attributes setBasedServerDurationView() {
+    return SetBasedView.applyServerDurationView(START_ATTRIBUTES, END_ATTRIBUTES);
+  }
+
+  @Benchmark
+  public Attributes compiledServerDurationView() {
+    return TemporaryMetricsView.applyServerDurationView(START_ATTRIBUTES, END_ATTRIBUTES);
+  }
+
+  private static Attributes startAttributes() {
+    CompactAttributes attributes = new CompactAttributes();
+    attributes.put(SemanticAttributes.HTTP_METHOD, "GET");
+    attributes.put(SemanticAttributes.HTTP_URL, "https://somehost/users/12345?jsessionId=121454");
+    attributes.put(SemanticAttributes.HTTP_SCHEME, "https");
+    attributes.put(SemanticAttributes.HTTP_HOST, "somehost");
+    attributes.put(SemanticAttributes.HTTP_TARGET, "/users/12345?jsessionId=121454");
+    attributes.put(SemanticAttributes.HTTP_ROUTE, "/users/{id}");
+    attributes.put(SemanticAttributes.HTTP_FLAVOR, "1.1");
+    attributes.put(SemanticAttributes.HTTP_USER_AGENT, "OpenTelemetryBot");
+    attributes.put(SemanticAttributes.NET_TRANSPORT, "ip_tcp");
+    attributes.put(SemanticAttributes.NET_PEER_IP, "127.0.0.1");
+    attributes.putLong(SemanticAttributes.NET_PEER_PORT, 54321);
+    return attributes;
+  }
+
+  private static Attributes endAttributes() {
+    CompactAttributes attributes = new CompactAttributes();
+    attributes.putLong(SemanticAttributes.HTTP_STATUS_CODE, 200);
+    attributes.putLong(SemanticAttributes.HTTP_RESPONSE_CONTENT_LENGTH, 1024);
+    return attributes;
+  }
+
+  // the view implementation that filtered attributes through set lookups on every request
+  @SuppressWarnings("rawtypes")
+  private static final class SetBasedView {
+
+    private static final Set<AttributeKey> durationServerView = buildDurationServerView();
+
+    private static Set<AttributeKey> buildDurationServerView() {
+      Set<AttributeKey> view = new HashSet<>();
+      view.add(SemanticAttributes.HTTP_METHOD);
+      view.add(SemanticAttributes.HTTP_STATUS_CODE);
+      view.add(SemanticAttributes.HTTP_FLAVOR);
+      view.add(SemanticAttributes.HTTP_SCHEME);
+      view.add(SemanticAttributes.HTTP_HOST);
+      view.add(SemanticAttributes.HTTP_ROUTE);
+      return view;
+    }
+
+    static Attributes applyServerDurationView(
+        Attributes startAttributes, Attributes endAttributes) {
+      AttributesBuilder filtered = Attributes.builder();
+      applyView(filtered, startAttributes, durationServerView);
+      applyView(filtered, endAttributes, durationServerView);
+      return filtered.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void applyView(
+        AttributesBuilder filtered, Attributes attributes, Set<AttributeKey> view) {
+      attributes.forEach(
+          (BiConsumer<AttributeKey, Object>)
+              (key, value) -> {
+                if (view.contains(key)) {
+                  filtered.put(key, value);
+                }
+              });
+    }
+  }
+}
@@ -7,10 +7,14 @@ package io.opentelemetry.instrumentation.api.db;
 
 import static io.opentelemetry.instrumentation.api.db.StatementSanitizationConfig.isStatementSanitizationEnabled;
 import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.SQL_STATEMENT_SANITIZER_CACHE_MISS;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.auto.value.AutoValue;
 import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import javax.annotation.Nullable;
 
 /**
@@ -18,10 +22,18 @@ import javax.annotation.Nullable;
  * statements and queries.
  */
 public final class SqlStatementSanitizer {
-  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+  private static final SupportabilityMetrics.Counter cacheMissCounter =
+      SupportabilityMetrics.instance().counter(SQL_STATEMENT_SANITIZER_CACHE_MISS);
 
   private static final Cache<CacheKey, SqlStatementInfo> sqlToStatementInfoCache =
-      Cache.bounded(1000);
+      Cache.bounded("sql-statement-sanitizer", 1000);
+
+  // statements longer than this are cached separately, so that a few huge statements (e.g. bulk
+  // inserts) can't fill the main cache, and they are keyed by a digest instead of the statement
+  private static final int LARGE_STATEMENT_LENGTH = 1024;
+
+  private static final Cache<LargeStatementCacheKey, SqlStatementInfo> largeStatementCache =
+      Cache.bounded("sql-statement-sanitizer-large", 100);
 
   public static SqlStatementInfo sanitize(@Nullable String statement) {
     return sanitize(statement, SqlDialect.DEFAULT);
@@ -31,12 +43,18 @@ public final class SqlStatementSanitizer {
     if (!isStatementSanitizationEnabled() || statement == null) {
       return SqlStatementInfo.create(statement, null, null);
     }
+    if (statement.length() > LARGE_STATEMENT_LENGTH) {
+      return largeStatementCache.computeIfAbsent(
+          LargeStatementCacheKey.create(statement, dialect),
+          k -> sanitizeOnCacheMiss(statement, dialect));
+    }
     return sqlToStatementInfoCache.computeIfAbsent(
-        CacheKey.create(statement, dialect),
-        k -> {
-          supportability.incrementCounter(SQL_STATEMENT_SANITIZER_CACHE_MISS);
-          return AutoSqlSanitizer.sanitize(statement, dialect);
-        });
+        CacheKey.create(statement, dialect), k -> sanitizeOnCacheMiss(statement, dialect));
+  }
+
+  private static SqlStatementInfo sanitizeOnCacheMiss(String statement, SqlDialect dialect) {
+    cacheMissCounter.increment();
+    return AutoSqlSanitizer.sanitize(statement, dialect);
   }
 
   @AutoValue
@@ -51,5 +69,61 @@ public final class SqlStatementSanitizer {
     abstract SqlDialect getDialect();
   }
 
+  /**
+   * Identifies a large statement by its prefix up to the sanitized statement length limit, its
+   * length and the SHA-256 digest of the whole statement, so that the cache doesn't keep the huge
+   * statements themselves.
+   */
+  static final class LargeStatementCacheKey {
+    private final String prefix;
+    private final int length;
+    private final byte[] digest;
+    private final SqlDialect dialect;
+    private final int hashCode;
+
+    static LargeStatementCacheKey create(String statement, SqlDialect dialect) {
+      return new LargeStatementCacheKey(statement, dialect);
+    }
+
+    private LargeStatementCacheKey(String statement, SqlDialect dialect) {
+      // substring() copies, the key doesn't retain the statement
+      this.prefix = statement.substring(0, Math.min(statement.length(), AutoSqlSanitizer.LIMIT));
+      this.length = statement.length();
+      this.digest = sha256(statement);
+      this.dialect = dialect;
+      this.hashCode = 31 * (31 * Arrays.hashCode(digest) + length) + dialect.hashCode();
+    }
+
+    private static byte[] sha256(String statement) {
+      try {
+        return MessageDigest.getInstance("SHA-256").digest(statement.getBytes(UTF_8));
+      } catch (NoSuchAlgorithmException e) {
+        // every Java platform is required to support SHA-256
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof LargeStatementCacheKey)) {
+        return false;
+      }
+      LargeStatementCacheKey other = (LargeStatementCacheKey) obj;
+      return hashCode == other.hashCode
+          && length == other.length
+          && dialect == other.dialect
+          && Arrays.equals(digest, other.digest)
+          && prefix.equals(other.prefix);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
   private SqlStatementSanitizer() {}
 }
@@ -5,7 +5,10 @@
 
 package io.opentelemetry.instrumentation.api.db;
 
+import static java.util.logging.Level.WARNING;
+
 import io.opentelemetry.instrumentation.api.config.Config;
+import java.util.logging.Logger;
 
 /** DB statement sanitization is always enabled by default, you have to manually disable it. */
 final class StatementSanitizationConfig {
@@ -13,9 +16,36 @@ final class StatementSanitizationConfig {
   private static final boolean STATEMENT_SANITIZATION_ENABLED =
       Config.get().getBoolean("otel.instrumentation.common.db-statement-sanitizer.enabled", true);
 
+  private static final Logger logger =
+      Logger.getLogger(StatementSanitizationConfig.class.getName());
+
+  private static final String STATEMENT_MAX_LENGTH_PROPERTY =
+      "otel.instrumentation.common.db-statement-sanitizer.experimental.max-length";
+  private static final int DEFAULT_STATEMENT_MAX_LENGTH = 32 * 1024;
+
+  private static final int STATEMENT_MAX_LENGTH =
+      validateStatementMaxLength(
+          Config.get().getInt(STATEMENT_MAX_LENGTH_PROPERTY, DEFAULT_STATEMENT_MAX_LENGTH));
+
   static boolean isStatementSanitizationEnabled() {
     return STATEMENT_SANITIZATION_ENABLED;
   }
 
+  static int getStatementMaxLength() {
+    return STATEMENT_MAX_LENGTH;
+  }
+
+  // visible for tests
+  static int validateStatementMaxLength(int maxLength) {
+    if (maxLength <= 0) {
+      logger.log(
+          WARNING,
+          "Invalid value {0} of {1}, it must be positive; using the default {2} instead",
+          new Object[] {maxLength, STATEMENT_MAX_LENGTH_PROPERTY, DEFAULT_STATEMENT_MAX_LENGTH});
+      return DEFAULT_STATEMENT_MAX_LENGTH;
+    }
+    return maxLength;
+  }
+
   private StatementSanitizationConfig() {}
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongUpDownCounterBuilder;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps one in-flight requests counter per distinct attribute set, so that recording a started or
+ * finished request is a single atomic update instead of an SDK lookup of the attribute set. The
+ * counters are reported through an asynchronous up-down counter on every collection. Handles are
+ * kept in a bounded LRU cache; an evicted handle that still has requests in flight keeps being
+ * reported until they are all finished, and is put back in the cache if its attributes are used
+ * again in the meantime.
+ *
+ * <p>A handle that is no longer in the cache and has no requests in flight is retired: its counter
+ * is atomically switched from zero to a terminal value, so that a request can't be counted by a
+ * handle that is not reported anymore. {@link #acquire(Attributes)} retries with another handle
+ * when it loses that race. A handle only enters the cache with the request that is being acquired
+ * already counted, so a cached handle is never retired.
+ */
+final class ActiveRequestsHandles {
+
+  private static final long RETIRED = Long.MIN_VALUE;
+
+  private final Cache<Attributes, Handle> handles;
+  private final Set<Handle> reportedHandles = ConcurrentHashMap.newKeySet();
+  // evicted handles that still have requests in flight
+  private final ConcurrentMap<Attributes, Handle> drainingHandles = new ConcurrentHashMap<>();
+
+  ActiveRequestsHandles(LongUpDownCounterBuilder counterBuilder, int capacity) {
+    handles = Cache.bounded(capacity, (attributes, handle) -> onEviction(handle));
+    counterBuilder.buildWithCallback(
+        measurement -> {
+          for (Handle handle : reportedHandles) {
+            long activeRequests = handle.activeRequests.get();
+            // retired, but not removed yet
+            if (activeRequests != RETIRED) {
+              measurement.record(activeRequests, handle.attributes);
+            }
+          }
+        });
+  }
+
+  /**
+   * Counts a started request with the passed (already filtered) {@code attributes}, and returns the
+   * handle that counted it; the request must be finished with {@link Handle#decrement()}.
+   */
+  Handle acquire(Attributes attributes) {
+    while (true) {
+      Handle handle = handles.get(attributes);
+      if (handle == null) {
+        handle = acquireUncached(attributes);
+        if (handle != null) {
+          return handle;
+        }
+      } else if (handle.tryIncrement()) {
+        return handle;
+      }
+      // the handle was evicted and retired after it was looked up
+    }
+  }
+
+  @Nullable
+  private Handle acquireUncached(Attributes attributes) {
+    // reuse the evicted handle that is still counting the requests with these attributes, there
+    // must not be two handles reported with the same attributes
+    Handle drainingHandle = drainingHandles.remove(attributes);
+    Handle newHandle =
+        drainingHandle != null && drainingHandle.tryIncrement()
+            ? drainingHandle
+            : newHandle(attributes);
+    Handle handle = handles.computeIfAbsent(attributes, unused -> newHandle);
+    if (handle == newHandle) {
+      return handle;
+    }
+    // another thread cached a handle first, the request is counted by that one instead, and the
+    // handle that lost the race is treated like an evicted one
+    newHandle.activeRequests.decrementAndGet();
+    onEviction(newHandle);
+    return handle.tryIncrement() ? handle : null;
+  }
+
+  private Handle newHandle(Attributes attributes) {
+    Handle handle = new Handle(attributes);
+    handle.activeRequests.set(1);
+    // register the new handle before it becomes visible in the cache, so that the eviction
+    // listener can never run before it's been added
+    reportedHandles.add(handle);
+    return handle;
+  }
+
+  private void onEviction(Handle handle) {
+    if (handle.tryRetire()) {
+      reportedHandles.remove(handle);
+      return;
+    }
+    drainingHandles.put(handle.attributes, handle);
+    // the last request may have finished before the handle was marked as draining
+    removeIfDrained(handle);
+  }
+
+  private void removeIfDrained(Handle handle) {
+    // a draining handle that acquireUncached() takes back is claimed by incrementing it, so it
+    // can't be retired after it was taken
+    if (drainingHandles.get(handle.attributes) == handle && handle.tryRetire()) {
+      drainingHandles.remove(handle.attributes, handle);
+      reportedHandles.remove(handle);
+    }
+  }
+
+  final class Handle {
+    private final Attributes attributes;
+    private final AtomicLong activeRequests = new AtomicLong();
+
+    private Handle(Attributes attributes) {
+      this.attributes = attributes;
+    }
+
+    private boolean tryIncrement() {
+      while (true) {
+        long current = activeRequests.get();
+        if (current == RETIRED) {
+          return false;
+        }
+        if (activeRequests.compareAndSet(current, current + 1)) {
+          return true;
+        }
+      }
+    }
+
+    private boolean tryRetire() {
+      return activeRequests.compareAndSet(0, RETIRED);
+    }
+
+    void decrement() {
+      if (activeRequests.decrementAndGet() == 0) {
+        removeIfDrained(this);
+      }
+    }
+  }
+}
@@ -13,13 +13,16 @@ import com.google.auto.value.AutoValue;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.LongUpDownCounter;
+import io.opentelemetry.api.metrics.LongUpDownCounterBuilder;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.instrumentation.api.config.Config;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * {@link OperationListener} which keeps track of <a
@@ -35,6 +38,16 @@ public final class HttpServerMetrics implements OperationListener {
 
   private static final Logger logger = Logger.getLogger(HttpServerMetrics.class.getName());
 
+  private static final boolean cachedHandlesEnabled =
+      Config.get()
+          .getBoolean(
+              "otel.instrumentation.http.server.experimental.cached-metrics-handles", false);
+  private static final int cachedHandlesCapacity =
+      Config.get()
+          .getInt(
+              "otel.instrumentation.http.server.experimental.cached-metrics-handles.max-size",
+              1000);
+
   /**
    * Returns a {@link OperationMetrics} which can be used to enable recording of {@link
    * HttpServerMetrics} on an {@link
@@ -44,16 +57,30 @@ public final class HttpServerMetrics implements OperationListener {
     return HttpServerMetrics::new;
   }
 
-  private final LongUpDownCounter activeRequests;
+  // exactly one of these two is set, depending on whether the cached handles are enabled
+  @Nullable private final LongUpDownCounter activeRequests;
+  @Nullable private final ActiveRequestsHandles activeRequestsHandles;
   private final DoubleHistogram duration;
 
   private HttpServerMetrics(Meter meter) {
-    activeRequests =
+    this(meter, cachedHandlesEnabled);
+  }
+
+  // visible for tests
+  HttpServerMetrics(Meter meter, boolean cachedHandlesEnabled) {
+    LongUpDownCounterBuilder activeRequestsBuilder =
         meter
             .upDownCounterBuilder("http.server.active_requests")
             .setUnit("requests")
-            .setDescription("The number of concurrent HTTP requests that are currently in-flight")
-            .build();
+            .setDescription("The number of concurrent HTTP requests that are currently in-flight");
+    if (cachedHandlesEnabled) {
+      activeRequests = null;
+      activeRequestsHandles =
+          new ActiveRequestsHandles(activeRequestsBuilder, cachedHandlesCapacity);
+    } else {
+      activeRequests = activeRequestsBuilder.build();
+      activeRequestsHandles = null;
+    }
 
     duration =
         meter
@@ -65,11 +92,17 @@ public final class HttpServerMetrics implements OperationListener {
 
   @Override
   public Context onStart(Context context, Attributes startAttributes, long startNanos) {
-    activeRequests.add(1, applyActiveRequestsView(startAttributes), context);
+    ActiveRequestsHandles.Handle activeRequestsHandle = null;
+    if (activeRequestsHandles != null) {
+      activeRequestsHandle =
+          activeRequestsHandles.acquire(applyActiveRequestsView(startAttributes));
+    } else if (activeRequests != null) {
+      activeRequests.add(1, applyActiveRequestsView(startAttributes), context);
+    }
 
     return context.with(
         HTTP_SERVER_REQUEST_METRICS_STATE,
-        new AutoValue_HttpServerMetrics_State(startAttributes, startNanos));
+        new AutoValue_HttpServerMetrics_State(startAttributes, startNanos, activeRequestsHandle));
   }
 
   @Override
@@ -82,7 +115,12 @@ public final class HttpServerMetrics implements OperationListener {
           context);
       return;
     }
-    activeRequests.add(-1, applyActiveRequestsView(state.startAttributes()));
+    ActiveRequestsHandles.Handle activeRequestsHandle = state.activeRequestsHandle();
+    if (activeRequestsHandle != null) {
+      activeRequestsHandle.decrement();
+    } else if (activeRequests != null) {
+      activeRequests.add(-1, applyActiveRequestsView(state.startAttributes()));
+    }
     duration.record(
         (endNanos - state.startTimeNanos()) / NANOS_PER_MS,
         applyServerDurationView(state.startAttributes(), endAttributes),
@@ -95,5 +133,8 @@ public final class HttpServerMetrics implements OperationListener {
     abstract Attributes startAttributes();
 
     abstract long startTimeNanos();
+
+    @Nullable
+    abstract ActiveRequestsHandles.Handle activeRequestsHandle();
   }
 }
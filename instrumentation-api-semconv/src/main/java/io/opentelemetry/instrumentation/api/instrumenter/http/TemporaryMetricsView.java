@@ -7,11 +7,10 @@ package io.opentelemetry.instrumentation.api.instrumenter.http;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.instrumentation.api.internal.CompiledMetricsView;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.function.BiConsumer;
 
 // this is temporary, see
 // https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/3962#issuecomment-906606325
@@ -19,9 +18,12 @@ import java.util.function.BiConsumer;
 final class TemporaryMetricsView {
 
   private static final Set<AttributeKey> durationAlwaysInclude = buildDurationAlwaysInclude();
-  private static final Set<AttributeKey> durationClientView = buildDurationClientView();
-  private static final Set<AttributeKey> durationServerView = buildDurationServerView();
-  private static final Set<AttributeKey> activeRequestsView = buildActiveRequestsView();
+  private static final CompiledMetricsView durationClientView =
+      CompiledMetricsView.create(buildDurationClientView());
+  private static final CompiledMetricsView durationServerView =
+      CompiledMetricsView.create(buildDurationServerView());
+  private static final CompiledMetricsView activeRequestsView =
+      CompiledMetricsView.create(buildActiveRequestsView());
 
   private static Set<AttributeKey> buildDurationAlwaysInclude() {
     // the list of included metrics is from
@@ -69,35 +71,15 @@ final class TemporaryMetricsView {
   }
 
   static Attributes applyClientDurationView(Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, durationClientView);
-    applyView(filtered, endAttributes, durationClientView);
-    return filtered.build();
+    return durationClientView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyServerDurationView(Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, durationServerView);
-    applyView(filtered, endAttributes, durationServerView);
-    return filtered.build();
+    return durationServerView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyActiveRequestsView(Attributes attributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, attributes, activeRequestsView);
-    return filtered.build();
-  }
-
-  @SuppressWarnings("unchecked")
-  private static void applyView(
-      AttributesBuilder filtered, Attributes attributes, Set<AttributeKey> view) {
-    attributes.forEach(
-        (BiConsumer<AttributeKey, Object>)
-            (key, value) -> {
-              if (view.contains(key)) {
-                filtered.put(key, value);
-              }
-            });
+    return activeRequestsView.apply(attributes);
   }
 
   private TemporaryMetricsView() {}
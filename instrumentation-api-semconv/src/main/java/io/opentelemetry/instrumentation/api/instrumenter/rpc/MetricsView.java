@@ -7,11 +7,10 @@ package io.opentelemetry.instrumentation.api.instrumenter.rpc;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.instrumentation.api.internal.CompiledMetricsView;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.function.BiConsumer;
 
 // this is temporary, see
 // https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/3962#issuecomment-906606325
@@ -19,10 +18,14 @@ import java.util.function.BiConsumer;
 final class MetricsView {
 
   private static final Set<AttributeKey> alwaysInclude = buildAlwaysInclude();
-  private static final Set<AttributeKey> clientView = buildClientView();
-  private static final Set<AttributeKey> clientFallbackView = buildClientFallbackView();
-  private static final Set<AttributeKey> serverView = buildServerView();
-  private static final Set<AttributeKey> serverFallbackView = buildServerFallbackView();
+  private static final CompiledMetricsView clientView =
+      CompiledMetricsView.create(buildClientView());
+  private static final CompiledMetricsView clientFallbackView =
+      CompiledMetricsView.create(buildClientFallbackView());
+  private static final CompiledMetricsView serverView =
+      CompiledMetricsView.create(buildServerView());
+  private static final CompiledMetricsView serverFallbackView =
+      CompiledMetricsView.create(buildServerFallbackView());
 
   private static Set<AttributeKey> buildAlwaysInclude() {
     // the list of recommended metrics attributes is from
@@ -78,38 +81,18 @@ final class MetricsView {
   }
 
   static Attributes applyClientView(Attributes startAttributes, Attributes endAttributes) {
-    Set<AttributeKey> fullSet = clientView;
+    CompiledMetricsView view = clientView;
     if (!containsAttribute(SemanticAttributes.NET_PEER_NAME, startAttributes, endAttributes)) {
-      fullSet = clientFallbackView;
+      view = clientFallbackView;
     }
-    return applyView(fullSet, startAttributes, endAttributes);
+    return view.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyServerView(Attributes startAttributes, Attributes endAttributes) {
-    Set<AttributeKey> fullSet = serverView;
+    CompiledMetricsView view = serverView;
     if (!containsAttribute(SemanticAttributes.NET_HOST_NAME, startAttributes, endAttributes)) {
-      fullSet = serverFallbackView;
+      view = serverFallbackView;
     }
-    return applyView(fullSet, startAttributes, endAttributes);
-  }
-
-  static Attributes applyView(
-      Set<AttributeKey> view, Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, view);
-    applyView(filtered, endAttributes, view);
-    return filtered.build();
-  }
-
-  @SuppressWarnings("unchecked")
-  private static void applyView(
-      AttributesBuilder filtered, Attributes attributes, Set<AttributeKey> view) {
-    attributes.forEach(
-        (BiConsumer<AttributeKey, Object>)
-            (key, value) -> {
-              if (view.contains(key)) {
-                filtered.put(key, value);
-              }
-            });
+    return view.apply(startAttributes, endAttributes);
   }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributeType;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * A metrics view compiled into a fixed plan of attribute key slots. Applying the view reads the
+ * value of every key in the plan into a thread-confined value tuple, and uses that tuple to look up
+ * a previously filtered {@link Attributes} instance; metrics attributes have a low cardinality, so
+ * in the common case applying the view is a single cache lookup that does not allocate.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class CompiledMetricsView {
+
+  private static final int DEFAULT_CACHE_CAPACITY = 1024;
+
+  /** Compiles a view that retains only the passed attribute keys. */
+  @SuppressWarnings("rawtypes")
+  public static CompiledMetricsView create(Collection<AttributeKey> keys) {
+    return new CompiledMetricsView(keys.toArray(new AttributeKey<?>[0]), DEFAULT_CACHE_CAPACITY);
+  }
+
+  private final AttributeKey<?>[] keys;
+  private final boolean[] longSlots;
+  private final Cache<ValueTuple, Attributes> cache;
+  private final ThreadLocal<ValueTuple> lookupTuple;
+
+  private CompiledMetricsView(AttributeKey<?>[] keys, int cacheCapacity) {
+    if (keys.length > Long.SIZE) {
+      throw new IllegalArgumentException("A metrics view can contain at most 64 keys");
+    }
+    this.keys = keys;
+    this.longSlots = new boolean[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      longSlots[i] = keys[i].getType() == AttributeType.LONG;
+    }
+    this.cache = Cache.bounded(cacheCapacity);
+    this.lookupTuple =
+        new ThreadLocal<ValueTuple>() {
+          @Override
+          protected ValueTuple initialValue() {
+            return new ValueTuple(keys.length);
+          }
+        };
+  }
+
+  /** Returns the view of the passed {@code attributes}. */
+  public Attributes apply(Attributes attributes) {
+    return apply(attributes, Attributes.empty());
+  }
+
+  /**
+   * Returns the view of the merged {@code startAttributes} and {@code endAttributes}; values from
+   * the {@code endAttributes} take precedence.
+   */
+  public Attributes apply(Attributes startAttributes, Attributes endAttributes) {
+    ValueTuple tuple = lookupTuple.get();
+    tuple.clear();
+    for (int i = 0; i < keys.length; i++) {
+      if (!read(endAttributes, i, tuple)) {
+        read(startAttributes, i, tuple);
+      }
+    }
+    tuple.computeHashCode();
+
+    Attributes result = cache.get(tuple);
+    if (result == null) {
+      result = tuple.toAttributes(keys, longSlots);
+      cache.put(tuple.copy(), result);
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean read(Attributes attributes, int slot, ValueTuple tuple) {
+    AttributeKey<?> key = keys[slot];
+    if (longSlots[slot]) {
+      AttributeKey<Long> longKey = (AttributeKey<Long>) key;
+      if (attributes instanceof CompactAttributes) {
+        CompactAttributes compactAttributes = (CompactAttributes) attributes;
+        if (!compactAttributes.contains(longKey)) {
+          return false;
+        }
+        tuple.setLong(slot, compactAttributes.getLong(longKey, 0));
+        return true;
+      }
+      Long value = attributes.get(longKey);
+      if (value == null) {
+        return false;
+      }
+      tuple.setLong(slot, value);
+      return true;
+    }
+    Object value = attributes.get(key);
+    if (value == null) {
+      return false;
+    }
+    tuple.setObject(slot, value);
+    return true;
+  }
+
+  private static final class ValueTuple {
+    private final Object[] objects;
+    private final long[] longs;
+    private long presentSlots;
+    private int hashCode;
+
+    ValueTuple(int size) {
+      objects = new Object[size];
+      longs = new long[size];
+    }
+
+    private ValueTuple(ValueTuple other) {
+      objects = other.objects.clone();
+      longs = other.longs.clone();
+      presentSlots = other.presentSlots;
+      hashCode = other.hashCode;
+    }
+
+    void clear() {
+      Arrays.fill(objects, null);
+      Arrays.fill(longs, 0);
+      presentSlots = 0;
+    }
+
+    void setObject(int slot, Object value) {
+      objects[slot] = value;
+      presentSlots |= 1L << slot;
+    }
+
+    void setLong(int slot, long value) {
+      longs[slot] = value;
+      presentSlots |= 1L << slot;
+    }
+
+    void computeHashCode() {
+      int result = Long.hashCode(presentSlots);
+      for (int i = 0; i < objects.length; i++) {
+        result = 31 * result + Objects.hashCode(objects[i]);
+        result = 31 * result + Long.hashCode(longs[i]);
+      }
+      hashCode = result;
+    }
+
+    ValueTuple copy() {
+      return new ValueTuple(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    Attributes toAttributes(AttributeKey<?>[] keys, boolean[] longSlots) {
+      AttributesBuilder builder = Attributes.builder();
+      for (int i = 0; i < keys.length; i++) {
+        if ((presentSlots & (1L << i)) == 0) {
+          continue;
+        }
+        if (longSlots[i]) {
+          builder.put((AttributeKey<Long>) keys[i], longs[i]);
+        } else {
+          builder.put((AttributeKey<Object>) keys[i], objects[i]);
+        }
+      }
+      return builder.build();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ValueTuple)) {
+        return false;
+      }
+      ValueTuple other = (ValueTuple) obj;
+      return hashCode == other.hashCode
+          && presentSlots == other.presentSlots
+          && Arrays.equals(longs, other.longs)
+          && Arrays.equals(objects, other.objects);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -211,6 +211,39 @@ class SqlStatementSanitizerTest extends Specification {
     assert !sanitized.contains("1234")
   }
 
+  def "large bulk insert statements are sanitized"() {
+    setup:
+    def bulkInsert = { int rows ->
+      StringBuilder sb = new StringBuilder("INSERT INTO table (id, name) VALUES ")
+      for (int i = 0; i < rows; i++) {
+        sb.append(i == 0 ? "" : ", ").append("(").append(i).append(", 'name").append(i).append("')")
+      }
+      sb.toString()
+    }
+    String statement = bulkInsert(100_000)
+    SqlStatementInfo result = SqlStatementSanitizer.sanitize(statement)
+
+    expect:
+    result.getFullStatement().length() <= AutoSqlSanitizer.LIMIT
+    result.getFullStatement().startsWith("INSERT INTO table (id, name) VALUES (?, ?), (?, ?)")
+    result.getOperation() == "INSERT"
+    result.getTable() == "table"
+    // large statements are cached by their prefix, length and digest
+    SqlStatementSanitizer.sanitize(new String(statement)) == result
+    // same length and prefix, different table
+    SqlStatementSanitizer.sanitize("SELECT " + "a" * 2000 + " FROM table1").getTable() == "table1"
+    SqlStatementSanitizer.sanitize("SELECT " + "a" * 2000 + " FROM table2").getTable() == "table2"
+    SqlStatementSanitizer.sanitize(bulkInsert(100)).getFullStatement().length() < result.getFullStatement().length()
+  }
+
+  def "invalid max length #maxLength falls back to the default"() {
+    expect:
+    StatementSanitizationConfig.validateStatementMaxLength(maxLength) == 32 * 1024
+
+    where:
+    maxLength << [0, -1]
+  }
+
   def "random bytes don't cause exceptions or timeouts"() {
     setup:
     Random r = new Random(0)
@@ -0,0 +1,87 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import org.junit.jupiter.api.Test;
+
+class ActiveRequestsHandlesTest {
+
+  private static final Attributes GET = Attributes.builder().put("http.method", "GET").build();
+  private static final Attributes POST = Attributes.builder().put("http.method", "POST").build();
+
+  @Test
+  void evictedHandleIsReportedWhileRequestsAreInFlight() {
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+    ActiveRequestsHandles handles =
+        new ActiveRequestsHandles(
+            meterProvider.get("test").upDownCounterBuilder("http.server.active_requests"), 1);
+
+    ActiveRequestsHandles.Handle getHandle = handles.acquire(GET);
+    // evicts the GET handle
+    handles.acquire(POST);
+
+    assertThat(metricReader.collectAllMetrics())
+        .satisfiesExactly(
+            metric ->
+                assertThat(metric)
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.hasPointsSatisfying(
+                                point -> point.hasValue(1).hasAttributes(GET),
+                                point -> point.hasValue(1).hasAttributes(POST))));
+
+    // the evicted handle is put back in the cache instead of being replaced
+    assertThat(handles.acquire(GET)).isSameAs(getHandle);
+    getHandle.decrement();
+    getHandle.decrement();
+    // evicts the GET handle again, it has no requests in flight anymore
+    handles.acquire(POST).decrement();
+
+    assertThat(metricReader.collectAllMetrics())
+        .satisfiesExactly(
+            metric ->
+                assertThat(metric)
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.hasPointsSatisfying(
+                                point -> point.hasValue(1).hasAttributes(POST))));
+  }
+
+  @Test
+  void retiredHandleIsReplaced() {
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+    ActiveRequestsHandles handles =
+        new ActiveRequestsHandles(
+            meterProvider.get("test").upDownCounterBuilder("http.server.active_requests"), 1);
+
+    ActiveRequestsHandles.Handle getHandle = handles.acquire(GET);
+    getHandle.decrement();
+    // evicts and retires the GET handle, it has no requests in flight
+    handles.acquire(POST);
+
+    ActiveRequestsHandles.Handle newGetHandle = handles.acquire(GET);
+
+    assertThat(newGetHandle).isNotSameAs(getHandle);
+    assertThat(metricReader.collectAllMetrics())
+        .satisfiesExactly(
+            metric ->
+                assertThat(metric)
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.hasPointsSatisfying(
+                                point -> point.hasValue(1).hasAttributes(GET),
+                                point -> point.hasValue(1).hasAttributes(POST))));
+  }
+}
@@ -183,6 +183,63 @@ class HttpServerMetricsTest {
                                                 SemanticAttributes.HTTP_ROUTE, "/test/{id}")))));
   }
 
+  @Test
+  void collectsActiveRequestsWithCachedHandles() {
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+
+    OperationListener listener = new HttpServerMetrics(meterProvider.get("test"), true);
+
+    Attributes requestAttributes =
+        Attributes.builder()
+            .put("http.method", "GET")
+            .put("http.host", "host")
+            .put("http.target", "/")
+            .put("http.scheme", "https")
+            .build();
+
+    Attributes responseAttributes = Attributes.builder().put("http.status_code", 200).build();
+
+    Context context1 = listener.onStart(Context.root(), requestAttributes, nanos(100));
+    Context context2 = listener.onStart(Context.root(), requestAttributes, nanos(150));
+
+    assertThat(metricReader.collectAllMetrics())
+        .satisfiesExactlyInAnyOrder(
+            metric ->
+                assertThat(metric)
+                    .hasName("http.server.active_requests")
+                    .hasUnit("requests")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.hasPointsSatisfying(
+                                point ->
+                                    point
+                                        .hasValue(2)
+                                        .hasAttributesSatisfying(
+                                            equalTo(SemanticAttributes.HTTP_HOST, "host"),
+                                            equalTo(SemanticAttributes.HTTP_METHOD, "GET"),
+                                            equalTo(SemanticAttributes.HTTP_SCHEME, "https")))));
+
+    listener.onEnd(context1, responseAttributes, nanos(250));
+    listener.onEnd(context2, responseAttributes, nanos(300));
+
+    assertThat(metricReader.collectAllMetrics())
+        .satisfiesExactlyInAnyOrder(
+            metric ->
+                assertThat(metric)
+                    .hasName("http.server.active_requests")
+                    .hasLongSumSatisfying(
+                        sum -> sum.hasPointsSatisfying(point -> point.hasValue(0))),
+            metric ->
+                assertThat(metric)
+                    .hasName("http.server.duration")
+                    .hasHistogramSatisfying(
+                        histogram ->
+                            histogram.hasPointsSatisfying(
+                                point -> point.hasSum(300 /* millis */))));
+  }
+
   private static long nanos(int millis) {
     return TimeUnit.MILLISECONDS.toNanos(millis);
   }
@@ -0,0 +1,77 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.attributeEntry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class CompiledMetricsViewTest {
+
+  @SuppressWarnings("rawtypes")
+  private final CompiledMetricsView view =
+      CompiledMetricsView.create(
+          Arrays.<AttributeKey>asList(
+              SemanticAttributes.HTTP_METHOD,
+              SemanticAttributes.HTTP_STATUS_CODE,
+              SemanticAttributes.HTTP_ROUTE));
+
+  @Test
+  void shouldMergeAndFilterAttributes() {
+    Attributes startAttributes =
+        Attributes.builder()
+            .put(SemanticAttributes.HTTP_METHOD, "GET")
+            .put(SemanticAttributes.HTTP_ROUTE, "/users/{id}")
+            .put(SemanticAttributes.HTTP_TARGET, "/users/123")
+            .build();
+    Attributes endAttributes =
+        Attributes.builder()
+            .put(SemanticAttributes.HTTP_STATUS_CODE, 200)
+            .put(SemanticAttributes.HTTP_ROUTE, "/users/{userId}")
+            .build();
+
+    assertThat(view.apply(startAttributes, endAttributes))
+        .containsOnly(
+            attributeEntry(SemanticAttributes.HTTP_METHOD.getKey(), "GET"),
+            attributeEntry(SemanticAttributes.HTTP_STATUS_CODE.getKey(), 200L),
+            attributeEntry(SemanticAttributes.HTTP_ROUTE.getKey(), "/users/{userId}"));
+  }
+
+  @Test
+  void shouldReuseCachedAttributes() {
+    CompactAttributes first = new CompactAttributes();
+    first.put(SemanticAttributes.HTTP_METHOD, "GET");
+    first.putLong(SemanticAttributes.HTTP_STATUS_CODE, 500);
+    Attributes second =
+        Attributes.builder()
+            .put(SemanticAttributes.HTTP_METHOD, "GET")
+            .put(SemanticAttributes.HTTP_STATUS_CODE, 500)
+            .put(SemanticAttributes.HTTP_URL, "http://localhost/ignored")
+            .build();
+
+    Attributes firstView = view.apply(first);
+    assertThat(firstView)
+        .containsOnly(
+            attributeEntry(SemanticAttributes.HTTP_METHOD.getKey(), "GET"),
+            attributeEntry(SemanticAttributes.HTTP_STATUS_CODE.getKey(), 500L));
+    assertThat(view.apply(second)).isSameAs(firstView);
+    assertThat(view.apply(Attributes.empty(), second)).isSameAs(firstView);
+  }
+
+  @Test
+  void shouldDistinguishMissingAttributes() {
+    Attributes withMethod = Attributes.of(SemanticAttributes.HTTP_METHOD, "GET");
+
+    assertThat(view.apply(Attributes.empty())).isEmpty();
+    assertThat(view.apply(withMethod))
+        .containsOnly(attributeEntry(SemanticAttributes.HTTP_METHOD.getKey(), "GET"));
+  }
+}
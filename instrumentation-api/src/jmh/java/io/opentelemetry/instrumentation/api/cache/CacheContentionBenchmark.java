@@ -0,0 +1,89 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.cache;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unlike {@link CacheBenchmark}, where every thread uses its own keys, here all threads share one
+ * cache and one set of keys: most threads read while one writes, which is how the caches are used
+ * by the instrumentations (e.g. class loader and SQL statement caches).
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Group)
+public class CacheContentionBenchmark {
+
+  private static final int KEYS = 1024;
+
+  @Param({"weak", "bounded", "bounded-tiny-lfu"})
+  String cacheType;
+
+  private Cache<Object, Object> cache;
+  private Object[] keys;
+
+  @Setup
+  public void setup() {
+    switch (cacheType) {
+      case "weak":
+        cache = Cache.weak();
+        break;
+      case "bounded":
+        cache = Cache.bounded(KEYS);
+        break;
+      default:
+        cache = Cache.boundedTinyLfu(KEYS);
+        break;
+    }
+    keys = new Object[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = new Object();
+      cache.put(keys[i], keys[i]);
+    }
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(7)
+  public Object read() {
+    return cache.get(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(1)
+  public Object write() {
+    Object key = keys[ThreadLocalRandom.current().nextInt(KEYS)];
+    cache.put(key, key);
+    return key;
+  }
+
+  @Benchmark
+  @Group("computeIfAbsent")
+  @GroupThreads(8)
+  public Object computeIfAbsent() {
+    return cache.computeIfAbsent(
+        keys[ThreadLocalRandom.current().nextInt(KEYS)], key -> new Object());
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.cache;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the hit rates of the LRU and Window-TinyLFU bounded caches under a workload resembling
+ * SQL sanitization: keys drawn from a Zipf distribution (frequently executed statements) mixed
+ * with keys that are used only once (ad-hoc queries). The hit rate is {@code hits / (hits +
+ * misses)} of the reported secondary results.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CacheHitRateBenchmark {
+
+  private static final int CAPACITY = 1000;
+  private static final int DISTINCT_KEYS = 10_000;
+
+  @Param({"lru", "tiny-lfu"})
+  public String policy;
+
+  // percentage of the accesses that use a key that is never used again
+  @Param({"0", "30"})
+  public int oneOffPercent;
+
+  private Cache<String, String> cache;
+  private String[] keys;
+  private double[] cumulativeProbabilities;
+  private final AtomicLong oneOffKeys = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    cache = policy.equals("lru") ? Cache.bounded(CAPACITY) : Cache.boundedTinyLfu(CAPACITY);
+    keys = new String[DISTINCT_KEYS];
+    cumulativeProbabilities = new double[DISTINCT_KEYS];
+    double sum = 0;
+    for (int i = 0; i < DISTINCT_KEYS; i++) {
+      keys[i] = "SELECT * FROM table" + i + " WHERE id = ?";
+      sum += 1.0 / (i + 1);
+      cumulativeProbabilities[i] = sum;
+    }
+    for (int i = 0; i < DISTINCT_KEYS; i++) {
+      cumulativeProbabilities[i] /= sum;
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class HitRate {
+    public long hits;
+    public long misses;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      hits = 0;
+      misses = 0;
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String zipf(HitRate hitRate) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String key;
+    if (random.nextInt(100) < oneOffPercent) {
+      key = "SELECT * FROM report WHERE id = " + oneOffKeys.incrementAndGet();
+    } else {
+      int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+      key = keys[Math.min(index < 0 ? -index - 1 : index, DISTINCT_KEYS - 1)];
+    }
+
+    String value = cache.get(key);
+    if (value != null) {
+      hitRate.hits++;
+      return value;
+    }
+    hitRate.misses++;
+    cache.put(key, key);
+    return key;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.http.HttpServerAttributesExtractor;
+import io.opentelemetry.instrumentation.api.instrumenter.http.HttpServerAttributesGetter;
+import io.opentelemetry.instrumentation.api.instrumenter.http.HttpSpanNameExtractor;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the per-operation cost of the default and the allocation-free {@link Instrumenter} mode.
+ * Run with the GC profiler (enabled by default in this build) and compare the {@code
+ * gc.alloc.rate.norm} values: in the allocation-free mode the only remaining allocations are the
+ * ones done by the {@link Context} and the OpenTelemetry API/SDK itself.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class InstrumenterAllocationBenchmark {
+
+  @Param({"false", "true"})
+  boolean allocationFreeMode;
+
+  private Instrumenter<Void, Void> noExtractorInstrumenter;
+  private Instrumenter<Void, Void> httpServerInstrumenter;
+
+  @Setup
+  public void setup() {
+    noExtractorInstrumenter =
+        Instrumenter.<Void, Void>builder(OpenTelemetry.noop(), "benchmark", unused -> "span")
+            .setAllocationFreeMode(allocationFreeMode)
+            .newInstrumenter();
+    httpServerInstrumenter =
+        Instrumenter.<Void, Void>builder(
+                OpenTelemetry.noop(),
+                "benchmark",
+                HttpSpanNameExtractor.create(ConstantHttpServerAttributesGetter.INSTANCE))
+            .addAttributesExtractor(
+                HttpServerAttributesExtractor.create(ConstantHttpServerAttributesGetter.INSTANCE))
+            .setAllocationFreeMode(allocationFreeMode)
+            .newInstrumenter();
+  }
+
+  @Benchmark
+  public Context noExtractor_startEnd() {
+    Context context = noExtractorInstrumenter.start(Context.root(), null);
+    noExtractorInstrumenter.end(context, null, null, null);
+    return context;
+  }
+
+  @Benchmark
+  public Context httpServer_startEnd() {
+    Context context = httpServerInstrumenter.start(Context.root(), null);
+    httpServerInstrumenter.end(context, null, null, null);
+    return context;
+  }
+
+  enum ConstantHttpServerAttributesGetter implements HttpServerAttributesGetter<Void, Void> {
+    INSTANCE;
+
+    @Override
+    public String method(Void unused) {
+      return "GET";
+    }
+
+    @Override
+    public List<String> requestHeader(Void unused, String name) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    @Nullable
+    public Long requestContentLength(Void unused, @Nullable Void unused2) {
+      return null;
+    }
+
+    @Override
+    @Nullable
+    public Long requestContentLengthUncompressed(Void unused, @Nullable Void unused2) {
+      return null;
+    }
+
+    @Override
+    public Integer statusCode(Void unused, Void unused2) {
+      return 200;
+    }
+
+    @Override
+    @Nullable
+    public Long responseContentLength(Void unused, Void unused2) {
+      return null;
+    }
+
+    @Override
+    @Nullable
+    public Long responseContentLengthUncompressed(Void unused, Void unused2) {
+      return null;
+    }
+
+    @Override
+    public List<String> responseHeader(Void unused, Void unused2, String name) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public String flavor(Void unused) {
+      return SemanticAttributes.HttpFlavorValues.HTTP_1_1;
+    }
+
+    @Override
+    public String target(Void unused) {
+      return "/benchmark";
+    }
+
+    @Override
+    public String route(Void unused) {
+      return "/benchmark";
+    }
+
+    @Override
+    public String scheme(Void unused) {
+      return "http";
+    }
+
+    @Override
+    @Nullable
+    public String serverName(Void unused) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the cost of {@link Instrumenter#start(Context, Object)} and {@link
+ * Instrumenter#end(Context, Object, Object, Throwable)} grows with the number of attributes
+ * extractors; every extractor sets one attribute on start and one on end.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class InstrumenterExtractorsBenchmark {
+
+  @Param({"0", "1", "5", "10"})
+  int extractors;
+
+  private Instrumenter<String, String> instrumenter;
+
+  @Setup
+  public void setup() {
+    InstrumenterBuilder<String, String> builder =
+        Instrumenter.<String, String>builder(
+            OpenTelemetry.noop(), "benchmark", request -> request);
+    for (int i = 0; i < extractors; i++) {
+      builder.addAttributesExtractor(new ConstantAttributesExtractor(i));
+    }
+    instrumenter = builder.newInstrumenter();
+  }
+
+  @Benchmark
+  public Context startEnd() {
+    Context context = instrumenter.start(Context.root(), "request");
+    instrumenter.end(context, "request", "response", null);
+    return context;
+  }
+
+  private static final class ConstantAttributesExtractor
+      implements AttributesExtractor<String, String> {
+
+    private final AttributeKey<String> startKey;
+    private final AttributeKey<Long> endKey;
+
+    ConstantAttributesExtractor(int index) {
+      startKey = AttributeKey.stringKey("benchmark.start." + index);
+      endKey = AttributeKey.longKey("benchmark.end." + index);
+    }
+
+    @Override
+    public void onStart(AttributesBuilder attributes, Context parentContext, String request) {
+      attributes.put(startKey, request);
+    }
+
+    @Override
+    public void onEnd(
+        AttributesBuilder attributes,
+        Context context,
+        String request,
+        @Nullable String response,
+        @Nullable Throwable error) {
+      attributes.put(endKey, 200L);
+    }
+  }
+}
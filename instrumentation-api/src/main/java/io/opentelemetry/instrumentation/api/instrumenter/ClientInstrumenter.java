@@ -6,25 +6,27 @@
 package io.opentelemetry.instrumentation.api.instrumenter;
 
 import io.opentelemetry.context.Context;
-import io.opentelemetry.context.propagation.ContextPropagators;
 import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.instrumentation.api.internal.BinaryTraceContextPropagation;
 
 final class ClientInstrumenter<REQUEST, RESPONSE> extends Instrumenter<REQUEST, RESPONSE> {
 
-  private final ContextPropagators propagators;
+  private final BinaryTraceContextPropagation propagation;
   private final TextMapSetter<REQUEST> setter;
 
   ClientInstrumenter(
       InstrumenterBuilder<REQUEST, RESPONSE> builder, TextMapSetter<REQUEST> setter) {
     super(builder);
-    this.propagators = builder.openTelemetry.getPropagators();
+    this.propagation =
+        BinaryTraceContextPropagation.create(
+            builder.openTelemetry.getPropagators().getTextMapPropagator());
     this.setter = setter;
   }
 
   @Override
   public Context start(Context parentContext, REQUEST request) {
     Context newContext = super.start(parentContext, request);
-    propagators.getTextMapPropagator().inject(newContext, request, setter);
+    propagation.inject(newContext, request, setter);
     return newContext;
   }
 }
@@ -6,16 +6,17 @@
 package io.opentelemetry.instrumentation.api.instrumenter;
 
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.internal.CompactAttributes;
 import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 
@@ -62,9 +63,6 @@ public class Instrumenter<REQUEST, RESPONSE> {
     return new InstrumenterBuilder<>(openTelemetry, instrumentationName, spanNameExtractor);
   }
 
-  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
-
-  private final String instrumentationName;
   private final Tracer tracer;
   private final SpanNameExtractor<? super REQUEST> spanNameExtractor;
   private final SpanKindExtractor<? super REQUEST> spanKindExtractor;
@@ -77,9 +75,12 @@ public class Instrumenter<REQUEST, RESPONSE> {
   private final ErrorCauseExtractor errorCauseExtractor;
   private final boolean enabled;
   private final SpanSuppressor spanSuppressor;
+  private final SupportabilityMetrics.SuppressedSpanCounter suppressedSpanCounter;
+  private final boolean allocationFreeMode;
+  // start attributes can be safely reused only when nothing can keep a reference to them
+  private final boolean reuseStartAttributes;
 
   Instrumenter(InstrumenterBuilder<REQUEST, RESPONSE> builder) {
-    this.instrumentationName = builder.instrumentationName;
     this.tracer = builder.buildTracer();
     this.spanNameExtractor = builder.spanNameExtractor;
     this.spanKindExtractor = builder.spanKindExtractor;
@@ -91,6 +92,11 @@ public class Instrumenter<REQUEST, RESPONSE> {
     this.errorCauseExtractor = builder.errorCauseExtractor;
     this.enabled = builder.enabled;
     this.spanSuppressor = builder.buildSpanSuppressor();
+    this.suppressedSpanCounter =
+        SupportabilityMetrics.instance().suppressedSpanCounter(builder.instrumentationName);
+    this.allocationFreeMode = builder.allocationFreeMode;
+    this.reuseStartAttributes =
+        allocationFreeMode && contextCustomizers.isEmpty() && operationListeners.isEmpty();
   }
 
   /**
@@ -111,7 +117,7 @@ public class Instrumenter<REQUEST, RESPONSE> {
     boolean suppressed = spanSuppressor.shouldSuppress(parentContext, spanKind);
 
     if (suppressed) {
-      supportability.recordSuppressedSpan(spanKind, instrumentationName);
+      suppressedSpanCounter.increment(spanKind);
     }
     return !suppressed;
   }
@@ -169,21 +175,79 @@ public class Instrumenter<REQUEST, RESPONSE> {
       spanBuilder.setStartTimestamp(startTime);
     }
 
-    SpanLinksBuilder spanLinksBuilder = new SpanLinksBuilderImpl(spanBuilder);
-    for (SpanLinksExtractor<? super REQUEST> spanLinksExtractor : spanLinksExtractors) {
-      spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
+    if (!allocationFreeMode) {
+      return doStartAllocating(parentContext, request, startTime, spanKind, spanBuilder);
+    }
+    OperationBuffers buffers = OperationBuffers.acquire();
+    try {
+      return doStartAllocationFree(
+          parentContext, request, startTime, spanKind, spanBuilder, buffers);
+    } finally {
+      buffers.release();
+    }
+  }
+
+  private Context doStartAllocating(
+      Context parentContext,
+      REQUEST request,
+      @Nullable Instant startTime,
+      SpanKind spanKind,
+      SpanBuilder spanBuilder) {
+    if (!spanLinksExtractors.isEmpty()) {
+      SpanLinksBuilder spanLinksBuilder = new SpanLinksBuilderImpl(spanBuilder);
+      for (SpanLinksExtractor<? super REQUEST> spanLinksExtractor : spanLinksExtractors) {
+        spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
+      }
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
+    CompactAttributes attributes = new CompactAttributes();
     for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
       extractor.onStart(attributes, parentContext, request);
     }
 
-    Context context = parentContext;
+    attributes.applyTo(spanBuilder);
+    Span span = spanBuilder.startSpan();
+
+    return onSpanStarted(parentContext, request, startTime, spanKind, span, attributes);
+  }
+
+  private Context doStartAllocationFree(
+      Context parentContext,
+      REQUEST request,
+      @Nullable Instant startTime,
+      SpanKind spanKind,
+      SpanBuilder spanBuilder,
+      OperationBuffers buffers) {
+    if (!spanLinksExtractors.isEmpty()) {
+      SpanLinksBuilderImpl spanLinksBuilder = buffers.spanLinksBuilder;
+      spanLinksBuilder.reset(spanBuilder);
+      for (SpanLinksExtractor<? super REQUEST> spanLinksExtractor : spanLinksExtractors) {
+        spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
+      }
+    }
+
+    // context customizers and operation listeners (e.g. the HTTP metrics) may hold on to the start
+    // attributes until the operation ends; in that case they cannot come from a reused buffer
+    CompactAttributes attributes =
+        reuseStartAttributes ? buffers.attributes : new CompactAttributes();
+    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
+      extractor.onStart(attributes, parentContext, request);
+    }
 
-    spanBuilder.setAllAttributes(attributes);
+    attributes.applyTo(spanBuilder);
     Span span = spanBuilder.startSpan();
-    context = context.with(span);
+
+    return onSpanStarted(parentContext, request, startTime, spanKind, span, attributes);
+  }
+
+  private Context onSpanStarted(
+      Context parentContext,
+      REQUEST request,
+      @Nullable Instant startTime,
+      SpanKind spanKind,
+      Span span,
+      Attributes attributes) {
+    Context context = parentContext.with(span);
 
     for (ContextCustomizer<? super REQUEST> contextCustomizer : contextCustomizers) {
       context = contextCustomizer.onStart(context, request, attributes);
@@ -216,24 +280,38 @@ public class Instrumenter<REQUEST, RESPONSE> {
       span.recordException(error);
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
-    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
-      extractor.onEnd(attributes, context, request, response, error);
-    }
-    span.setAllAttributes(attributes);
+    if (!allocationFreeMode) {
+      CompactAttributes attributes = new CompactAttributes();
+      for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+          attributesExtractors) {
+        extractor.onEnd(attributes, context, request, response, error);
+      }
+      attributes.applyTo(span);
+      onEnd(context, attributes, endTime);
 
-    if (!operationListeners.isEmpty()) {
-      long endNanos = getNanos(endTime);
-      ListIterator<? extends OperationListener> i =
-          operationListeners.listIterator(operationListeners.size());
-      while (i.hasPrevious()) {
-        i.previous().onEnd(context, attributes, endNanos);
+      SpanStatusBuilder spanStatusBuilder = new SpanStatusBuilderImpl(span);
+      spanStatusExtractor.extract(spanStatusBuilder, request, response, error);
+    } else {
+      OperationBuffers buffers = OperationBuffers.acquire();
+      try {
+        // operation listeners must not keep a reference to the end attributes, so they can always
+        // come from a reused buffer
+        CompactAttributes attributes = buffers.attributes;
+        for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+            attributesExtractors) {
+          extractor.onEnd(attributes, context, request, response, error);
+        }
+        attributes.applyTo(span);
+        onEnd(context, attributes, endTime);
+
+        SpanStatusBuilderImpl spanStatusBuilder = buffers.spanStatusBuilder;
+        spanStatusBuilder.reset(span);
+        spanStatusExtractor.extract(spanStatusBuilder, request, response, error);
+      } finally {
+        buffers.release();
       }
     }
 
-    SpanStatusBuilder spanStatusBuilder = new SpanStatusBuilderImpl(span);
-    spanStatusExtractor.extract(spanStatusBuilder, request, response, error);
-
     if (endTime != null) {
       span.end(endTime);
     } else {
@@ -241,6 +319,15 @@ public class Instrumenter<REQUEST, RESPONSE> {
     }
   }
 
+  private void onEnd(Context context, Attributes attributes, @Nullable Instant endTime) {
+    if (!operationListeners.isEmpty()) {
+      long endNanos = getNanos(endTime);
+      for (int i = operationListeners.size() - 1; i >= 0; i--) {
+        operationListeners.get(i).onEnd(context, attributes, endNanos);
+      }
+    }
+  }
+
   private static long getNanos(@Nullable Instant time) {
     if (time == null) {
       return System.nanoTime();
@@ -37,6 +37,8 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
 
   private static final SpanSuppressionStrategy spanSuppressionStrategy =
       SpanSuppressionStrategy.fromConfig(Config.get());
+  private static final boolean allocationFreeModeDefault =
+      Config.get().getBoolean("otel.instrumentation.experimental.allocation-free-mode", false);
 
   final OpenTelemetry openTelemetry;
   final String instrumentationName;
@@ -56,6 +58,7 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
       SpanStatusExtractor.getDefault();
   ErrorCauseExtractor errorCauseExtractor = ErrorCauseExtractor.jdk();
   boolean enabled = true;
+  boolean allocationFreeMode = allocationFreeModeDefault;
 
   InstrumenterBuilder(
       OpenTelemetry openTelemetry,
@@ -196,6 +199,26 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
     return this;
   }
 
+  /**
+   * Enables the allocation-free mode of the {@link Instrumenter}. In this mode the attributes
+   * builders passed to {@link AttributesExtractor}s, the {@link SpanLinksBuilder} and the {@link
+   * SpanStatusBuilder} are thread-confined and reused between operations, and the extracted
+   * attributes are written directly into the span instead of being copied.
+   *
+   * <p>Because the end attributes are reused, {@link OperationListener}s registered on this {@link
+   * Instrumenter} must not keep a reference to them after {@link OperationListener#onEnd(Context,
+   * io.opentelemetry.api.common.Attributes, long)} returns. The start attributes are only reused
+   * when there are no {@link ContextCustomizer}s and no {@link OperationListener}s.
+   *
+   * <p>The default value can be set with the {@code
+   * otel.instrumentation.experimental.allocation-free-mode} configuration property; it is {@code
+   * false} if not set.
+   */
+  public InstrumenterBuilder<REQUEST, RESPONSE> setAllocationFreeMode(boolean allocationFreeMode) {
+    this.allocationFreeMode = allocationFreeMode;
+    return this;
+  }
+
   /**
    * Returns a new {@link Instrumenter} which will create {@linkplain SpanKind#CLIENT client} spans
    * and inject context into requests.
@@ -0,0 +1,50 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.api.internal.CompactAttributes;
+
+/**
+ * Thread-confined, reusable per-operation state of an {@link Instrumenter} running in the
+ * allocation-free mode. Since {@link Instrumenter#start(io.opentelemetry.context.Context, Object)}
+ * and {@link Instrumenter#end(io.opentelemetry.context.Context, Object, Object, Throwable)} never
+ * interleave on a single thread, one instance per thread is enough; a reentrant call (e.g. an
+ * extractor that uses another {@link Instrumenter}) gets a fresh instance instead.
+ */
+final class OperationBuffers {
+
+  private static final ThreadLocal<OperationBuffers> threadLocalBuffers =
+      new ThreadLocal<OperationBuffers>() {
+        @Override
+        protected OperationBuffers initialValue() {
+          return new OperationBuffers();
+        }
+      };
+
+  final CompactAttributes attributes = new CompactAttributes();
+  final SpanLinksBuilderImpl spanLinksBuilder = new SpanLinksBuilderImpl(null);
+  final SpanStatusBuilderImpl spanStatusBuilder = new SpanStatusBuilderImpl(Span.getInvalid());
+  private boolean inUse;
+
+  static OperationBuffers acquire() {
+    OperationBuffers buffers = threadLocalBuffers.get();
+    if (buffers.inUse) {
+      return new OperationBuffers();
+    }
+    buffers.inUse = true;
+    return buffers;
+  }
+
+  void release() {
+    attributes.clear();
+    spanLinksBuilder.reset(null);
+    spanStatusBuilder.reset(Span.getInvalid());
+    inUse = false;
+  }
+
+  private OperationBuffers() {}
+}
@@ -9,19 +9,20 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.instrumentation.api.internal.BinaryTraceContextPropagation;
 
 final class PropagatorBasedSpanLinksExtractor<REQUEST> implements SpanLinksExtractor<REQUEST> {
-  private final TextMapPropagator propagator;
+  private final BinaryTraceContextPropagation propagation;
   private final TextMapGetter<REQUEST> getter;
 
   PropagatorBasedSpanLinksExtractor(TextMapPropagator propagator, TextMapGetter<REQUEST> getter) {
-    this.propagator = propagator;
+    this.propagation = BinaryTraceContextPropagation.create(propagator);
     this.getter = getter;
   }
 
   @Override
   public void extract(SpanLinksBuilder spanLinks, Context parentContext, REQUEST request) {
-    Context extracted = propagator.extract(parentContext, request, getter);
+    Context extracted = propagation.extract(parentContext, request, getter);
     spanLinks.addLink(Span.fromContext(extracted).getSpanContext());
   }
 }
@@ -8,23 +8,33 @@ package io.opentelemetry.instrumentation.api.instrumenter;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.SpanContext;
+import javax.annotation.Nullable;
 
 final class SpanLinksBuilderImpl implements SpanLinksBuilder {
-  private final SpanBuilder spanBuilder;
+  @Nullable private SpanBuilder spanBuilder;
 
-  SpanLinksBuilderImpl(SpanBuilder spanBuilder) {
+  SpanLinksBuilderImpl(@Nullable SpanBuilder spanBuilder) {
+    this.spanBuilder = spanBuilder;
+  }
+
+  // used to reuse thread-confined instances, see OperationBuffers
+  void reset(@Nullable SpanBuilder spanBuilder) {
     this.spanBuilder = spanBuilder;
   }
 
   @Override
   public SpanLinksBuilder addLink(SpanContext spanContext) {
-    spanBuilder.addLink(spanContext);
+    if (spanBuilder != null) {
+      spanBuilder.addLink(spanContext);
+    }
     return this;
   }
 
   @Override
   public SpanLinksBuilder addLink(SpanContext spanContext, Attributes attributes) {
-    spanBuilder.addLink(spanContext, attributes);
+    if (spanBuilder != null) {
+      spanBuilder.addLink(spanContext, attributes);
+    }
     return this;
   }
 }
@@ -9,12 +9,17 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 
 final class SpanStatusBuilderImpl implements SpanStatusBuilder {
-  private final Span span;
+  private Span span;
 
   SpanStatusBuilderImpl(Span span) {
     this.span = span;
   }
 
+  // used to reuse thread-confined instances, see OperationBuffers
+  void reset(Span span) {
+    this.span = span;
+  }
+
   @Override
   public SpanStatusBuilder setStatus(StatusCode statusCode, String description) {
     span.setStatus(statusCode, description);
@@ -26,5 +26,33 @@ public final class AttributesExtractorUtil {
     }
   }
 
+  /**
+   * Sets the {@code long} {@code value} with the given {@code key} to the {@link
+   * AttributesBuilder}, without boxing it if the builder is the one passed by the {@link
+   * io.opentelemetry.instrumentation.api.instrumenter.Instrumenter}.
+   */
+  public static void internalSet(
+      AttributesBuilder attributes, AttributeKey<Long> key, long value) {
+    if (attributes instanceof CompactAttributes) {
+      ((CompactAttributes) attributes).putLong(key, value);
+    } else {
+      attributes.put(key, value);
+    }
+  }
+
+  /**
+   * Sets the {@code boolean} {@code value} with the given {@code key} to the {@link
+   * AttributesBuilder}, without boxing it if the builder is the one passed by the {@link
+   * io.opentelemetry.instrumentation.api.instrumenter.Instrumenter}.
+   */
+  public static void internalSet(
+      AttributesBuilder attributes, AttributeKey<Boolean> key, boolean value) {
+    if (attributes instanceof CompactAttributes) {
+      ((CompactAttributes) attributes).putBoolean(key, value);
+    } else {
+      attributes.put(key, value);
+    }
+  }
+
   private AttributesExtractorUtil() {}
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.context.propagation.TextMapGetter;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link TextMapGetter} for carriers that store the header values as bytes. The W3C trace context
+ * headers are parsed straight from the bytes returned by {@link #getBytes(Object, String)}, see
+ * {@link BinaryTraceContextPropagation}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface BinaryTextMapGetter<C> extends TextMapGetter<C> {
+
+  /**
+   * Returns the bytes of the header value for the given key, or {@code null} if there is no such
+   * header. The returned array must not be modified.
+   */
+  @Nullable
+  byte[] getBytes(C carrier, String key);
+}
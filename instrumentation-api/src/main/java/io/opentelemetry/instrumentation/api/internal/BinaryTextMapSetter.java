@@ -0,0 +1,26 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.context.propagation.TextMapSetter;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link TextMapSetter} for carriers that store the header values as bytes. The W3C trace context
+ * headers are encoded straight into the bytes passed to {@link #setBytes(Object, String, byte[])},
+ * see {@link BinaryTraceContextPropagation}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface BinaryTextMapSetter<C> extends TextMapSetter<C> {
+
+  /**
+   * Sets the header value for the given key. The carrier takes ownership of the array, it is not
+   * reused by the caller.
+   */
+  void setBytes(@Nullable C carrier, String key, byte[] value);
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.TraceStateBuilder;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * Propagates the W3C trace context through carriers that store the header values as bytes, without
+ * decoding the {@code traceparent} and {@code tracestate} headers into {@code String}s on extract
+ * or building them as {@code String}s on inject. The headers of {@link BinaryTextMapGetter}s and
+ * {@link BinaryTextMapSetter}s are read and written as bytes only when the propagator is the bare
+ * W3C trace context propagator instance, e.g. when {@code otel.propagators} is set to {@code
+ * tracecontext}. Any other propagator, including composites like the default {@code
+ * tracecontext,baggage} and propagators that wrap or customize the W3C trace context propagator,
+ * and any other getter or setter goes through the {@link TextMapPropagator}.
+ *
+ * <p>Invalid headers are rejected without allocating anything, the trace state of the extracted
+ * span context is dropped when it is invalid, like the W3C trace context propagator does.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class BinaryTraceContextPropagation {
+
+  private static final String TRACEPARENT = "traceparent";
+  private static final String TRACESTATE = "tracestate";
+
+  private static final int VERSION_OFFSET = 0;
+  private static final int TRACE_ID_OFFSET = 3;
+  private static final int TRACE_ID_LENGTH = 32;
+  private static final int SPAN_ID_OFFSET = 36;
+  private static final int SPAN_ID_LENGTH = 16;
+  private static final int FLAGS_OFFSET = 53;
+  private static final int TRACEPARENT_LENGTH = 55;
+  private static final byte DELIMITER = '-';
+
+  private static final int TRACESTATE_MAX_MEMBERS = 32;
+  // the maximum length of a trace state that the W3C spec requires to be propagated
+  private static final int TRACESTATE_BUFFER_SIZE = 512;
+
+  private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+  private static final ThreadLocal<TraceStateWriter> traceStateWriter =
+      new ThreadLocal<TraceStateWriter>() {
+        @Override
+        protected TraceStateWriter initialValue() {
+          return new TraceStateWriter();
+        }
+      };
+
+  @Nullable private static volatile BinaryTraceContextPropagation last;
+
+  private final TextMapPropagator propagator;
+  private final boolean binary;
+
+  /** Returns the binary propagation for the given propagator. */
+  public static BinaryTraceContextPropagation create(TextMapPropagator propagator) {
+    // the propagators of a composite can't be inspected, only the bare W3C trace context
+    // propagator is known to propagate exactly the traceparent and tracestate headers
+    return new BinaryTraceContextPropagation(
+        propagator, propagator == W3CTraceContextPropagator.getInstance());
+  }
+
+  /**
+   * Returns the binary propagation for the given propagator, reusing the one that was returned for
+   * the previous call with the same propagator. Meant for propagators that are looked up on each
+   * use, e.g. from {@code GlobalOpenTelemetry}.
+   */
+  public static BinaryTraceContextPropagation forPropagator(TextMapPropagator propagator) {
+    BinaryTraceContextPropagation propagation = last;
+    if (propagation == null || propagation.propagator != propagator) {
+      propagation = create(propagator);
+      last = propagation;
+    }
+    return propagation;
+  }
+
+  private BinaryTraceContextPropagation(TextMapPropagator propagator, boolean binary) {
+    this.propagator = propagator;
+    this.binary = binary;
+  }
+
+  // Visible for testing
+  boolean isBinary() {
+    return binary;
+  }
+
+  /** Extracts the context from the carrier, like {@link TextMapPropagator#extract}. */
+  @SuppressWarnings("unchecked")
+  public <C> Context extract(Context context, @Nullable C carrier, TextMapGetter<C> getter) {
+    if (!binary || carrier == null || !(getter instanceof BinaryTextMapGetter)) {
+      return propagator.extract(context, carrier, getter);
+    }
+    return extractTraceContext(context, carrier, (BinaryTextMapGetter<C>) getter);
+  }
+
+  /** Injects the context into the carrier, like {@link TextMapPropagator#inject}. */
+  @SuppressWarnings("unchecked")
+  public <C> void inject(Context context, @Nullable C carrier, TextMapSetter<C> setter) {
+    if (!binary || !(setter instanceof BinaryTextMapSetter)) {
+      propagator.inject(context, carrier, setter);
+      return;
+    }
+    injectTraceContext(context, carrier, (BinaryTextMapSetter<C>) setter);
+  }
+
+  private static <C> Context extractTraceContext(
+      Context context, C carrier, BinaryTextMapGetter<C> getter) {
+    byte[] traceparent = getter.getBytes(carrier, TRACEPARENT);
+    if (traceparent == null || !isValidTraceparent(traceparent)) {
+      return context;
+    }
+    byte[] tracestate = getter.getBytes(carrier, TRACESTATE);
+    SpanContext spanContext =
+        SpanContext.createFromRemoteParent(
+            new String(traceparent, TRACE_ID_OFFSET, TRACE_ID_LENGTH, StandardCharsets.US_ASCII),
+            new String(traceparent, SPAN_ID_OFFSET, SPAN_ID_LENGTH, StandardCharsets.US_ASCII),
+            TraceFlags.fromByte(hexByte(traceparent, FLAGS_OFFSET)),
+            tracestate == null ? TraceState.getDefault() : parseTracestate(tracestate));
+    if (!spanContext.isValid()) {
+      return context;
+    }
+    return context.with(Span.wrap(spanContext));
+  }
+
+  // Visible for testing
+  static boolean isValidTraceparent(byte[] value) {
+    if (value.length < TRACEPARENT_LENGTH || !isHex(value, VERSION_OFFSET, 2)) {
+      return false;
+    }
+    // version ff is forbidden, versions after 00 may append fields after the flags
+    if (value[VERSION_OFFSET] == 'f' && value[VERSION_OFFSET + 1] == 'f') {
+      return false;
+    }
+    boolean version00 = value[VERSION_OFFSET] == '0' && value[VERSION_OFFSET + 1] == '0';
+    if (value.length > TRACEPARENT_LENGTH
+        && (version00 || value[TRACEPARENT_LENGTH] != DELIMITER)) {
+      return false;
+    }
+    return value[TRACE_ID_OFFSET - 1] == DELIMITER
+        && value[SPAN_ID_OFFSET - 1] == DELIMITER
+        && value[FLAGS_OFFSET - 1] == DELIMITER
+        && isHex(value, TRACE_ID_OFFSET, TRACE_ID_LENGTH)
+        && !isZero(value, TRACE_ID_OFFSET, TRACE_ID_LENGTH)
+        && isHex(value, SPAN_ID_OFFSET, SPAN_ID_LENGTH)
+        && !isZero(value, SPAN_ID_OFFSET, SPAN_ID_LENGTH)
+        && isHex(value, FLAGS_OFFSET, 2);
+  }
+
+  // Visible for testing
+  static TraceState parseTracestate(byte[] value) {
+    TraceStateBuilder builder = TraceState.builder();
+    int members = 0;
+    // the builder adds each member in front of the previous ones, so the members are parsed from
+    // the last one to the first one
+    int end = value.length;
+    // trailing empty members are ignored, like the W3C trace context propagator does
+    while (end > 0 && (value[end - 1] == ',' || isWhitespace(value[end - 1]))) {
+      end--;
+    }
+    if (end == 0) {
+      return TraceState.getDefault();
+    }
+    while (true) {
+      int start = end;
+      while (start > 0 && value[start - 1] != ',') {
+        start--;
+      }
+      int memberStart = trimStart(value, start, end);
+      int memberEnd = trimEnd(value, memberStart, end);
+      int separator = indexOf(value, memberStart, memberEnd, (byte) '=');
+      if (separator == -1 || ++members > TRACESTATE_MAX_MEMBERS) {
+        return TraceState.getDefault();
+      }
+      builder.put(ascii(value, memberStart, separator), ascii(value, separator + 1, memberEnd));
+      if (start == 0) {
+        break;
+      }
+      // skip the comma
+      end = start - 1;
+    }
+    TraceState traceState = builder.build();
+    // the builder ignores the invalid and duplicate members, the W3C trace context propagator
+    // drops the whole trace state in that case
+    return traceState.size() == members ? traceState : TraceState.getDefault();
+  }
+
+  private static <C> void injectTraceContext(
+      Context context, @Nullable C carrier, BinaryTextMapSetter<C> setter) {
+    SpanContext spanContext = Span.fromContext(context).getSpanContext();
+    if (!spanContext.isValid()) {
+      return;
+    }
+
+    byte[] traceparent = new byte[TRACEPARENT_LENGTH];
+    traceparent[VERSION_OFFSET] = '0';
+    traceparent[VERSION_OFFSET + 1] = '0';
+    traceparent[TRACE_ID_OFFSET - 1] = DELIMITER;
+    writeAscii(spanContext.getTraceId(), traceparent, TRACE_ID_OFFSET);
+    traceparent[SPAN_ID_OFFSET - 1] = DELIMITER;
+    writeAscii(spanContext.getSpanId(), traceparent, SPAN_ID_OFFSET);
+    traceparent[FLAGS_OFFSET - 1] = DELIMITER;
+    byte flags = spanContext.getTraceFlags().asByte();
+    traceparent[FLAGS_OFFSET] = HEX_DIGITS[(flags >> 4) & 0xF];
+    traceparent[FLAGS_OFFSET + 1] = HEX_DIGITS[flags & 0xF];
+    setter.setBytes(carrier, TRACEPARENT, traceparent);
+
+    TraceState traceState = spanContext.getTraceState();
+    if (!traceState.isEmpty()) {
+      setter.setBytes(carrier, TRACESTATE, traceStateWriter.get().write(traceState));
+    }
+  }
+
+  private static boolean isHex(byte[] value, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      if (hexValue(value[i]) == -1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isZero(byte[] value, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      if (value[i] != '0') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // only lower case hex digits are valid
+  private static int hexValue(byte b) {
+    if (b >= '0' && b <= '9') {
+      return b - '0';
+    }
+    if (b >= 'a' && b <= 'f') {
+      return b - 'a' + 10;
+    }
+    return -1;
+  }
+
+  private static byte hexByte(byte[] value, int offset) {
+    return (byte) ((hexValue(value[offset]) << 4) | hexValue(value[offset + 1]));
+  }
+
+  private static int trimStart(byte[] value, int start, int end) {
+    while (start < end && isWhitespace(value[start])) {
+      start++;
+    }
+    return start;
+  }
+
+  private static int trimEnd(byte[] value, int start, int end) {
+    while (end > start && isWhitespace(value[end - 1])) {
+      end--;
+    }
+    return end;
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t';
+  }
+
+  private static int indexOf(byte[] value, int start, int end, byte b) {
+    for (int i = start; i < end; i++) {
+      if (value[i] == b) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static String ascii(byte[] value, int start, int end) {
+    return new String(value, start, end - start, StandardCharsets.US_ASCII);
+  }
+
+  // the ids and the trace state entries only contain ASCII characters
+  private static void writeAscii(String value, byte[] buffer, int offset) {
+    for (int i = 0; i < value.length(); i++) {
+      buffer[offset + i] = (byte) value.charAt(i);
+    }
+  }
+
+  /** Encodes trace states into a buffer that is reused by the thread. */
+  private static final class TraceStateWriter implements BiConsumer<String, String> {
+    private byte[] buffer = new byte[TRACESTATE_BUFFER_SIZE];
+    private int length;
+
+    byte[] write(TraceState traceState) {
+      length = 0;
+      traceState.forEach(this);
+      return Arrays.copyOf(buffer, length);
+    }
+
+    @Override
+    public void accept(String key, String value) {
+      int memberLength = key.length() + value.length() + 2;
+      if (length + memberLength > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + memberLength));
+      }
+      if (length > 0) {
+        buffer[length++] = ',';
+      }
+      writeAscii(key, buffer, length);
+      length += key.length();
+      buffer[length++] = '=';
+      writeAscii(value, buffer, length);
+      length += value.length();
+    }
+  }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributeType;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * The {@link AttributesBuilder} and {@link Attributes} used by the instrumentation API. Just like
+ * the attributes builder passed to extractors can't be reused to create multiple {@link
+ * Attributes} instances, this class uses just one storage for both the builder and attributes: a
+ * key array and two parallel value arrays, one for object values and one for {@code long}, {@code
+ * double} and {@code boolean} values, which are stored without boxing. Keys are compared by
+ * identity first, since they're almost always constants; small instances are scanned linearly, and
+ * an open addressing index is built only once the number of attributes grows.
+ *
+ * <p>Instances can be {@linkplain #clear() cleared} and reused.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class CompactAttributes implements Attributes, AttributesBuilder {
+
+  private static final int INITIAL_CAPACITY = 16;
+  // number of attributes up to which a linear scan is used instead of the index
+  private static final int LINEAR_SCAN_THRESHOLD = 8;
+
+  private AttributeKey<?>[] keys = new AttributeKey<?>[INITIAL_CAPACITY];
+  private Object[] objectValues = new Object[INITIAL_CAPACITY];
+  private long[] primitiveValues = new long[INITIAL_CAPACITY];
+  private int size;
+
+  // open addressing table of (position + 1), 0 marks an empty slot; lazily allocated
+  @Nullable private int[] index;
+
+  /** Removes all attributes, keeping the already allocated storage. */
+  public void clear() {
+    Arrays.fill(keys, 0, size, null);
+    Arrays.fill(objectValues, 0, size, null);
+    if (index != null) {
+      Arrays.fill(index, 0);
+    }
+    size = 0;
+  }
+
+  /** Sets all attributes directly on the passed {@link SpanBuilder}. */
+  @SuppressWarnings("unchecked")
+  public void applyTo(SpanBuilder spanBuilder) {
+    for (int i = 0; i < size; i++) {
+      spanBuilder.setAttribute((AttributeKey<Object>) keys[i], valueAt(i));
+    }
+  }
+
+  /** Sets all attributes directly on the passed {@link Span}. */
+  @SuppressWarnings("unchecked")
+  public void applyTo(Span span) {
+    for (int i = 0; i < size; i++) {
+      span.setAttribute((AttributeKey<Object>) keys[i], valueAt(i));
+    }
+  }
+
+  /** Returns whether an attribute with the given {@code key} is present. */
+  public boolean contains(AttributeKey<?> key) {
+    return indexOf(key) >= 0;
+  }
+
+  /**
+   * Returns the value of the {@code long} attribute with the given {@code key} without boxing it,
+   * or {@code defaultValue} if it is not present.
+   */
+  public long getLong(AttributeKey<Long> key, long defaultValue) {
+    int i = indexOf(key);
+    return i < 0 ? defaultValue : primitiveValues[i];
+  }
+
+  /**
+   * Returns the value of the {@code double} attribute with the given {@code key} without boxing
+   * it, or {@code defaultValue} if it is not present.
+   */
+  public double getDouble(AttributeKey<Double> key, double defaultValue) {
+    int i = indexOf(key);
+    return i < 0 ? defaultValue : Double.longBitsToDouble(primitiveValues[i]);
+  }
+
+  /**
+   * Returns the value of the {@code boolean} attribute with the given {@code key} without boxing
+   * it, or {@code defaultValue} if it is not present.
+   */
+  public boolean getBoolean(AttributeKey<Boolean> key, boolean defaultValue) {
+    int i = indexOf(key);
+    return i < 0 ? defaultValue : primitiveValues[i] != 0;
+  }
+
+  /** Puts a {@code long} attribute without boxing it. */
+  public CompactAttributes putLong(AttributeKey<Long> key, long value) {
+    int i = slotFor(key);
+    if (i >= 0) {
+      primitiveValues[i] = value;
+    }
+    return this;
+  }
+
+  /** Puts a {@code double} attribute without boxing it. */
+  public CompactAttributes putDouble(AttributeKey<Double> key, double value) {
+    int i = slotFor(key);
+    if (i >= 0) {
+      primitiveValues[i] = Double.doubleToRawLongBits(value);
+    }
+    return this;
+  }
+
+  /** Puts a {@code boolean} attribute without boxing it. */
+  public CompactAttributes putBoolean(AttributeKey<Boolean> key, boolean value) {
+    int i = slotFor(key);
+    if (i >= 0) {
+      primitiveValues[i] = value ? 1 : 0;
+    }
+    return this;
+  }
+
+  // Attributes
+
+  @Override
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <T> T get(AttributeKey<T> key) {
+    int i = indexOf(key);
+    return i < 0 ? null : (T) valueAt(i);
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super AttributeKey<?>, ? super Object> consumer) {
+    for (int i = 0; i < size; i++) {
+      consumer.accept(keys[i], valueAt(i));
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  // This can be called by user code in an OperationListener so copy. In practice, it should not be
+  // called on the hot path.
+  @Override
+  public Map<AttributeKey<?>, Object> asMap() {
+    Map<AttributeKey<?>, Object> map = new LinkedHashMap<>(size * 2);
+    forEach(map::put);
+    return Collections.unmodifiableMap(map);
+  }
+
+  // This can be called by user code in an OperationListener so copy. In practice, it should not be
+  // called as there is no real use case.
+  @Override
+  public AttributesBuilder toBuilder() {
+    return Attributes.builder().putAll(this);
+  }
+
+  // AttributesBuilder
+
+  // This can be called by user code in an AttributesExtractor so copy. In practice, it should not
+  // be called as there is no real use case.
+  @Override
+  public Attributes build() {
+    return toBuilder().build();
+  }
+
+  @Override
+  public <T> AttributesBuilder put(AttributeKey<Long> key, int value) {
+    return putLong(key, value);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> AttributesBuilder put(AttributeKey<T> key, T value) {
+    if (key == null || value == null) {
+      return this;
+    }
+    switch (key.getType()) {
+      case LONG:
+        return putLong((AttributeKey<Long>) key, ((Number) value).longValue());
+      case DOUBLE:
+        return putDouble((AttributeKey<Double>) key, ((Number) value).doubleValue());
+      case BOOLEAN:
+        return putBoolean((AttributeKey<Boolean>) key, (Boolean) value);
+      default:
+        return putObject(key, value);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public AttributesBuilder putAll(Attributes attributes) {
+    attributes.forEach((key, value) -> put((AttributeKey<Object>) key, value));
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return asMap().toString();
+  }
+
+  private CompactAttributes putObject(AttributeKey<?> key, Object value) {
+    int i = slotFor(key);
+    if (i >= 0) {
+      objectValues[i] = value;
+    }
+    return this;
+  }
+
+  @Nullable
+  private Object valueAt(int i) {
+    AttributeType type = keys[i].getType();
+    switch (type) {
+      case LONG:
+        return primitiveValues[i];
+      case DOUBLE:
+        return Double.longBitsToDouble(primitiveValues[i]);
+      case BOOLEAN:
+        return primitiveValues[i] != 0;
+      default:
+        return objectValues[i];
+    }
+  }
+
+  // returns the position of the (possibly just added) key, or -1 if the key is invalid
+  private int slotFor(@Nullable AttributeKey<?> key) {
+    if (key == null || key.getKey().isEmpty()) {
+      return -1;
+    }
+    int i = indexOf(key);
+    if (i >= 0) {
+      return i;
+    }
+    if (size == keys.length) {
+      int newCapacity = size * 2;
+      keys = Arrays.copyOf(keys, newCapacity);
+      objectValues = Arrays.copyOf(objectValues, newCapacity);
+      primitiveValues = Arrays.copyOf(primitiveValues, newCapacity);
+      if (index != null) {
+        rebuildIndex();
+      }
+    }
+    i = size++;
+    keys[i] = key;
+    if (index != null) {
+      insertIntoIndex(key, i);
+    } else if (size > LINEAR_SCAN_THRESHOLD) {
+      rebuildIndex();
+    }
+    return i;
+  }
+
+  private int indexOf(AttributeKey<?> key) {
+    int[] index = this.index;
+    if (index == null || size <= LINEAR_SCAN_THRESHOLD) {
+      for (int i = 0; i < size; i++) {
+        if (keys[i] == key) {
+          return i;
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        if (keys[i].equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    int mask = index.length - 1;
+    for (int slot = key.hashCode() & mask; ; slot = (slot + 1) & mask) {
+      int position = index[slot] - 1;
+      if (position < 0) {
+        return -1;
+      }
+      AttributeKey<?> candidate = keys[position];
+      if (candidate == key || candidate.equals(key)) {
+        return position;
+      }
+    }
+  }
+
+  private void rebuildIndex() {
+    // keep the load factor at or below 0.5
+    int[] index = new int[Integer.highestOneBit(keys.length) * 4];
+    this.index = index;
+    for (int i = 0; i < size; i++) {
+      insertIntoIndex(keys[i], i);
+    }
+  }
+
+  private void insertIntoIndex(AttributeKey<?> key, int position) {
+    int[] index = this.index;
+    int mask = index.length - 1;
+    int slot = key.hashCode() & mask;
+    while (index[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    index[slot] = position + 1;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.Nullable;
+
+/**
+ * A small group of monotonic counters that are striped across several cache lines, so that
+ * concurrent increments from different threads rarely contend on the same memory location. This is
+ * similar to {@code java.util.concurrent.atomic.LongAdder}, which is not available on all the
+ * platforms the instrumentation API supports.
+ *
+ * <p>Every stripe occupies one cache line and holds one cell for each of the (at most {@value
+ * #MAX_WIDTH}) counters of the group; the stripe is selected by the id of the incrementing thread.
+ * The cells are allocated on the first increment, since most groups are never incremented at all.
+ */
+final class StripedCounters {
+
+  // 8 longs take up 64 bytes, which is the size of a cache line on most hardware
+  static final int MAX_WIDTH = 8;
+  private static final int STRIPES = stripeCount();
+
+  @Nullable private volatile AtomicLongArray cells;
+
+  StripedCounters(int width) {
+    if (width > MAX_WIDTH) {
+      throw new IllegalArgumentException("Width must not exceed " + MAX_WIDTH);
+    }
+  }
+
+  void increment(int counter) {
+    add(counter, 1);
+  }
+
+  void add(int counter, long delta) {
+    AtomicLongArray cells = this.cells;
+    if (cells == null) {
+      cells = initCells();
+    }
+    cells.addAndGet(stripeOffset() + counter, delta);
+  }
+
+  long sum(int counter) {
+    AtomicLongArray cells = this.cells;
+    if (cells == null) {
+      return 0;
+    }
+    long sum = 0;
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      sum += cells.get(stripe * MAX_WIDTH + counter);
+    }
+    return sum;
+  }
+
+  private synchronized AtomicLongArray initCells() {
+    AtomicLongArray cells = this.cells;
+    if (cells == null) {
+      cells = new AtomicLongArray(STRIPES * MAX_WIDTH);
+      this.cells = cells;
+    }
+    return cells;
+  }
+
+  @SuppressWarnings("deprecation") // Thread.getId() is deprecated since Java 19
+  private static int stripeOffset() {
+    long id = Thread.currentThread().getId();
+    int hash = (int) (id ^ (id >>> 32));
+    // the multiplication spreads consecutive thread ids over the high bits, which are then moved
+    // to the low bits used for selecting the stripe
+    hash = Integer.reverse(hash * 0x9E3779B9);
+    return (hash & (STRIPES - 1)) * MAX_WIDTH;
+  }
+
+  private static int stripeCount() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    // the smallest power of two that is not less than the number of processors, at most 16
+    int stripes = 1;
+    while (stripes < processors && stripes < 16) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+}
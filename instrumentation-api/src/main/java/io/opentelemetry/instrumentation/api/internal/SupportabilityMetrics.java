@@ -5,27 +5,48 @@
 
 package io.opentelemetry.instrumentation.api.internal;
 
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.instrumentation.api.config.Config;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
- * This class is internal and is hence not for public use. Its APIs are unstable and can change at
- * any time.
+ * Agent self-telemetry: counters that are always recorded and can be exported as metrics by
+ * {@linkplain #registerObservers(Meter) registering} them with a {@link Meter}. When {@code
+ * otel.javaagent.debug} is enabled, the counts recorded since the previous report are also
+ * periodically logged.
+ *
+ * <p>Code on hot paths should obtain its {@link Counter} or {@link SuppressedSpanCounter} once and
+ * keep it, so that recording is just an uncontended atomic increment.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
  */
 public final class SupportabilityMetrics {
   private static final Logger logger = Logger.getLogger(SupportabilityMetrics.class.getName());
+
+  private static final AttributeKey<String> INSTRUMENTATION_NAME =
+      AttributeKey.stringKey("instrumentation.name");
+  private static final AttributeKey<String> SPAN_KIND = AttributeKey.stringKey("span.kind");
+  private static final AttributeKey<String> COUNTER_NAME = AttributeKey.stringKey("counter.name");
+
+  private static final SpanKind[] SPAN_KINDS = SpanKind.values();
+
   private final boolean agentDebugEnabled;
   private final Consumer<String> reporter;
 
-  private final ConcurrentMap<String, KindCounters> suppressionCounters = new ConcurrentHashMap<>();
-  private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, SuppressedSpanCounter> suppressionCounters =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, HelperInjectionTimer> helperInjectionTimers =
+      new ConcurrentHashMap<>();
 
   private static final SupportabilityMetrics INSTANCE =
       new SupportabilityMetrics(Config.get(), logger::fine).start();
@@ -40,30 +61,89 @@ public final class SupportabilityMetrics {
     this.reporter = reporter;
   }
 
-  public void recordSuppressedSpan(SpanKind kind, String instrumentationName) {
-    if (!agentDebugEnabled) {
-      return;
-    }
+  /** Returns the counter of spans suppressed by the instrumentation with the given name. */
+  public SuppressedSpanCounter suppressedSpanCounter(String instrumentationName) {
+    return suppressionCounters.computeIfAbsent(instrumentationName, SuppressedSpanCounter::new);
+  }
 
-    suppressionCounters
-        .computeIfAbsent(instrumentationName, s -> new KindCounters())
-        .increment(kind);
+  /** Returns the counter with the given name. */
+  public Counter counter(String counterName) {
+    return counters.computeIfAbsent(counterName, Counter::new);
+  }
+
+  /**
+   * Returns the timer of the helper class injection of the instrumentation with the given name.
+   */
+  public HelperInjectionTimer helperInjectionTimer(String instrumentationName) {
+    return helperInjectionTimers.computeIfAbsent(instrumentationName, HelperInjectionTimer::new);
+  }
+
+  public void recordSuppressedSpan(SpanKind kind, String instrumentationName) {
+    suppressedSpanCounter(instrumentationName).increment(kind);
   }
 
   public void incrementCounter(String counterName) {
-    if (!agentDebugEnabled) {
-      return;
-    }
+    counter(counterName).increment();
+  }
 
-    counters.computeIfAbsent(counterName, k -> new AtomicLong()).incrementAndGet();
+  /**
+   * Exports all the counters, including the ones created after this method is called, as
+   * asynchronous counters of the given {@link Meter}.
+   */
+  public void registerObservers(Meter meter) {
+    meter
+        .counterBuilder("otel.javaagent.suppressed_spans")
+        .setDescription("The number of spans suppressed by the javaagent instrumentations")
+        .setUnit("{spans}")
+        .buildWithCallback(
+            measurement ->
+                suppressionCounters.forEach(
+                    (instrumentationName, counter) -> {
+                      for (SpanKind kind : SPAN_KINDS) {
+                        long value = counter.get(kind);
+                        if (value > 0) {
+                          measurement.record(value, counter.attributes[kind.ordinal()]);
+                        }
+                      }
+                    }));
+    meter
+        .counterBuilder("otel.javaagent.counters")
+        .setDescription("Internal javaagent counters")
+        .buildWithCallback(
+            measurement ->
+                counters.forEach(
+                    (counterName, counter) -> {
+                      long value = counter.get();
+                      if (value > 0) {
+                        measurement.record(value, counter.attributes);
+                      }
+                    }));
+    meter
+        .counterBuilder("otel.javaagent.helper_injection.duration")
+        .setDescription(
+            "The time spent injecting the helper classes of the javaagent instrumentations")
+        .setUnit("us")
+        .buildWithCallback(
+            measurement ->
+                helperInjectionTimers.forEach(
+                    (instrumentationName, timer) -> {
+                      long value = timer.getMicros();
+                      if (value > 0) {
+                        measurement.record(value, timer.attributes);
+                      }
+                    }));
   }
 
   // visible for testing
   void report() {
+    if (!agentDebugEnabled) {
+      return;
+    }
+
     suppressionCounters.forEach(
-        (instrumentationName, countsByKind) -> {
-          for (SpanKind kind : SpanKind.values()) {
-            long value = countsByKind.getAndReset(kind);
+        (instrumentationName, counter) -> {
+          for (SpanKind kind : SPAN_KINDS) {
+            long value = counter.getSinceLastReport(kind);
             if (value > 0) {
               reporter.accept(
                   "Suppressed Spans by '" + instrumentationName + "' (" + kind + ") : " + value);
@@ -72,11 +152,19 @@ public final class SupportabilityMetrics {
         });
     counters.forEach(
         (counterName, counter) -> {
-          long value = counter.getAndSet(0);
+          long value = counter.getSinceLastReport();
           if (value > 0) {
             reporter.accept("Counter '" + counterName + "' : " + value);
           }
         });
+    helperInjectionTimers.forEach(
+        (instrumentationName, timer) -> {
+          long value = timer.getMicrosSinceLastReport();
+          if (value > 0) {
+            reporter.accept(
+                "Helper injection time of '" + instrumentationName + "' : " + value + " us");
+          }
+        });
   }
 
   SupportabilityMetrics start() {
@@ -101,52 +189,114 @@ public final class SupportabilityMetrics {
   public static final class CounterNames {
     public static final String SQL_STATEMENT_SANITIZER_CACHE_MISS =
         "SqlStatementSanitizer cache miss";
+    public static final String TYPE_POOL_CACHE_HIT = "AgentCachingPoolStrategy cache hit";
+    public static final String TYPE_POOL_CACHE_MISS = "AgentCachingPoolStrategy cache miss";
+    public static final String TYPE_POOL_CACHE_NOT_FOUND_HIT =
+        "AgentCachingPoolStrategy not found cache hit";
+    public static final String MUZZLE_FAILURE = "Muzzle failure";
 
     private CounterNames() {}
   }
 
-  // this class is threadsafe.
-  private static class KindCounters {
-    private final AtomicLong server = new AtomicLong();
-    private final AtomicLong client = new AtomicLong();
-    private final AtomicLong internal = new AtomicLong();
-    private final AtomicLong consumer = new AtomicLong();
-    private final AtomicLong producer = new AtomicLong();
-
-    void increment(SpanKind kind) {
-      switch (kind) {
-        case INTERNAL:
-          internal.incrementAndGet();
-          break;
-        case SERVER:
-          server.incrementAndGet();
-          break;
-        case CLIENT:
-          client.incrementAndGet();
-          break;
-        case PRODUCER:
-          producer.incrementAndGet();
-          break;
-        case CONSUMER:
-          consumer.incrementAndGet();
-          break;
-      }
+  /**
+   * A monotonic counter. This class is thread safe.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public static final class Counter {
+    private final StripedCounters count = new StripedCounters(1);
+    private final Attributes attributes;
+    // only accessed by the reporter thread
+    private long lastReported;
+
+    private Counter(String counterName) {
+      attributes = Attributes.of(COUNTER_NAME, counterName);
+    }
+
+    public void increment() {
+      count.increment(0);
+    }
+
+    /** Returns the number of increments of this counter. */
+    public long get() {
+      return count.sum(0);
+    }
+
+    private long getSinceLastReport() {
+      long value = get();
+      long delta = value - lastReported;
+      lastReported = value;
+      return delta;
+    }
+  }
+
+  /**
+   * The total time spent injecting the helper classes of an instrumentation. This class is thread
+   * safe.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public static final class HelperInjectionTimer {
+    private final StripedCounters nanos = new StripedCounters(1);
+    private final Attributes attributes;
+    // only accessed by the reporter thread
+    private long lastReportedMicros;
+
+    private HelperInjectionTimer(String instrumentationName) {
+      attributes = Attributes.of(INSTRUMENTATION_NAME, instrumentationName);
+    }
+
+    /** Records the time elapsed since {@code startNanos}, a {@link System#nanoTime()} value. */
+    public void recordSince(long startNanos) {
+      nanos.add(0, System.nanoTime() - startNanos);
+    }
+
+    long getMicros() {
+      return TimeUnit.NANOSECONDS.toMicros(nanos.sum(0));
+    }
+
+    private long getMicrosSinceLastReport() {
+      long value = getMicros();
+      long delta = value - lastReportedMicros;
+      lastReportedMicros = value;
+      return delta;
     }
+  }
 
-    long getAndReset(SpanKind kind) {
-      switch (kind) {
-        case INTERNAL:
-          return internal.getAndSet(0);
-        case SERVER:
-          return server.getAndSet(0);
-        case CLIENT:
-          return client.getAndSet(0);
-        case PRODUCER:
-          return producer.getAndSet(0);
-        case CONSUMER:
-          return consumer.getAndSet(0);
+  /**
+   * A counter of suppressed spans, by {@link SpanKind}. This class is thread safe.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public static final class SuppressedSpanCounter {
+    private final StripedCounters counts = new StripedCounters(SPAN_KINDS.length);
+    private final Attributes[] attributes = new Attributes[SPAN_KINDS.length];
+    // only accessed by the reporter thread
+    private final long[] lastReported = new long[SPAN_KINDS.length];
+
+    private SuppressedSpanCounter(String instrumentationName) {
+      for (SpanKind kind : SPAN_KINDS) {
+        attributes[kind.ordinal()] =
+            Attributes.of(INSTRUMENTATION_NAME, instrumentationName, SPAN_KIND, kind.name());
       }
-      return 0;
+    }
+
+    public void increment(SpanKind kind) {
+      counts.increment(kind.ordinal());
+    }
+
+    long get(SpanKind kind) {
+      return counts.sum(kind.ordinal());
+    }
+
+    private long getSinceLastReport(SpanKind kind) {
+      long value = get(kind);
+      long delta = value - lastReported[kind.ordinal()];
+      lastReported[kind.ordinal()] = value;
+      return delta;
     }
   }
 }
@@ -6,6 +6,7 @@
 package io.opentelemetry.instrumentation.api.internal.cache;
 
 import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 
@@ -38,6 +39,47 @@ public interface Cache<K, V> {
     return new MapBackedCache<>(map);
   }
 
+  /**
+   * Returns new bounded cache that uses the Window-TinyLFU policy: new entries replace existing
+   * ones only if they are accessed more frequently. Prefer this cache over {@link #bounded(int)}
+   * when frequently used keys are interleaved with many keys that are used only once.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> boundedTinyLfu(int capacity) {
+    return new TinyLfuCache<>(capacity, null);
+  }
+
+  /**
+   * Returns new bounded cache identified by the given {@code name}. Its capacity can be overridden
+   * with the {@code otel.instrumentation.experimental.cache.<name>.max-size} configuration
+   * property, its eviction policy with {@code
+   * otel.instrumentation.experimental.cache.<name>.policy} ({@code lru}, the default, or {@code
+   * tiny-lfu}), and setting {@code otel.instrumentation.experimental.cache.stats.enabled} to
+   * {@code true} makes it count its hits, misses and evictions as supportability metrics.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> bounded(String name, int defaultCapacity) {
+    return NamedCaches.bounded(name, defaultCapacity);
+  }
+
+  /**
+   * Returns new bounded cache that notifies the {@code evictionListener} about every entry that was
+   * evicted because the cache exceeded its capacity. The listener is invoked on the thread that
+   * caused the eviction and should return quickly.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> bounded(int capacity, BiConsumer<K, V> evictionListener) {
+    ConcurrentLinkedHashMap<K, V> map =
+        new ConcurrentLinkedHashMap.Builder<K, V>()
+            .maximumWeightedCapacity(capacity)
+            .listener(evictionListener::accept)
+            .build();
+    return new MapBackedCache<>(map);
+  }
+
   /**
    * Returns the cached value associated with the provided {@code key}. If no value is cached yet,
    * computes the value using {@code mappingFunction}, stores the result, and returns it.
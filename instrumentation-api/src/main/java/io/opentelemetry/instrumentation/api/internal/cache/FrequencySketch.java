@@ -0,0 +1,80 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+/**
+ * A count-min sketch estimating how often keys were accessed recently. Every key is mapped to one
+ * counter, saturating at {@value #MAX_FREQUENCY}, in each of the {@value #DEPTH} rows, and its
+ * frequency is the minimum of these counters. To keep the estimates recent, all counters are
+ * halved once the number of increments reaches ten times the sketch capacity.
+ *
+ * <p>This class is not thread safe.
+ */
+final class FrequencySketch {
+
+  private static final int DEPTH = 4;
+  private static final int MAX_FREQUENCY = 15;
+  private static final int[] SEEDS = {0x97cb3127, 0x34582d2b, 0xc2b2ae35, 0x7feb352d};
+
+  private final byte[] table;
+  private final int mask;
+  private final int sampleSize;
+  private int size;
+
+  FrequencySketch(int capacity) {
+    // four counters per row for every entry keeps the counters sparse enough for the estimates of
+    // rarely used keys to stay low until the next reset
+    int width = 16;
+    while (width < 4L * capacity && width < (1 << 24)) {
+      width <<= 1;
+    }
+    table = new byte[width * DEPTH];
+    mask = width - 1;
+    sampleSize = 10 * Math.max(capacity, 1);
+  }
+
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    boolean added = false;
+    for (int row = 0; row < DEPTH; row++) {
+      int i = indexOf(hash, row);
+      if (table[i] < MAX_FREQUENCY) {
+        table[i]++;
+        added = true;
+      }
+    }
+    if (added && ++size >= sampleSize) {
+      reset();
+    }
+  }
+
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int frequency = MAX_FREQUENCY;
+    for (int row = 0; row < DEPTH; row++) {
+      frequency = Math.min(frequency, table[indexOf(hash, row)]);
+    }
+    return frequency;
+  }
+
+  private int indexOf(int hash, int row) {
+    int h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 16;
+    return row * (mask + 1) + (h & mask);
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (byte) (table[i] >>> 1);
+    }
+    size /= 2;
+  }
+
+  private static int spread(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import io.opentelemetry.instrumentation.api.config.Config;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+final class NamedCaches {
+
+  private static final Logger logger = Logger.getLogger(NamedCaches.class.getName());
+
+  private static final String CONFIG_PREFIX = "otel.instrumentation.experimental.cache.";
+
+  static <K, V> Cache<K, V> bounded(String name, int defaultCapacity) {
+    return bounded(name, defaultCapacity, Config.get());
+  }
+
+  // visible for testing
+  static <K, V> Cache<K, V> bounded(String name, int defaultCapacity, Config config) {
+    int capacity = config.getInt(CONFIG_PREFIX + name + ".max-size", defaultCapacity);
+    if (capacity <= 0) {
+      logger.warning(
+          "Invalid capacity " + capacity + " of cache '" + name + "', using " + defaultCapacity);
+      capacity = defaultCapacity;
+    }
+    String policy = config.getString(CONFIG_PREFIX + name + ".policy", "lru");
+    boolean tinyLfu = "tiny-lfu".equals(policy);
+    if (!tinyLfu && !"lru".equals(policy)) {
+      logger.warning("Unknown policy '" + policy + "' of cache '" + name + "', using lru");
+    }
+
+    if (!config.getBoolean(CONFIG_PREFIX + "stats.enabled", false)) {
+      return tinyLfu ? Cache.boundedTinyLfu(capacity) : Cache.bounded(capacity);
+    }
+    SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+    SupportabilityMetrics.Counter evictions =
+        supportability.counter("Cache '" + name + "' eviction");
+    BiConsumer<K, V> evictionListener = (key, value) -> evictions.increment();
+    Cache<K, V> delegate =
+        tinyLfu
+            ? new TinyLfuCache<K, V>(capacity, evictionListener)
+            : Cache.bounded(capacity, evictionListener);
+    return new StatsRecordingCache<>(
+        delegate,
+        supportability.counter("Cache '" + name + "' hit"),
+        supportability.counter("Cache '" + name + "' miss"));
+  }
+
+  private NamedCaches() {}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A cache that counts the hits and misses of a delegate cache as {@linkplain SupportabilityMetrics
+ * supportability counters}.
+ */
+final class StatsRecordingCache<K, V> implements Cache<K, V> {
+
+  private final Cache<K, V> delegate;
+  private final SupportabilityMetrics.Counter hits;
+  private final SupportabilityMetrics.Counter misses;
+
+  StatsRecordingCache(
+      Cache<K, V> delegate,
+      SupportabilityMetrics.Counter hits,
+      SupportabilityMetrics.Counter misses) {
+    this.delegate = delegate;
+    this.hits = hits;
+    this.misses = misses;
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    // looking the key up first costs a second lookup on a miss, but avoids allocating a capturing
+    // mapping function on every call
+    V value = delegate.get(key);
+    if (value != null) {
+      hits.increment();
+      return value;
+    }
+    misses.increment();
+    return delegate.computeIfAbsent(key, mappingFunction);
+  }
+
+  @Nullable
+  @Override
+  public V get(K key) {
+    V value = delegate.get(key);
+    if (value != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return value;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  public void remove(K key) {
+    delegate.remove(key);
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache using the Window-TinyLFU eviction policy. New entries are added to a small LRU
+ * window; entries leaving the window are admitted to the main segmented LRU space only if they were
+ * accessed more frequently than the entry they would replace, as estimated by a {@link
+ * FrequencySketch}. Unlike a pure LRU cache, a burst of one-off keys can't flush out the frequently
+ * used ones.
+ *
+ * <p>Values are stored in a {@link ConcurrentHashMap}, the policy is updated under a lock. Reads
+ * that find the lock held skip updating the policy instead of waiting for it, so under contention
+ * the access order and frequencies are approximate.
+ */
+final class TinyLfuCache<K, V> implements Cache<K, V> {
+
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+  private static final int NONE = 3;
+
+  private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+  private final ReentrantLock policyLock = new ReentrantLock();
+  @Nullable private final BiConsumer<K, V> evictionListener;
+
+  // guarded by policyLock
+  private final FrequencySketch sketch;
+  private final AccessOrderQueue<K, V> window = new AccessOrderQueue<>();
+  private final AccessOrderQueue<K, V> probation = new AccessOrderQueue<>();
+  private final AccessOrderQueue<K, V> protectedQueue = new AccessOrderQueue<>();
+  private final int maxWindow;
+  private final int maxMain;
+  private final int maxProtected;
+
+  TinyLfuCache(int capacity, @Nullable BiConsumer<K, V> evictionListener) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    this.evictionListener = evictionListener;
+    this.sketch = new FrequencySketch(capacity);
+    // 1% window and 99% main space, 80% of which is protected
+    this.maxWindow = Math.max(1, capacity / 100);
+    this.maxMain = capacity - maxWindow;
+    this.maxProtected = (int) (maxMain * 0.8);
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    Node<K, V> node = data.get(key);
+    if (node != null) {
+      afterRead(node);
+      return node.value;
+    }
+    // like the other bounded cache, the mapping function may be called more than once for the same
+    // key when racing with another thread
+    V value = mappingFunction.apply(key);
+    node = new Node<>(key, value);
+    Node<K, V> existing = data.putIfAbsent(key, node);
+    if (existing != null) {
+      afterRead(existing);
+      return existing.value;
+    }
+    afterWrite(node);
+    return value;
+  }
+
+  @Nullable
+  @Override
+  public V get(K key) {
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      return null;
+    }
+    afterRead(node);
+    return node.value;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    Node<K, V> node = new Node<>(key, value);
+    Node<K, V> existing = data.putIfAbsent(key, node);
+    if (existing != null) {
+      existing.value = value;
+      afterRead(existing);
+      return;
+    }
+    afterWrite(node);
+  }
+
+  @Override
+  public void remove(K key) {
+    Node<K, V> node = data.remove(key);
+    if (node == null) {
+      return;
+    }
+    policyLock.lock();
+    try {
+      unlink(node);
+    } finally {
+      policyLock.unlock();
+    }
+  }
+
+  // visible for testing
+  int size() {
+    return data.size();
+  }
+
+  private void afterRead(Node<K, V> node) {
+    if (!policyLock.tryLock()) {
+      return;
+    }
+    try {
+      sketch.increment(node.key);
+      onAccess(node);
+    } finally {
+      policyLock.unlock();
+    }
+  }
+
+  private void afterWrite(Node<K, V> node) {
+    policyLock.lock();
+    try {
+      sketch.increment(node.key);
+      if (node.removed) {
+        return;
+      }
+      node.queue = WINDOW;
+      window.addLast(node);
+      while (window.size > maxWindow) {
+        Node<K, V> candidate = window.pollFirst();
+        candidate.queue = PROBATION;
+        probation.addLast(candidate);
+        evictFromMain(candidate);
+      }
+    } finally {
+      policyLock.unlock();
+    }
+  }
+
+  private void onAccess(Node<K, V> node) {
+    switch (node.queue) {
+      case WINDOW:
+        window.moveToBack(node);
+        break;
+      case PROBATION:
+        probation.remove(node);
+        node.queue = PROTECTED;
+        protectedQueue.addLast(node);
+        if (protectedQueue.size > maxProtected) {
+          Node<K, V> demoted = protectedQueue.pollFirst();
+          demoted.queue = PROBATION;
+          probation.addLast(demoted);
+        }
+        break;
+      case PROTECTED:
+        protectedQueue.moveToBack(node);
+        break;
+      default:
+        // not added yet, or already removed
+        break;
+    }
+  }
+
+  private void evictFromMain(@Nullable Node<K, V> candidate) {
+    while (probation.size + protectedQueue.size > maxMain) {
+      Node<K, V> victim = probation.peekFirst();
+      if (victim == null) {
+        victim = protectedQueue.peekFirst();
+      }
+      Node<K, V> evicted = victim;
+      // the candidate is the most recently added probation entry, it's the victim only when it is
+      // the only probation entry
+      if (candidate != null && candidate != victim) {
+        evicted =
+            sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+      }
+      if (evicted == candidate) {
+        candidate = null;
+      }
+      evict(evicted);
+    }
+  }
+
+  private void evict(Node<K, V> node) {
+    unlink(node);
+    if (data.remove(node.key, node) && evictionListener != null) {
+      evictionListener.accept(node.key, node.value);
+    }
+  }
+
+  private void unlink(Node<K, V> node) {
+    switch (node.queue) {
+      case WINDOW:
+        window.remove(node);
+        break;
+      case PROBATION:
+        probation.remove(node);
+        break;
+      case PROTECTED:
+        protectedQueue.remove(node);
+        break;
+      default:
+        break;
+    }
+    node.queue = NONE;
+    node.removed = true;
+  }
+
+  private static final class Node<K, V> {
+    final K key;
+    volatile V value;
+
+    // guarded by policyLock
+    int queue = NONE;
+    boolean removed;
+    @Nullable Node<K, V> prev;
+    @Nullable Node<K, V> next;
+
+    Node(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  /** A doubly linked list of nodes, the least recently accessed one first. */
+  private static final class AccessOrderQueue<K, V> {
+    @Nullable private Node<K, V> first;
+    @Nullable private Node<K, V> last;
+    int size;
+
+    @Nullable
+    Node<K, V> peekFirst() {
+      return first;
+    }
+
+    Node<K, V> pollFirst() {
+      Node<K, V> node = first;
+      remove(node);
+      return node;
+    }
+
+    void addLast(Node<K, V> node) {
+      node.prev = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+      size++;
+    }
+
+    void moveToBack(Node<K, V> node) {
+      if (node != last) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+    void remove(Node<K, V> node) {
+      Node<K, V> prev = node.prev;
+      Node<K, V> next = node.next;
+      if (prev == null) {
+        first = next;
+      } else {
+        prev.next = next;
+      }
+      if (next == null) {
+        last = prev;
+      } else {
+        next.prev = prev;
+      }
+      node.prev = null;
+      node.next = null;
+      size--;
+    }
+  }
+}
@@ -424,6 +424,84 @@ class InstrumenterTest {
     assertThat(Span.fromContext(endContext.get()).getSpanContext().isValid()).isTrue();
   }
 
+  @Test
+  void allocationFreeMode() {
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractors(new AttributesExtractor1(), new AttributesExtractor2())
+            .addSpanLinksExtractor(new LinksExtractor())
+            .setAllocationFreeMode(true)
+            .newServerInstrumenter(new MapGetter());
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    SpanContext spanContext = Span.fromContext(context).getSpanContext();
+    instrumenter.end(context, REQUEST, RESPONSE, new IllegalStateException("test"));
+
+    // the second operation reuses the buffers and must not see any attributes of the first one
+    Context secondContext = instrumenter.start(Context.root(), Collections.emptyMap());
+    instrumenter.end(secondContext, Collections.emptyMap(), Collections.emptyMap(), null);
+
+    otelTesting
+        .assertTraces()
+        .hasTracesSatisfyingExactly(
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasName("span")
+                            .hasSpanId(spanContext.getSpanId())
+                            .hasStatus(StatusData.error())
+                            .hasLinks(expectedSpanLink())
+                            .hasAttributesSatisfying(
+                                attributes ->
+                                    assertThat(attributes)
+                                        .containsOnly(
+                                            attributeEntry("req1", "req1_value"),
+                                            attributeEntry("req2", "req2_2_value"),
+                                            attributeEntry("req3", "req3_value"),
+                                            attributeEntry("resp1", "resp1_value"),
+                                            attributeEntry("resp2", "resp2_2_value"),
+                                            attributeEntry("resp3", "resp3_value")))),
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasName("span")
+                            .hasStatus(StatusData.unset())
+                            .hasTotalRecordedLinks(0)
+                            .hasTotalAttributeCount(0)));
+  }
+
+  @Test
+  void allocationFreeMode_operationListenerKeepsStartAttributes() {
+    AtomicReference<Attributes> startAttributes = new AtomicReference<>();
+
+    OperationListener operationListener =
+        new OperationListener() {
+          @Override
+          public Context onStart(Context context, Attributes attributes, long startNanos) {
+            startAttributes.set(attributes);
+            return context;
+          }
+
+          @Override
+          public void onEnd(Context context, Attributes endAttributes, long endNanos) {}
+        };
+
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractors(new AttributesExtractor1())
+            .addOperationListener(operationListener)
+            .setAllocationFreeMode(true)
+            .newServerInstrumenter(new MapGetter());
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    assertThat(startAttributes.get())
+        .containsOnly(attributeEntry("req1", "req1_value"), attributeEntry("req2", "req2_value"));
+  }
+
   @Test
   void shouldNotAddInvalidLink() {
     // given
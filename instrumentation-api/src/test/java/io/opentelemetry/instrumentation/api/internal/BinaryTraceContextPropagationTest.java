@@ -0,0 +1,298 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class BinaryTraceContextPropagationTest {
+
+  private static final String TRACEPARENT =
+      "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+
+  private static final BinaryTraceContextPropagation propagation =
+      BinaryTraceContextPropagation.create(W3CTraceContextPropagator.getInstance());
+
+  @Test
+  void extract() {
+    Map<String, byte[]> headers = new HashMap<>();
+    headers.put("traceparent", bytes(TRACEPARENT));
+    headers.put("tracestate", bytes("foo=bar,baz=qux"));
+
+    SpanContext spanContext =
+        Span.fromContext(propagation.extract(Context.root(), headers, BytesGetter.INSTANCE))
+            .getSpanContext();
+
+    assertThat(spanContext.getTraceId()).isEqualTo("0af7651916cd43dd8448eb211c80319c");
+    assertThat(spanContext.getSpanId()).isEqualTo("b7ad6b7169203331");
+    assertThat(spanContext.isSampled()).isTrue();
+    assertThat(spanContext.isRemote()).isTrue();
+    assertThat(spanContext).isEqualTo(extractText(headers));
+  }
+
+  @Test
+  void extractFutureVersion() {
+    Map<String, byte[]> headers = new HashMap<>();
+    headers.put("traceparent", bytes("cc-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00-x"));
+
+    SpanContext spanContext =
+        Span.fromContext(propagation.extract(Context.root(), headers, BytesGetter.INSTANCE))
+            .getSpanContext();
+
+    assertThat(spanContext.isValid()).isTrue();
+    assertThat(spanContext.isSampled()).isFalse();
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01-extra",
+        "ff-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "00-0AF7651916CD43DD8448EB211C80319C-b7ad6b7169203331-01",
+        "00-00000000000000000000000000000000-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-0000000000000000-01",
+        "00_0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-0g",
+        "cc-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00.extra"
+      })
+  void extractInvalidTraceparent(String traceparent) {
+    Map<String, byte[]> headers = new HashMap<>();
+    headers.put("traceparent", bytes(traceparent));
+
+    assertThat(BinaryTraceContextPropagation.isValidTraceparent(bytes(traceparent))).isFalse();
+    assertThat(propagation.extract(Context.root(), headers, BytesGetter.INSTANCE))
+        .isSameAs(Context.root());
+  }
+
+  @Test
+  void parseTracestate() {
+    TraceState traceState = BinaryTraceContextPropagation.parseTracestate(bytes("a=1, b=2 ,c=3,"));
+
+    assertThat(traceState.size()).isEqualTo(3);
+    assertThat(traceState.get("a")).isEqualTo("1");
+    assertThat(traceState.get("b")).isEqualTo("2");
+    assertThat(traceState.get("c")).isEqualTo("3");
+    List<String> keys = new ArrayList<>();
+    traceState.forEach((key, value) -> keys.add(key));
+    assertThat(keys).containsExactly("a", "b", "c");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", ",", "a", "a=1,b", "A=1", "a=1,a=2"})
+  void parseInvalidTracestate(String tracestate) {
+    assertThat(BinaryTraceContextPropagation.parseTracestate(bytes(tracestate)))
+        .isEqualTo(TraceState.getDefault());
+  }
+
+  @Test
+  void inject() {
+    SpanContext spanContext =
+        SpanContext.create(
+            "0af7651916cd43dd8448eb211c80319c",
+            "b7ad6b7169203331",
+            TraceFlags.getSampled(),
+            TraceState.builder().put("foo", "bar").put("baz", "qux").build());
+    Context context = Context.root().with(Span.wrap(spanContext));
+
+    Map<String, byte[]> headers = new HashMap<>();
+    propagation.inject(context, headers, BytesSetter.INSTANCE);
+    Map<String, String> textHeaders = new HashMap<>();
+    W3CTraceContextPropagator.getInstance().inject(context, textHeaders, Map::put);
+
+    assertThat(headers).containsOnlyKeys("traceparent", "tracestate");
+    assertThat(string(headers.get("traceparent"))).isEqualTo(textHeaders.get("traceparent"));
+    assertThat(string(headers.get("tracestate"))).isEqualTo(textHeaders.get("tracestate"));
+
+    SpanContext extracted =
+        Span.fromContext(propagation.extract(Context.root(), headers, BytesGetter.INSTANCE))
+            .getSpanContext();
+    assertThat(extracted.getTraceId()).isEqualTo(spanContext.getTraceId());
+    assertThat(extracted.getSpanId()).isEqualTo(spanContext.getSpanId());
+    assertThat(extracted.getTraceFlags()).isEqualTo(spanContext.getTraceFlags());
+    assertThat(extracted.getTraceState()).isEqualTo(spanContext.getTraceState());
+  }
+
+  @Test
+  void injectInvalidSpanContext() {
+    Map<String, byte[]> headers = new HashMap<>();
+    propagation.inject(Context.root(), headers, BytesSetter.INSTANCE);
+
+    assertThat(headers).isEmpty();
+  }
+
+  @Test
+  void defaultPropagators() {
+    // composites go through the text propagator
+    BinaryTraceContextPropagation propagation =
+        BinaryTraceContextPropagation.create(
+            TextMapPropagator.composite(
+                W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance()));
+    assertThat(propagation.isBinary()).isFalse();
+    Map<String, byte[]> headers = new HashMap<>();
+    headers.put("traceparent", bytes(TRACEPARENT));
+    headers.put("baggage", bytes("key=value"));
+
+    Context context = propagation.extract(Context.root(), headers, BytesGetter.INSTANCE);
+
+    assertThat(Span.fromContext(context).getSpanContext().isValid()).isTrue();
+    assertThat(Baggage.fromContext(context).getEntryValue("key")).isEqualTo("value");
+  }
+
+  @Test
+  void otherPropagator() {
+    BinaryTraceContextPropagation propagation =
+        BinaryTraceContextPropagation.create(W3CBaggagePropagator.getInstance());
+    Map<String, byte[]> headers = new HashMap<>();
+    headers.put("traceparent", bytes(TRACEPARENT));
+    headers.put("baggage", bytes("key=value"));
+
+    Context context = propagation.extract(Context.root(), headers, BytesGetter.INSTANCE);
+
+    assertThat(Span.fromContext(context).getSpanContext().isValid()).isFalse();
+    assertThat(Baggage.fromContext(context).getEntryValue("key")).isEqualTo("value");
+  }
+
+  @Test
+  void onlyTheTraceContextPropagatorIsBinary() {
+    TextMapPropagator traceContext = W3CTraceContextPropagator.getInstance();
+    TextMapPropagator baggage = W3CBaggagePropagator.getInstance();
+    TextMapPropagator wrapping = new WrappingPropagator(traceContext);
+
+    assertThat(isBinary(traceContext)).isTrue();
+    assertThat(isBinary(TextMapPropagator.composite(traceContext, baggage))).isFalse();
+    assertThat(isBinary(TextMapPropagator.composite(baggage, traceContext))).isFalse();
+    assertThat(isBinary(wrapping)).isFalse();
+    assertThat(isBinary(TextMapPropagator.composite(wrapping, baggage))).isFalse();
+  }
+
+  @Test
+  void forPropagator() {
+    TextMapPropagator propagator = W3CTraceContextPropagator.getInstance();
+
+    assertThat(BinaryTraceContextPropagation.forPropagator(propagator))
+        .isSameAs(BinaryTraceContextPropagation.forPropagator(propagator));
+  }
+
+  private static boolean isBinary(TextMapPropagator propagator) {
+    return BinaryTraceContextPropagation.create(propagator).isBinary();
+  }
+
+  private static SpanContext extractText(Map<String, byte[]> headers) {
+    Map<String, String> textHeaders = new HashMap<>();
+    headers.forEach((key, value) -> textHeaders.put(key, string(value)));
+    Context context =
+        W3CTraceContextPropagator.getInstance()
+            .extract(Context.root(), textHeaders, TextGetter.INSTANCE);
+    return Span.fromContext(context).getSpanContext();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static String string(byte[] value) {
+    return new String(value, StandardCharsets.US_ASCII);
+  }
+
+  // has the same fields as the default propagators, but may customize them
+  static class WrappingPropagator implements TextMapPropagator {
+    private final TextMapPropagator delegate;
+
+    WrappingPropagator(TextMapPropagator delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Collection<String> fields() {
+      return Arrays.asList("traceparent", "tracestate", "baggage");
+    }
+
+    @Override
+    public <C> void inject(Context context, @Nullable C carrier, TextMapSetter<C> setter) {
+      delegate.inject(context, carrier, setter);
+    }
+
+    @Override
+    public <C> Context extract(Context context, @Nullable C carrier, TextMapGetter<C> getter) {
+      return delegate.extract(context, carrier, getter);
+    }
+  }
+
+  enum BytesGetter implements BinaryTextMapGetter<Map<String, byte[]>> {
+    INSTANCE;
+
+    @Override
+    public Iterable<String> keys(Map<String, byte[]> carrier) {
+      return carrier.keySet();
+    }
+
+    @Nullable
+    @Override
+    public String get(@Nullable Map<String, byte[]> carrier, String key) {
+      byte[] value = getBytes(carrier, key);
+      return value == null ? null : string(value);
+    }
+
+    @Nullable
+    @Override
+    public byte[] getBytes(Map<String, byte[]> carrier, String key) {
+      return carrier.get(key);
+    }
+  }
+
+  enum BytesSetter implements BinaryTextMapSetter<Map<String, byte[]>> {
+    INSTANCE;
+
+    @Override
+    public void set(@Nullable Map<String, byte[]> carrier, String key, String value) {
+      setBytes(carrier, key, bytes(value));
+    }
+
+    @Override
+    public void setBytes(@Nullable Map<String, byte[]> carrier, String key, byte[] value) {
+      carrier.put(key, value);
+    }
+  }
+
+  enum TextGetter implements TextMapGetter<Map<String, String>> {
+    INSTANCE;
+
+    @Override
+    public Iterable<String> keys(Map<String, String> carrier) {
+      return carrier.keySet();
+    }
+
+    @Nullable
+    @Override
+    public String get(@Nullable Map<String, String> carrier, String key) {
+      return carrier.get(key);
+    }
+  }
+}
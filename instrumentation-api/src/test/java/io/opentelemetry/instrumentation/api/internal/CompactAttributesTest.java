@@ -0,0 +1,97 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.attributeEntry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import org.junit.jupiter.api.Test;
+
+class CompactAttributesTest {
+
+  @Test
+  void buildAndUse() {
+    Attributes previous =
+        Attributes.builder().put("world", "earth").put("country", "japan").build();
+
+    CompactAttributes attributes = new CompactAttributes();
+    attributes.put(AttributeKey.stringKey("animal"), "cat");
+    attributes.put("needs_catnip", false);
+    // Overwrites
+    attributes.put("needs_catnip", true);
+    attributes.put(AttributeKey.longKey("lives"), 9);
+    attributes.putAll(previous);
+    // Ignored
+    attributes.put(AttributeKey.stringKey("nothing"), null);
+    attributes.put((AttributeKey<String>) null, "nothing");
+
+    assertThat((Attributes) attributes)
+        .containsOnly(
+            attributeEntry("world", "earth"),
+            attributeEntry("country", "japan"),
+            attributeEntry("animal", "cat"),
+            attributeEntry("needs_catnip", true),
+            attributeEntry("lives", 9L));
+    assertThat(attributes.get(AttributeKey.longKey("lives"))).isEqualTo(9L);
+    assertThat(attributes.getLong(AttributeKey.longKey("lives"), -1)).isEqualTo(9L);
+    assertThat(attributes.getBoolean(AttributeKey.booleanKey("needs_catnip"), false)).isTrue();
+    assertThat(attributes.getLong(AttributeKey.longKey("missing"), -1)).isEqualTo(-1L);
+
+    Attributes built = attributes.build();
+    attributes.clear();
+
+    assertThat((Attributes) attributes).isEmpty();
+    assertThat(attributes.get(AttributeKey.stringKey("animal"))).isNull();
+    // Unmodified
+    assertThat(built)
+        .containsOnly(
+            attributeEntry("world", "earth"),
+            attributeEntry("country", "japan"),
+            attributeEntry("animal", "cat"),
+            attributeEntry("needs_catnip", true),
+            attributeEntry("lives", 9L));
+  }
+
+  @Test
+  void primitives() {
+    CompactAttributes attributes = new CompactAttributes();
+    attributes.putLong(AttributeKey.longKey("long"), 42);
+    attributes.putDouble(AttributeKey.doubleKey("double"), 4.2);
+    attributes.putBoolean(AttributeKey.booleanKey("boolean"), true);
+    attributes.put(AttributeKey.doubleKey("boxed"), 1.5);
+
+    assertThat((Attributes) attributes)
+        .containsOnly(
+            attributeEntry("long", 42L),
+            attributeEntry("double", 4.2),
+            attributeEntry("boolean", true),
+            attributeEntry("boxed", 1.5));
+    assertThat(attributes.getDouble(AttributeKey.doubleKey("double"), 0)).isEqualTo(4.2);
+    assertThat(attributes.getDouble(AttributeKey.doubleKey("boxed"), 0)).isEqualTo(1.5);
+  }
+
+  @Test
+  void growsBeyondInitialCapacity() {
+    CompactAttributes attributes = new CompactAttributes();
+    for (long i = 0; i < 100; i++) {
+      attributes.put(AttributeKey.longKey("key" + i), i);
+    }
+
+    // Overwrites, looked up through the index using an equal but not identical key
+    attributes.put(AttributeKey.longKey("key42"), 4242L);
+
+    assertThat(attributes.size()).isEqualTo(100);
+    assertThat(attributes.get(AttributeKey.longKey("key42"))).isEqualTo(4242L);
+    assertThat(attributes.get(AttributeKey.longKey("key99"))).isEqualTo(99L);
+    assertThat(attributes.contains(AttributeKey.longKey("key100"))).isFalse();
+
+    attributes.clear();
+    attributes.put(AttributeKey.longKey("key42"), 42L);
+    assertThat((Attributes) attributes).containsOnly(attributeEntry("key42", 42L));
+  }
+}
@@ -5,12 +5,19 @@
 
 package io.opentelemetry.instrumentation.api.internal;
 
-import static org.assertj.core.api.Assertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.instrumentation.api.config.Config;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 
 class SupportabilityMetricsTest {
@@ -76,6 +83,140 @@ class SupportabilityMetricsTest {
             "Counter 'some counter' : 1");
   }
 
+  @Test
+  void reportsCountsRecordedThroughHandles() {
+    List<String> reports = new ArrayList<>();
+    SupportabilityMetrics metrics =
+        new SupportabilityMetrics(configWithJavaagentDebug(true), reports::add);
+
+    SupportabilityMetrics.SuppressedSpanCounter suppressedSpans =
+        metrics.suppressedSpanCounter("favoriteInstrumentation");
+    SupportabilityMetrics.Counter counter = metrics.counter("some counter");
+    assertThat(metrics.counter("some counter")).isSameAs(counter);
+
+    suppressedSpans.increment(SpanKind.CLIENT);
+    counter.increment();
+    metrics.report();
+    suppressedSpans.increment(SpanKind.CLIENT);
+    metrics.incrementCounter("some counter");
+    counter.increment();
+    metrics.report();
+
+    assertThat(reports)
+        .containsExactly(
+            "Suppressed Spans by 'favoriteInstrumentation' (CLIENT) : 1",
+            "Counter 'some counter' : 1",
+            "Suppressed Spans by 'favoriteInstrumentation' (CLIENT) : 1",
+            "Counter 'some counter' : 2");
+  }
+
+  @Test
+  void countsConcurrentIncrements() throws InterruptedException {
+    SupportabilityMetrics metrics =
+        new SupportabilityMetrics(configWithJavaagentDebug(false), report -> {});
+    SupportabilityMetrics.Counter counter = metrics.counter("some counter");
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 8; i++) {
+      executor.execute(
+          () -> {
+            for (int j = 0; j < 10_000; j++) {
+              counter.increment();
+            }
+          });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(counter.get()).isEqualTo(80_000);
+  }
+
+  @Test
+  void exportsMetrics() {
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+
+    // recording does not depend on the debug mode
+    SupportabilityMetrics metrics =
+        new SupportabilityMetrics(configWithJavaagentDebug(false), report -> {});
+    metrics.registerObservers(meterProvider.get("test"));
+
+    metrics.recordSuppressedSpan(SpanKind.CLIENT, "favoriteInstrumentation");
+    metrics.recordSuppressedSpan(SpanKind.CLIENT, "favoriteInstrumentation");
+    metrics.counter("some counter").increment();
+
+    assertThat(metricReader.collectAllMetrics())
+        .satisfiesExactlyInAnyOrder(
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.javaagent.suppressed_spans")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(2)
+                                            .hasAttributesSatisfying(
+                                                equalTo(
+                                                    AttributeKey.stringKey("instrumentation.name"),
+                                                    "favoriteInstrumentation"),
+                                                equalTo(
+                                                    AttributeKey.stringKey("span.kind"),
+                                                    "CLIENT")))),
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.javaagent.counters")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(1)
+                                            .hasAttributesSatisfying(
+                                                equalTo(
+                                                    AttributeKey.stringKey("counter.name"),
+                                                    "some counter")))));
+  }
+
+  @Test
+  void exportsHelperInjectionTime() {
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+
+    SupportabilityMetrics metrics =
+        new SupportabilityMetrics(configWithJavaagentDebug(false), report -> {});
+    metrics.registerObservers(meterProvider.get("test"));
+
+    SupportabilityMetrics.HelperInjectionTimer timer =
+        metrics.helperInjectionTimer("favoriteInstrumentation");
+    assertThat(metrics.helperInjectionTimer("favoriteInstrumentation")).isSameAs(timer);
+    timer.recordSince(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(2));
+    long micros = timer.getMicros();
+    assertThat(micros).isGreaterThanOrEqualTo(2000);
+
+    assertThat(metricReader.collectAllMetrics())
+        .satisfiesExactly(
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.javaagent.helper_injection.duration")
+                    .hasUnit("us")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(micros)
+                                            .hasAttributesSatisfying(
+                                                equalTo(
+                                                    AttributeKey.stringKey("instrumentation.name"),
+                                                    "favoriteInstrumentation")))));
+  }
+
   private static Config configWithJavaagentDebug(boolean enabled) {
     return Config.builder().addProperty("otel.javaagent.debug", Boolean.toString(enabled)).build();
   }
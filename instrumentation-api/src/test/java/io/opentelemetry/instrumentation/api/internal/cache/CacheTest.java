@@ -6,8 +6,13 @@
 package io.opentelemetry.instrumentation.api.internal.cache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.awaitility.Awaitility.await;
 
+import io.opentelemetry.instrumentation.api.config.Config;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -35,6 +40,64 @@ class CacheTest {
       assertThat(mapBackedCache.size()).isEqualTo(1);
       assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("purr");
     }
+
+    @Test
+    void boundedWithEvictionListener() {
+      Map<String, String> evicted = new HashMap<>();
+      Cache<String, String> cache = Cache.bounded(1, evicted::put);
+
+      cache.put("cat", "meow");
+      assertThat(evicted).isEmpty();
+
+      cache.put("dog", "bark");
+      assertThat(evicted).containsOnly(entry("cat", "meow"));
+      assertThat(cache.get("dog")).isEqualTo("bark");
+    }
+
+    @Test
+    void named() {
+      Cache<String, String> cache = NamedCaches.bounded("test-cache", 1, Config.builder().build());
+
+      assertThat(cache).isInstanceOf(MapBackedCache.class);
+      cache.put("cat", "meow");
+      cache.put("dog", "bark");
+      assertThat(((MapBackedCache<?, ?>) cache).size()).isEqualTo(1);
+    }
+
+    @Test
+    void namedWithTinyLfuPolicy() {
+      Config config =
+          Config.builder()
+              .addProperty("otel.instrumentation.experimental.cache.test-cache.policy", "tiny-lfu")
+              .build();
+      Cache<String, String> cache = NamedCaches.bounded("test-cache", 1, config);
+
+      assertThat(cache).isInstanceOf(TinyLfuCache.class);
+      cache.put("cat", "meow");
+      cache.put("dog", "bark");
+      assertThat(((TinyLfuCache<?, ?>) cache).size()).isEqualTo(1);
+    }
+
+    @Test
+    void namedWithConfiguredCapacityAndStats() {
+      Config config =
+          Config.builder()
+              .addProperty("otel.instrumentation.experimental.cache.stats-cache.max-size", "1")
+              .addProperty("otel.instrumentation.experimental.cache.stats.enabled", "true")
+              .build();
+      Cache<String, String> cache = NamedCaches.bounded("stats-cache", 100, config);
+
+      assertThat(cache).isInstanceOf(StatsRecordingCache.class);
+      assertThat(cache.computeIfAbsent("cat", unused -> "meow")).isEqualTo("meow");
+      assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("meow");
+      cache.put("dog", "bark");
+      assertThat(cache.get("cat")).isNull();
+
+      SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+      assertThat(supportability.counter("Cache 'stats-cache' hit").get()).isEqualTo(1);
+      assertThat(supportability.counter("Cache 'stats-cache' miss").get()).isEqualTo(2);
+      assertThat(supportability.counter("Cache 'stats-cache' eviction").get()).isEqualTo(1);
+    }
   }
 
   @Nested
@@ -0,0 +1,81 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+
+  @Test
+  void operations() {
+    TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, null);
+
+    assertThat(cache.computeIfAbsent("bear", unused -> "roar")).isEqualTo("roar");
+    assertThat(cache.computeIfAbsent("bear", unused -> "growl")).isEqualTo("roar");
+    cache.remove("bear");
+    assertThat(cache.get("bear")).isNull();
+    assertThat(cache.size()).isEqualTo(0);
+
+    cache.put("cat", "meow");
+    cache.put("cat", "purr");
+    assertThat(cache.get("cat")).isEqualTo("purr");
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void evictsWhenFull() {
+    Map<Integer, Integer> evicted = new HashMap<>();
+    TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(10, evicted::put);
+
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i);
+    }
+
+    assertThat(cache.size()).isEqualTo(10);
+    assertThat(evicted).hasSize(90);
+    evicted.forEach((key, value) -> assertThat(cache.get(key)).isNull());
+  }
+
+  @Test
+  void capacityOfOne() {
+    TinyLfuCache<String, String> cache = new TinyLfuCache<>(1, null);
+
+    cache.put("cat", "meow");
+    cache.put("dog", "bark");
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.get("dog")).isEqualTo("bark");
+  }
+
+  @Test
+  void keepsFrequentlyUsedEntriesDuringScan() {
+    TinyLfuCache<String, String> cache = new TinyLfuCache<>(100, null);
+
+    for (int i = 0; i < 50; i++) {
+      String key = "hot" + i;
+      cache.put(key, key);
+      for (int j = 0; j < 5; j++) {
+        cache.get(key);
+      }
+    }
+    // hot keys, e.g. prepared statements, keep being used while many one-off keys, e.g. ad-hoc
+    // queries, go through the cache
+    for (int i = 0; i < 5_000; i++) {
+      String key = "scan" + i;
+      cache.computeIfAbsent(key, unused -> key);
+      cache.get("hot" + (i % 50));
+    }
+
+    assertThat(cache.size()).isEqualTo(100);
+    for (int i = 0; i < 50; i++) {
+      assertThat(cache.get("hot" + i)).isEqualTo("hot" + i);
+    }
+  }
+}
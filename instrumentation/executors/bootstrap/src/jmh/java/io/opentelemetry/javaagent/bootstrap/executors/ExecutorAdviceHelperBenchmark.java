@@ -0,0 +1,108 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap.executors;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.instrumentation.api.util.VirtualField;
+import io.opentelemetry.javaagent.bootstrap.InstrumentedTaskClasses;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures submitting a task to an executor and running it, as done by the executor
+ * instrumentations: the context is attached to the task on submit and made current when the task
+ * runs. The {@code field} virtual field stands for a field injected into an instrumented task
+ * class, the {@code map} one for the weak map fallback used for e.g. JDK lambdas.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class ExecutorAdviceHelperBenchmark {
+
+  private static final ContextKey<String> KEY = ContextKey.named("benchmark");
+
+  static {
+    // normally set by the agent
+    InstrumentedTaskClasses.setIgnoredTaskClassesPredicate(className -> false);
+  }
+
+  @Param({"field", "map"})
+  String virtualFieldType;
+
+  private VirtualField<Task, PropagatedContext> virtualField;
+  private Context context;
+  private Task resubmittedTask;
+
+  @Setup
+  public void setup() {
+    virtualField =
+        virtualFieldType.equals("field")
+            ? new TaskFieldVirtualField()
+            : VirtualField.find(Task.class, PropagatedContext.class);
+    context = Context.root().with(KEY, "value");
+    resubmittedTask = new Task();
+  }
+
+  @Benchmark
+  public Task submitAndRunNewTask() {
+    Task task = new Task();
+    submitAndRun(task);
+    return task;
+  }
+
+  @Benchmark
+  public Task submitAndRunResubmittedTask() {
+    submitAndRun(resubmittedTask);
+    return resubmittedTask;
+  }
+
+  private void submitAndRun(Task task) {
+    if (ExecutorAdviceHelper.shouldPropagateContext(context, task)) {
+      PropagatedContext propagatedContext =
+          ExecutorAdviceHelper.attachContextToTask(context, virtualField, task);
+      ExecutorAdviceHelper.cleanUpAfterSubmit(propagatedContext, null);
+    }
+    try (Scope ignored = TaskAdviceHelper.makePropagatedContextCurrent(virtualField, task)) {
+      task.run();
+    }
+  }
+
+  static final class Task implements Runnable {
+    @Nullable PropagatedContext propagatedContext;
+
+    @Override
+    public void run() {}
+  }
+
+  static final class TaskFieldVirtualField extends VirtualField<Task, PropagatedContext> {
+
+    @Override
+    @Nullable
+    public PropagatedContext get(Task task) {
+      return task.propagatedContext;
+    }
+
+    @Override
+    public void set(Task task, @Nullable PropagatedContext propagatedContext) {
+      task.propagatedContext = propagatedContext;
+    }
+  }
+}
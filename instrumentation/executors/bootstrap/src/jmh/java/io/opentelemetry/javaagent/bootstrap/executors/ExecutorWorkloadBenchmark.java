@@ -0,0 +1,122 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap.executors;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.instrumentation.api.util.VirtualField;
+import io.opentelemetry.javaagent.bootstrap.InstrumentedTaskClasses;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the context propagation overhead of submitting a batch of small lambda tasks to a
+ * {@link ThreadPoolExecutor} or a {@link ForkJoinPool}, calling the advice helpers the way the
+ * executor instrumentations do. Compare with {@code propagate=false} for the cost of the executor
+ * itself.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class ExecutorWorkloadBenchmark {
+
+  private static final ContextKey<String> KEY = ContextKey.named("benchmark");
+  private static final int TASKS = 100;
+
+  static {
+    // normally set by the agent
+    InstrumentedTaskClasses.setIgnoredTaskClassesPredicate(className -> false);
+  }
+
+  @Param({"thread-pool", "fork-join"})
+  String executorType;
+
+  @Param({"true", "false"})
+  boolean propagate;
+
+  // lambdas can't have fields injected, so the weak map fallback is used for them
+  private final VirtualField<Runnable, PropagatedContext> virtualField =
+      VirtualField.find(Runnable.class, PropagatedContext.class);
+  private ExecutorService executor;
+  private Context context;
+
+  @Setup
+  public void setup() {
+    int threads = Runtime.getRuntime().availableProcessors();
+    executor =
+        executorType.equals("fork-join")
+            ? new ForkJoinPool(threads)
+            : new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    context = Context.root().with(KEY, "value");
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public void submitAndRunTasks() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(TASKS);
+    try (Scope ignored = context.makeCurrent()) {
+      for (int i = 0; i < TASKS; i++) {
+        execute(latch::countDown);
+      }
+    }
+    latch.await();
+  }
+
+  private void execute(Runnable task) {
+    if (!propagate) {
+      executor.execute(task);
+      return;
+    }
+
+    // what the instrumented Runnable.run() does
+    Runnable instrumentedTask =
+        () -> {
+          try (Scope ignored = TaskAdviceHelper.makePropagatedContextCurrent(virtualField, task)) {
+            task.run();
+          }
+        };
+    // what the instrumented Executor.execute() does
+    Context parentContext = Context.current();
+    PropagatedContext propagatedContext = null;
+    if (ExecutorAdviceHelper.shouldPropagateContext(parentContext, task)) {
+      propagatedContext =
+          ExecutorAdviceHelper.attachContextToTask(parentContext, virtualField, task);
+    }
+    Throwable throwable = null;
+    try {
+      executor.execute(instrumentedTask);
+    } catch (Throwable t) {
+      throwable = t;
+      throw t;
+    } finally {
+      ExecutorAdviceHelper.cleanUpAfterSubmit(propagatedContext, throwable);
+    }
+  }
+}
@@ -49,10 +49,7 @@ public final class ExecutorAdviceHelper {
     // that happening - in the event of this happening one of those tasks would lose the original
     // context anyway
     PropagatedContext propagatedContext = virtualField.get(task);
-    if (propagatedContext == null) {
-      propagatedContext = new PropagatedContext();
-      virtualField.set(task, propagatedContext);
-    } else {
+    if (propagatedContext != null) {
       Context propagated = propagatedContext.get();
       // if task already has the requested context then we might be inside a nested call to execute
       // where an outer call already attached state
@@ -66,7 +63,15 @@ public final class ExecutorAdviceHelper {
       context =
           ContextPropagationDebug.appendLocations(context, new Exception().getStackTrace(), task);
     }
-    propagatedContext.setContext(context);
+    if (propagatedContext == null) {
+      // a new holder isn't visible to other threads yet, so it can be created with the context
+      // instead of setting it with a CAS
+      propagatedContext = new PropagatedContext(context);
+      virtualField.set(task, propagatedContext);
+    } else {
+      // reuse the holder of a resubmitted task
+      propagatedContext.setContext(context);
+    }
     return propagatedContext;
   }
 
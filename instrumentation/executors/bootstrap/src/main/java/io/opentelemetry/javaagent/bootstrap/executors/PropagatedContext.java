@@ -20,10 +20,11 @@ public final class PropagatedContext {
       AtomicReferenceFieldUpdater.newUpdater(PropagatedContext.class, Context.class, "context");
 
   // Used by AtomicReferenceFieldUpdater
-  @SuppressWarnings("UnusedVariable")
   private volatile Context context;
 
-  PropagatedContext() {}
+  PropagatedContext(Context context) {
+    this.context = context;
+  }
 
   void setContext(Context context) {
     boolean result = contextUpdater.compareAndSet(this, null, context);
@@ -15,7 +15,8 @@ public final class TaskAdviceHelper {
 
   /**
    * Make the {@link PropagatedContext} associated with this {@code task} current and return the
-   * resulting scope. Will return {@code null} if there's no context attached to this {@code task}.
+   * resulting scope. Will return {@code null} if there's no context attached to this {@code task},
+   * or if the attached context is already current.
    */
   @Nullable
   public static <T> Scope makePropagatedContextCurrent(
@@ -23,7 +24,9 @@ public final class TaskAdviceHelper {
     PropagatedContext propagatedContext = virtualField.get(task);
     if (propagatedContext != null) {
       Context context = propagatedContext.getAndClear();
-      if (context != null) {
+      // there's nothing to do when the task runs on a thread where the propagated context is
+      // already current, e.g. a task forked and then joined by the same thread
+      if (context != null && context != Context.current()) {
         return context.makeCurrent();
       }
     }
@@ -35,8 +35,9 @@ public final class LambdaTransformer {
       return classBytes;
     }
 
-    ClassFileTransformer transformer = ClassFileTransformerHolder.getClassFileTransformer();
-    if (transformer != null) {
+    // the transformers of the instrumentations installed later, e.g. with staged installation,
+    // transform the result of the previous ones, like the JVM chains the installed transformers
+    for (ClassFileTransformer transformer : ClassFileTransformerHolder.getClassFileTransformers()) {
       try {
         byte[] result;
         if (IS_JAVA_9) {
@@ -49,7 +50,7 @@ public final class LambdaTransformer {
                   targetClass.getClassLoader(), slashClassName, null, null, classBytes);
         }
         if (result != null) {
-          return result;
+          classBytes = result;
         }
       } catch (Throwable throwable) {
         // sun.instrument.TransformerManager catches Throwable from ClassFileTransformer and ignores
@@ -68,6 +68,10 @@ public class ConsumerRecordsInstrumentation implements TypeInstrumentation {
       // leak the context and so there may be a leaked consumer span in the context, in which
       // case it's important to overwrite the leaked span instead of suppressing the correct span
       // (https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/1947)
+      // in batch mode only the iteration of all the records is traced
+      if (KafkaSingletons.batchProcessEnabled()) {
+        return;
+      }
       Context receiveContext = VirtualField.find(ConsumerRecords.class, Context.class).get(records);
       iterable = TracingIterable.wrap(iterable, receiveContext);
     }
@@ -85,6 +89,10 @@ public class ConsumerRecordsInstrumentation implements TypeInstrumentation {
       // leak the context and so there may be a leaked consumer span in the context, in which
       // case it's important to overwrite the leaked span instead of suppressing the correct span
       // (https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/1947)
+      // in batch mode only the iteration of all the records is traced
+      if (KafkaSingletons.batchProcessEnabled()) {
+        return;
+      }
       Context receiveContext = VirtualField.find(ConsumerRecords.class, Context.class).get(records);
       list = TracingList.wrap(list, receiveContext);
     }
@@ -103,7 +111,11 @@ public class ConsumerRecordsInstrumentation implements TypeInstrumentation {
       // case it's important to overwrite the leaked span instead of suppressing the correct span
       // (https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/1947)
       Context receiveContext = VirtualField.find(ConsumerRecords.class, Context.class).get(records);
-      iterator = TracingIterator.wrap(iterator, receiveContext);
+      if (KafkaSingletons.batchProcessEnabled()) {
+        iterator = TracingBatchIterator.wrap(iterator, records, receiveContext);
+      } else {
+        iterator = TracingIterator.wrap(iterator, receiveContext);
+      }
     }
   }
 }
@@ -49,6 +49,10 @@ public class KafkaConsumerInstrumentation implements TypeInstrumentation {
   public static class PollAdvice {
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static Timer onEnter() {
+      // the records of the previous poll are done with, even when their iteration was stopped early
+      if (KafkaSingletons.batchProcessEnabled()) {
+        TracingBatchIterator.endCurrentSpan();
+      }
       return Timer.start();
     }
 
@@ -5,19 +5,33 @@
 
 package io.opentelemetry.javaagent.instrumentation.kafkaclients;
 
+import static java.util.logging.Level.WARNING;
+
 import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.instrumentation.api.config.Config;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaInstrumenterFactory;
+import java.util.logging.Logger;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.producer.ProducerRecord;
 
 public final class KafkaSingletons {
+  private static final Logger logger = Logger.getLogger(KafkaSingletons.class.getName());
+
   private static final String INSTRUMENTATION_NAME = "io.opentelemetry.kafka-clients-0.11";
+  private static final String BATCH_PROCESS_MAX_LINKS_PROPERTY =
+      "otel.instrumentation.kafka.experimental.batch-process.max-links";
+  private static final int DEFAULT_BATCH_PROCESS_MAX_LINKS = 128;
 
   private static final Instrumenter<ProducerRecord<?, ?>, Void> PRODUCER_INSTRUMENTER;
   private static final Instrumenter<ConsumerRecords<?, ?>, Void> CONSUMER_RECEIVE_INSTRUMENTER;
   private static final Instrumenter<ConsumerRecord<?, ?>, Void> CONSUMER_PROCESS_INSTRUMENTER;
+  private static final Instrumenter<ConsumerRecords<?, ?>, Void> BATCH_PROCESS_INSTRUMENTER;
+
+  private static final boolean BATCH_PROCESS_ENABLED =
+      Config.get()
+          .getBoolean("otel.instrumentation.kafka.experimental.batch-process.enabled", false);
 
   static {
     KafkaInstrumenterFactory instrumenterFactory =
@@ -25,6 +39,25 @@ public final class KafkaSingletons {
     PRODUCER_INSTRUMENTER = instrumenterFactory.createProducerInstrumenter();
     CONSUMER_RECEIVE_INSTRUMENTER = instrumenterFactory.createConsumerReceiveInstrumenter();
     CONSUMER_PROCESS_INSTRUMENTER = instrumenterFactory.createConsumerProcessInstrumenter();
+    BATCH_PROCESS_INSTRUMENTER =
+        instrumenterFactory.createBatchProcessInstrumenter(
+            validateBatchProcessMaxLinks(
+                Config.get()
+                    .getInt(BATCH_PROCESS_MAX_LINKS_PROPERTY, DEFAULT_BATCH_PROCESS_MAX_LINKS)));
+  }
+
+  // 0 means that the batch process spans are not linked to the records
+  private static int validateBatchProcessMaxLinks(int maxLinks) {
+    if (maxLinks < 0) {
+      logger.log(
+          WARNING,
+          "Invalid value {0} of {1}, it must not be negative; using the default {2} instead",
+          new Object[] {
+            maxLinks, BATCH_PROCESS_MAX_LINKS_PROPERTY, DEFAULT_BATCH_PROCESS_MAX_LINKS
+          });
+      return DEFAULT_BATCH_PROCESS_MAX_LINKS;
+    }
+    return maxLinks;
   }
 
   public static Instrumenter<ProducerRecord<?, ?>, Void> producerInstrumenter() {
@@ -39,5 +72,17 @@ public final class KafkaSingletons {
     return CONSUMER_PROCESS_INSTRUMENTER;
   }
 
+  public static Instrumenter<ConsumerRecords<?, ?>, Void> batchProcessInstrumenter() {
+    return BATCH_PROCESS_INSTRUMENTER;
+  }
+
+  /**
+   * Returns whether a single process span is created for all the records returned by a poll,
+   * instead of a process span for each record.
+   */
+  public static boolean batchProcessEnabled() {
+    return BATCH_PROCESS_ENABLED;
+  }
+
   private KafkaSingletons() {}
 }
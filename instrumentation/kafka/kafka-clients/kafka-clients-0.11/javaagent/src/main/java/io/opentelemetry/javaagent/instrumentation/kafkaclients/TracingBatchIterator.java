@@ -0,0 +1,116 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.kafkaclients;
+
+import static io.opentelemetry.javaagent.instrumentation.kafkaclients.KafkaSingletons.batchProcessInstrumenter;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.javaagent.bootstrap.kafka.KafkaClientsConsumerProcessTracing;
+import java.util.Iterator;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+
+/**
+ * Creates a single process span for all the records of a poll: the span starts when the first
+ * record is read and ends when the iteration is over. When the iteration stops before the last
+ * record, the span ends when the thread starts another batch or polls again.
+ */
+public class TracingBatchIterator<K, V> implements Iterator<ConsumerRecord<K, V>> {
+  // the iterator whose span is open on the current thread
+  private static final ThreadLocal<TracingBatchIterator<?, ?>> current = new ThreadLocal<>();
+
+  private final Iterator<ConsumerRecord<K, V>> delegateIterator;
+  private final ConsumerRecords<?, ?> records;
+  private final Context parentContext;
+  private boolean started;
+
+  /*
+   * Note: this may potentially create problems if this iterator is used from different threads. But
+   * at the moment we cannot do much about this.
+   */
+  @Nullable private Context context;
+  @Nullable private Scope scope;
+
+  private TracingBatchIterator(
+      Iterator<ConsumerRecord<K, V>> delegateIterator,
+      ConsumerRecords<?, ?> records,
+      @Nullable Context receiveContext) {
+    this.delegateIterator = delegateIterator;
+    this.records = records;
+
+    // use the receive CONSUMER as parent if it's available
+    this.parentContext = receiveContext != null ? receiveContext : Context.current();
+  }
+
+  public static <K, V> Iterator<ConsumerRecord<K, V>> wrap(
+      Iterator<ConsumerRecord<K, V>> delegateIterator,
+      ConsumerRecords<?, ?> records,
+      @Nullable Context receiveContext) {
+    if (KafkaClientsConsumerProcessTracing.wrappingEnabled()) {
+      return new TracingBatchIterator<>(delegateIterator, records, receiveContext);
+    }
+    return delegateIterator;
+  }
+
+  @Override
+  public boolean hasNext() {
+    boolean hasNext = delegateIterator.hasNext();
+    if (!hasNext) {
+      closeScopeAndEndSpan();
+    }
+    return hasNext;
+  }
+
+  @Override
+  public ConsumerRecord<K, V> next() {
+    ConsumerRecord<K, V> next = delegateIterator.next();
+    // see TracingIterator for why the span creation isn't suppressed with shouldStart()
+    if (!started && KafkaClientsConsumerProcessTracing.wrappingEnabled()) {
+      started = true;
+      endCurrentSpan();
+      // the links extractor iterates over the records, that iteration must not be traced
+      boolean previousWrappingEnabled = KafkaClientsConsumerProcessTracing.setEnabled(false);
+      try {
+        context = batchProcessInstrumenter().start(parentContext, records);
+      } finally {
+        KafkaClientsConsumerProcessTracing.setEnabled(previousWrappingEnabled);
+      }
+      scope = context.makeCurrent();
+      current.set(this);
+    }
+    return next;
+  }
+
+  /**
+   * Ends the span of the batch whose iteration was stopped before the last record on the current
+   * thread, if any.
+   */
+  public static void endCurrentSpan() {
+    TracingBatchIterator<?, ?> iterator = current.get();
+    if (iterator != null) {
+      iterator.closeScopeAndEndSpan();
+    }
+  }
+
+  private void closeScopeAndEndSpan() {
+    if (scope != null) {
+      scope.close();
+      batchProcessInstrumenter().end(context, records, null, null);
+      scope = null;
+      context = null;
+      if (current.get() == this) {
+        current.remove();
+      }
+    }
+  }
+
+  @Override
+  public void remove() {
+    delegateIterator.remove();
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafkaclients
+
+import io.opentelemetry.sdk.trace.data.SpanData
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes
+import org.apache.kafka.clients.producer.ProducerRecord
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+import static io.opentelemetry.api.trace.SpanKind.CONSUMER
+import static io.opentelemetry.api.trace.SpanKind.INTERNAL
+import static io.opentelemetry.api.trace.SpanKind.PRODUCER
+
+class KafkaClientBatchProcessTest extends KafkaClientPropagationBaseTest {
+
+  def "test kafka produce and batch consume"() {
+    when:
+    runWithSpan("parent") {
+      producer.send(new ProducerRecord(SHARED_TOPIC, "first")).get(5, TimeUnit.SECONDS)
+      producer.send(new ProducerRecord(SHARED_TOPIC, "second")).get(5, TimeUnit.SECONDS)
+    }
+
+    then:
+    awaitUntilConsumerIsReady()
+    def records = consumer.poll(Duration.ofSeconds(5).toMillis())
+    records.count() == 2
+
+    // iterate over records to generate spans
+    for (record in records) {
+      runWithSpan("processing " + record.value()) {}
+    }
+
+    assertTraces(2) {
+      traces.sort(orderByRootSpanKind(INTERNAL, CONSUMER))
+
+      SpanData firstProducerSpan
+      SpanData secondProducerSpan
+
+      trace(0, 3) {
+        span(0) {
+          name "parent"
+          kind INTERNAL
+          hasNoParent()
+        }
+        span(1) {
+          name SHARED_TOPIC + " send"
+          kind PRODUCER
+          childOf span(0)
+        }
+        span(2) {
+          name SHARED_TOPIC + " send"
+          kind PRODUCER
+          childOf span(0)
+        }
+
+        firstProducerSpan = span(1)
+        secondProducerSpan = span(2)
+      }
+      // a single process span for both records
+      trace(1, 4) {
+        span(0) {
+          name SHARED_TOPIC + " receive"
+          kind CONSUMER
+          hasNoParent()
+        }
+        span(1) {
+          name SHARED_TOPIC + " process"
+          kind CONSUMER
+          childOf span(0)
+          hasLink firstProducerSpan
+          hasLink secondProducerSpan
+          attributes {
+            "$SemanticAttributes.MESSAGING_SYSTEM" "kafka"
+            "$SemanticAttributes.MESSAGING_DESTINATION" SHARED_TOPIC
+            "$SemanticAttributes.MESSAGING_DESTINATION_KIND" "topic"
+            "$SemanticAttributes.MESSAGING_OPERATION" "process"
+          }
+        }
+        span(2) {
+          name "processing first"
+          childOf span(1)
+        }
+        span(3) {
+          name "processing second"
+          childOf span(1)
+        }
+      }
+    }
+  }
+
+  def "test batch process span ends on the next poll when the iteration stops early"() {
+    when:
+    runWithSpan("parent") {
+      producer.send(new ProducerRecord(SHARED_TOPIC, "first")).get(5, TimeUnit.SECONDS)
+      producer.send(new ProducerRecord(SHARED_TOPIC, "second")).get(5, TimeUnit.SECONDS)
+    }
+
+    then:
+    awaitUntilConsumerIsReady()
+    def records = consumer.poll(Duration.ofSeconds(5).toMillis())
+    records.count() == 2
+
+    for (record in records) {
+      runWithSpan("processing " + record.value()) {}
+      break
+    }
+    consumer.poll(Duration.ofMillis(100).toMillis())
+
+    assertTraces(2) {
+      traces.sort(orderByRootSpanKind(INTERNAL, CONSUMER))
+
+      trace(0, 3) {
+        span(0) {
+          name "parent"
+          kind INTERNAL
+          hasNoParent()
+        }
+        span(1) {
+          name SHARED_TOPIC + " send"
+          kind PRODUCER
+          childOf span(0)
+        }
+        span(2) {
+          name SHARED_TOPIC + " send"
+          kind PRODUCER
+          childOf span(0)
+        }
+      }
+      trace(1, 3) {
+        span(0) {
+          name SHARED_TOPIC + " receive"
+          kind CONSUMER
+          hasNoParent()
+        }
+        span(1) {
+          name SHARED_TOPIC + " process"
+          kind CONSUMER
+          childOf span(0)
+        }
+        span(2) {
+          name "processing first"
+          childOf span(1)
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import java.util.Iterator;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+/** The keys of the Kafka headers, read from the headers as they are iterated. */
+final class HeaderKeys implements Iterable<String> {
+  private final Headers headers;
+
+  HeaderKeys(Headers headers) {
+    this.headers = headers;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    Iterator<Header> iterator = headers.iterator();
+    return new Iterator<String>() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public String next() {
+        return iterator.next().key();
+      }
+    };
+  }
+}
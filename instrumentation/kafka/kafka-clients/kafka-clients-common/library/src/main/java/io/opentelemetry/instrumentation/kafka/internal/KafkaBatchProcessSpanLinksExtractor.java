@@ -16,19 +16,27 @@ final class KafkaBatchProcessSpanLinksExtractor
     implements SpanLinksExtractor<ConsumerRecords<?, ?>> {
 
   private final SpanLinksExtractor<ConsumerRecord<?, ?>> singleRecordLinkExtractor;
+  private final int maxLinks;
 
-  KafkaBatchProcessSpanLinksExtractor(TextMapPropagator propagator) {
+  KafkaBatchProcessSpanLinksExtractor(TextMapPropagator propagator, int maxLinks) {
     this.singleRecordLinkExtractor =
         SpanLinksExtractor.extractFromRequest(propagator, KafkaConsumerRecordGetter.INSTANCE);
+    this.maxLinks = maxLinks;
   }
 
   @Override
   public void extract(
       SpanLinksBuilder spanLinks, Context parentContext, ConsumerRecords<?, ?> records) {
 
+    // when the batch has more records than links, link evenly spaced records
+    int stride = Math.max(1, (int) Math.ceil(records.count() / (double) maxLinks));
+    int index = 0;
     for (ConsumerRecord<?, ?> record : records) {
-      // explicitly passing root to avoid situation where context propagation is turned off and the
-      // parent (CONSUMER receive) span is linked
+      if (index++ % stride != 0) {
+        continue;
+      }
+      // explicitly passing root to avoid situation where context propagation is turned off and
+      // the parent (CONSUMER receive) span is linked
       singleRecordLinkExtractor.extract(spanLinks, Context.root(), record);
     }
   }
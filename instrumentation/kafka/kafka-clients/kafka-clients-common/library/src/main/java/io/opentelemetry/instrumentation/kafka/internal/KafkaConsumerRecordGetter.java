@@ -5,10 +5,8 @@
 
 package io.opentelemetry.instrumentation.kafka.internal;
 
-import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.instrumentation.api.internal.BinaryTextMapGetter;
 import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
@@ -17,27 +15,31 @@ import org.apache.kafka.common.header.Header;
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
  * any time.
  */
-public enum KafkaConsumerRecordGetter implements TextMapGetter<ConsumerRecord<?, ?>> {
+public enum KafkaConsumerRecordGetter implements BinaryTextMapGetter<ConsumerRecord<?, ?>> {
   INSTANCE;
 
   @Override
   public Iterable<String> keys(ConsumerRecord<?, ?> carrier) {
-    return StreamSupport.stream(carrier.headers().spliterator(), false)
-        .map(Header::key)
-        .collect(Collectors.toList());
+    return new HeaderKeys(carrier.headers());
   }
 
   @Nullable
   @Override
   public String get(@Nullable ConsumerRecord<?, ?> carrier, String key) {
-    Header header = carrier.headers().lastHeader(key);
-    if (header == null) {
-      return null;
-    }
-    byte[] value = header.value();
+    byte[] value = getBytes(carrier, key);
     if (value == null) {
       return null;
     }
     return new String(value, StandardCharsets.UTF_8);
   }
+
+  @Nullable
+  @Override
+  public byte[] getBytes(ConsumerRecord<?, ?> carrier, String key) {
+    Header header = carrier.headers().lastHeader(key);
+    if (header == null) {
+      return null;
+    }
+    return header.value();
+  }
 }
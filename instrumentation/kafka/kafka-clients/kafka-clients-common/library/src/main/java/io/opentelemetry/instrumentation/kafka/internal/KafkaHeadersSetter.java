@@ -5,7 +5,7 @@
 
 package io.opentelemetry.instrumentation.kafka.internal;
 
-import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.instrumentation.api.internal.BinaryTextMapSetter;
 import java.nio.charset.StandardCharsets;
 import org.apache.kafka.common.header.Headers;
 
@@ -13,11 +13,16 @@ import org.apache.kafka.common.header.Headers;
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
  * any time.
  */
-public enum KafkaHeadersSetter implements TextMapSetter<Headers> {
+public enum KafkaHeadersSetter implements BinaryTextMapSetter<Headers> {
   INSTANCE;
 
   @Override
   public void set(Headers headers, String key, String value) {
-    headers.remove(key).add(key, value.getBytes(StandardCharsets.UTF_8));
+    setBytes(headers, key, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void setBytes(Headers headers, String key, byte[] value) {
+    headers.remove(key).add(key, value);
   }
 }
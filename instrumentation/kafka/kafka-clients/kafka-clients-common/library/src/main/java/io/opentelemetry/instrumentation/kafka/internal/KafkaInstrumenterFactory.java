@@ -113,18 +113,33 @@ public final class KafkaInstrumenterFactory {
   }
 
   public Instrumenter<ConsumerRecords<?, ?>, Void> createBatchProcessInstrumenter() {
+    return createBatchProcessInstrumenter(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns an instrumenter that creates a single span for a whole batch of records, linked to at
+   * most {@code maxLinks} of the records. When the batch has more records, evenly spaced records
+   * are linked. When {@code maxLinks} is 0, no record is linked.
+   */
+  public Instrumenter<ConsumerRecords<?, ?>, Void> createBatchProcessInstrumenter(int maxLinks) {
+    if (maxLinks < 0) {
+      throw new IllegalArgumentException("maxLinks must not be negative: " + maxLinks);
+    }
     KafkaBatchProcessAttributesGetter getter = KafkaBatchProcessAttributesGetter.INSTANCE;
     MessageOperation operation = MessageOperation.PROCESS;
 
-    return Instrumenter.<ConsumerRecords<?, ?>, Void>builder(
-            openTelemetry,
-            instrumentationName,
-            MessagingSpanNameExtractor.create(getter, operation))
-        .addAttributesExtractor(MessagingAttributesExtractor.create(getter, operation))
-        .addSpanLinksExtractor(
-            new KafkaBatchProcessSpanLinksExtractor(
-                openTelemetry.getPropagators().getTextMapPropagator()))
-        .setErrorCauseExtractor(errorCauseExtractor)
-        .newInstrumenter(SpanKindExtractor.alwaysConsumer());
+    InstrumenterBuilder<ConsumerRecords<?, ?>, Void> builder =
+        Instrumenter.<ConsumerRecords<?, ?>, Void>builder(
+                openTelemetry,
+                instrumentationName,
+                MessagingSpanNameExtractor.create(getter, operation))
+            .addAttributesExtractor(MessagingAttributesExtractor.create(getter, operation))
+            .setErrorCauseExtractor(errorCauseExtractor);
+    if (maxLinks > 0) {
+      builder.addSpanLinksExtractor(
+          new KafkaBatchProcessSpanLinksExtractor(
+              openTelemetry.getPropagators().getTextMapPropagator(), maxLinks));
+    }
+    return builder.newInstrumenter(SpanKindExtractor.alwaysConsumer());
   }
 }
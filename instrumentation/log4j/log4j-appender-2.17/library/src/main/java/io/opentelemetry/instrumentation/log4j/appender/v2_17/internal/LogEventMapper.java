@@ -38,9 +38,9 @@ public final class LogEventMapper<T> {
           .getBoolean("otel.instrumentation.log4j-appender.experimental-log-attributes", false);
 
   private static final Cache<String, AttributeKey<String>> contextDataAttributeKeyCache =
-      Cache.bounded(100);
+      Cache.bounded("log4j-context-data-keys", 100);
   private static final Cache<String, AttributeKey<String>> mapMessageAttributeKeyCache =
-      Cache.bounded(100);
+      Cache.bounded("log4j-map-message-keys", 100);
 
   private final boolean captureMapMessageAttributes;
 
@@ -38,7 +38,8 @@ public final class LoggingEventMapper {
       Config.get()
           .getBoolean("otel.instrumentation.logback-appender.experimental-log-attributes", false);
 
-  private static final Cache<String, AttributeKey<String>> mdcAttributeKeys = Cache.bounded(100);
+  private static final Cache<String, AttributeKey<String>> mdcAttributeKeys =
+      Cache.bounded("logback-mdc-keys", 100);
 
   private final List<String> captureMdcAttributes;
 
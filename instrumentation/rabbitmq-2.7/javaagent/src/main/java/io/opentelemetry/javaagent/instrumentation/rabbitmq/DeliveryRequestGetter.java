@@ -5,11 +5,14 @@
 
 package io.opentelemetry.javaagent.instrumentation.rabbitmq;
 
-import io.opentelemetry.context.propagation.TextMapGetter;
+import com.rabbitmq.client.LongString;
+import io.opentelemetry.instrumentation.api.internal.BinaryTextMapGetter;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
+import javax.annotation.Nullable;
 
-enum DeliveryRequestGetter implements TextMapGetter<DeliveryRequest> {
+enum DeliveryRequestGetter implements BinaryTextMapGetter<DeliveryRequest> {
   INSTANCE;
 
   @Override
@@ -36,4 +39,25 @@ enum DeliveryRequestGetter implements TextMapGetter<DeliveryRequest> {
     Object obj = headers.get(key);
     return obj == null ? null : obj.toString();
   }
+
+  @Nullable
+  @Override
+  public byte[] getBytes(DeliveryRequest carrier, String key) {
+    Map<String, Object> headers = carrier.getProperties().getHeaders();
+    if (headers == null) {
+      return null;
+    }
+    Object obj = headers.get(key);
+    if (obj == null) {
+      return null;
+    }
+    // string headers are received as long strings, their bytes are used as they are
+    if (obj instanceof LongString) {
+      return ((LongString) obj).getBytes();
+    }
+    if (obj instanceof byte[]) {
+      return (byte[]) obj;
+    }
+    return obj.toString().getBytes(StandardCharsets.UTF_8);
+  }
 }
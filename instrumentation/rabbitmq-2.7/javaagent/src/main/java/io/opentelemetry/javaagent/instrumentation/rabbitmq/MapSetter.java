@@ -5,14 +5,21 @@
 
 package io.opentelemetry.javaagent.instrumentation.rabbitmq;
 
-import io.opentelemetry.context.propagation.TextMapSetter;
+import com.rabbitmq.client.impl.LongStringHelper;
+import io.opentelemetry.instrumentation.api.internal.BinaryTextMapSetter;
 import java.util.Map;
 
-public enum MapSetter implements TextMapSetter<Map<String, Object>> {
+public enum MapSetter implements BinaryTextMapSetter<Map<String, Object>> {
   INSTANCE;
 
   @Override
   public void set(Map<String, Object> carrier, String key, String value) {
     carrier.put(key, value);
   }
+
+  @Override
+  public void setBytes(Map<String, Object> carrier, String key, byte[] value) {
+    // string headers are written as long strings too, so the header is the same on the wire
+    carrier.put(key, LongStringHelper.asLongString(value));
+  }
 }
@@ -12,6 +12,7 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.config.Config;
+import io.opentelemetry.instrumentation.api.internal.BinaryTraceContextPropagation;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.Map;
 
@@ -65,6 +66,8 @@ public class RabbitInstrumenterHelper {
   }
 
   public void inject(Context context, Map<String, Object> headers, MapSetter setter) {
-    GlobalOpenTelemetry.getPropagators().getTextMapPropagator().inject(context, headers, setter);
+    BinaryTraceContextPropagation.forPropagator(
+            GlobalOpenTelemetry.getPropagators().getTextMapPropagator())
+        .inject(context, headers, setter);
   }
 }
@@ -0,0 +1,13 @@
+plugins {
+  id("otel.library-instrumentation")
+}
+
+otelJava {
+  // JFR event streaming was added in Java 14
+  minJavaVersionSupported.set(JavaVersion.VERSION_14)
+}
+
+dependencies {
+  testImplementation("io.opentelemetry:opentelemetry-sdk-metrics")
+  testImplementation(project(":testing-common"))
+}
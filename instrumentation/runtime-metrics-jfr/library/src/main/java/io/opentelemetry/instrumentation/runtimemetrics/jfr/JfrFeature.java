@@ -0,0 +1,23 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.jfr;
+
+/** The families of JFR events that {@link JfrRuntimeMetrics} turns into metrics. */
+public enum JfrFeature {
+  /** GC durations and pauses, from {@code jdk.GarbageCollection} events. */
+  GARBAGE_COLLECTION,
+  /**
+   * Allocated bytes, from {@code jdk.ObjectAllocationSample} events, which are only emitted on Java
+   * 16 and later.
+   */
+  ALLOCATION,
+  /** Contended monitor enter durations, from {@code jdk.JavaMonitorEnter} events. */
+  LOCK_CONTENTION,
+  /** Per-thread CPU utilization, from {@code jdk.ThreadCPULoad} events. */
+  THREAD_CPU,
+  /** Safepoint durations, from {@code jdk.SafepointBegin} events. */
+  SAFEPOINTS
+}
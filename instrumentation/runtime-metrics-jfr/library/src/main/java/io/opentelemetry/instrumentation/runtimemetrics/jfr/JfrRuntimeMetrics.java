@@ -0,0 +1,197 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.jfr;
+
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Set;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Generates metrics from the JFR events of the running JVM, using a JFR event stream. These
+ * complement the metrics that are polled from the MXBeans by {@code GarbageCollector}, {@code
+ * MemoryPools} and {@code Threads} with metrics that the MXBeans can't provide, like GC pause
+ * histograms, the allocation rate or lock contention.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * JfrRuntimeMetrics jfrRuntimeMetrics =
+ *     JfrRuntimeMetrics.builder(GlobalOpenTelemetry.get())
+ *         .setFeatureEnabled(JfrFeature.LOCK_CONTENTION, false)
+ *         .build();
+ * }</pre>
+ *
+ * <p>Example metrics being exported:
+ *
+ * <pre>
+ *   process.runtime.jvm.gc.duration{gc="G1 Young Generation",cause="G1 Evacuation Pause"} 3.2
+ *   process.runtime.jvm.memory.allocated 4.7e7
+ *   process.runtime.jvm.cpu.thread_utilization{cpu.mode="user"} 0.02
+ * </pre>
+ */
+public final class JfrRuntimeMetrics implements Closeable {
+  private static final Logger logger = Logger.getLogger(JfrRuntimeMetrics.class.getName());
+
+  private static final AttributeKey<String> GC_KEY = AttributeKey.stringKey("gc");
+  private static final AttributeKey<String> CAUSE_KEY = AttributeKey.stringKey("cause");
+  private static final AttributeKey<String> CPU_MODE_KEY = AttributeKey.stringKey("cpu.mode");
+  private static final Attributes USER_MODE = Attributes.of(CPU_MODE_KEY, "user");
+  private static final Attributes SYSTEM_MODE = Attributes.of(CPU_MODE_KEY, "system");
+
+  // shorter contended monitor enters are not recorded
+  private static final Duration LOCK_CONTENTION_THRESHOLD = Duration.ofMillis(1);
+  private static final Duration THREAD_CPU_PERIOD = Duration.ofSeconds(1);
+
+  @Nullable private final RecordingStream recordingStream;
+
+  /** Returns a new {@link JfrRuntimeMetricsBuilder} configured with the given OpenTelemetry. */
+  public static JfrRuntimeMetricsBuilder builder(OpenTelemetry openTelemetry) {
+    return new JfrRuntimeMetricsBuilder(openTelemetry);
+  }
+
+  static JfrRuntimeMetrics start(
+      OpenTelemetry openTelemetry,
+      Set<JfrFeature> enabledFeatures,
+      Duration maxBufferAge,
+      long maxBufferSize) {
+    RecordingStream recordingStream;
+    try {
+      recordingStream = new RecordingStream();
+    } catch (IllegalStateException | SecurityException e) {
+      logger.log(WARNING, "JFR event streaming is not available, JFR metrics are disabled", e);
+      return new JfrRuntimeMetrics(null);
+    }
+    // the events are turned into metrics as they arrive, they don't need to be kept in order
+    recordingStream.setOrdered(false);
+    recordingStream.setReuse(true);
+    recordingStream.setMaxAge(maxBufferAge);
+    recordingStream.setMaxSize(maxBufferSize);
+
+    Meter meter = openTelemetry.getMeter("io.opentelemetry.runtime-metrics");
+    if (enabledFeatures.contains(JfrFeature.GARBAGE_COLLECTION)) {
+      enableGarbageCollection(recordingStream, meter);
+    }
+    if (enabledFeatures.contains(JfrFeature.ALLOCATION)) {
+      enableAllocation(recordingStream, meter);
+    }
+    if (enabledFeatures.contains(JfrFeature.LOCK_CONTENTION)) {
+      enableLockContention(recordingStream, meter);
+    }
+    if (enabledFeatures.contains(JfrFeature.THREAD_CPU)) {
+      enableThreadCpu(recordingStream, meter);
+    }
+    if (enabledFeatures.contains(JfrFeature.SAFEPOINTS)) {
+      enableSafepoints(recordingStream, meter);
+    }
+    recordingStream.startAsync();
+    return new JfrRuntimeMetrics(recordingStream);
+  }
+
+  private static void enableGarbageCollection(RecordingStream recordingStream, Meter meter) {
+    DoubleHistogram duration =
+        meter
+            .histogramBuilder("process.runtime.jvm.gc.duration")
+            .setDescription("Duration of JVM garbage collections")
+            .setUnit("ms")
+            .build();
+    DoubleHistogram pauses =
+        meter
+            .histogramBuilder("process.runtime.jvm.gc.pause")
+            .setDescription("Time the application was paused by JVM garbage collections")
+            .setUnit("ms")
+            .build();
+    recordingStream.enable("jdk.GarbageCollection");
+    recordingStream.onEvent(
+        "jdk.GarbageCollection",
+        event -> {
+          Attributes attributes =
+              Attributes.of(GC_KEY, event.getString("name"), CAUSE_KEY, event.getString("cause"));
+          duration.record(millis(event.getDuration()), attributes);
+          pauses.record(millis(event.getDuration("sumOfPauses")), attributes);
+        });
+  }
+
+  private static void enableAllocation(RecordingStream recordingStream, Meter meter) {
+    LongCounter allocated =
+        meter
+            .counterBuilder("process.runtime.jvm.memory.allocated")
+            .setDescription("Estimated number of bytes allocated on the heap")
+            .setUnit("By")
+            .build();
+    recordingStream.enable("jdk.ObjectAllocationSample");
+    recordingStream.onEvent(
+        "jdk.ObjectAllocationSample",
+        // the weight is the number of bytes allocated since the previous sample of the thread
+        event -> allocated.add(event.getLong("weight")));
+  }
+
+  private static void enableLockContention(RecordingStream recordingStream, Meter meter) {
+    DoubleHistogram waitTime =
+        meter
+            .histogramBuilder("process.runtime.jvm.monitor.contention.duration")
+            .setDescription("Time spent waiting to enter contended monitors")
+            .setUnit("ms")
+            .build();
+    recordingStream.enable("jdk.JavaMonitorEnter").withThreshold(LOCK_CONTENTION_THRESHOLD);
+    recordingStream.onEvent(
+        "jdk.JavaMonitorEnter", event -> waitTime.record(millis(event.getDuration())));
+  }
+
+  private static void enableThreadCpu(RecordingStream recordingStream, Meter meter) {
+    DoubleHistogram utilization =
+        meter
+            .histogramBuilder("process.runtime.jvm.cpu.thread_utilization")
+            .setDescription("CPU utilization of the JVM threads")
+            .setUnit("1")
+            .build();
+    recordingStream.enable("jdk.ThreadCPULoad").withPeriod(THREAD_CPU_PERIOD);
+    recordingStream.onEvent(
+        "jdk.ThreadCPULoad",
+        event -> {
+          utilization.record(event.getFloat("user"), USER_MODE);
+          utilization.record(event.getFloat("system"), SYSTEM_MODE);
+        });
+  }
+
+  private static void enableSafepoints(RecordingStream recordingStream, Meter meter) {
+    DoubleHistogram duration =
+        meter
+            .histogramBuilder("process.runtime.jvm.safepoint.duration")
+            .setDescription("Duration of JVM safepoints")
+            .setUnit("ms")
+            .build();
+    recordingStream.enable("jdk.SafepointBegin");
+    recordingStream.onEvent(
+        "jdk.SafepointBegin", event -> duration.record(millis(event.getDuration())));
+  }
+
+  private static double millis(Duration duration) {
+    return duration.toNanos() / 1_000_000.0;
+  }
+
+  private JfrRuntimeMetrics(@Nullable RecordingStream recordingStream) {
+    this.recordingStream = recordingStream;
+  }
+
+  /** Stops streaming the JFR events. */
+  @Override
+  public void close() {
+    if (recordingStream != null) {
+      recordingStream.close();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.jfr;
+
+import io.opentelemetry.api.OpenTelemetry;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/** A builder of {@link JfrRuntimeMetrics}. */
+public final class JfrRuntimeMetricsBuilder {
+
+  private final OpenTelemetry openTelemetry;
+  private final Set<JfrFeature> enabledFeatures = EnumSet.allOf(JfrFeature.class);
+  private Duration maxBufferAge = Duration.ofSeconds(10);
+  private long maxBufferSize = 10 * 1024 * 1024;
+
+  JfrRuntimeMetricsBuilder(OpenTelemetry openTelemetry) {
+    this.openTelemetry = openTelemetry;
+  }
+
+  /** Enables or disables the metrics of an event family, all of them are enabled by default. */
+  public JfrRuntimeMetricsBuilder setFeatureEnabled(JfrFeature feature, boolean enabled) {
+    if (enabled) {
+      enabledFeatures.add(feature);
+    } else {
+      enabledFeatures.remove(feature);
+    }
+    return this;
+  }
+
+  /**
+   * Sets how long the recorded events may be kept before they are turned into metrics, 10 seconds
+   * by default.
+   */
+  public JfrRuntimeMetricsBuilder setMaxBufferAge(Duration maxBufferAge) {
+    this.maxBufferAge = maxBufferAge;
+    return this;
+  }
+
+  /**
+   * Sets how many bytes of recorded events may be kept before they are turned into metrics, 10 MB
+   * by default.
+   */
+  public JfrRuntimeMetricsBuilder setMaxBufferSize(long maxBufferSize) {
+    this.maxBufferSize = maxBufferSize;
+    return this;
+  }
+
+  /**
+   * Starts streaming the JFR events and returns a new {@link JfrRuntimeMetrics} with the settings
+   * of this {@link JfrRuntimeMetricsBuilder}.
+   */
+  public JfrRuntimeMetrics build() {
+    return JfrRuntimeMetrics.start(openTelemetry, enabledFeatures, maxBufferAge, maxBufferSize);
+  }
+}
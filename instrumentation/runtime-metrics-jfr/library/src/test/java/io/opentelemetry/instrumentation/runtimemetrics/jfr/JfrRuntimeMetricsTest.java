@@ -0,0 +1,42 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.jfr;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+
+import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
+import io.opentelemetry.instrumentation.testing.junit.LibraryInstrumentationExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class JfrRuntimeMetricsTest {
+
+  @RegisterExtension
+  static final InstrumentationExtension testing = LibraryInstrumentationExtension.create();
+
+  @Test
+  void shouldRecordGarbageCollections() {
+    try (JfrRuntimeMetrics unused =
+        JfrRuntimeMetrics.builder(testing.getOpenTelemetry())
+            .setFeatureEnabled(JfrFeature.ALLOCATION, false)
+            .build()) {
+      System.gc();
+
+      testing.waitAndAssertMetrics(
+          "io.opentelemetry.runtime-metrics",
+          "process.runtime.jvm.gc.pause",
+          metrics ->
+              metrics.anySatisfy(
+                  metricData ->
+                      assertThat(metricData)
+                          .hasDescription(
+                              "Time the application was paused by JVM garbage collections")
+                          .hasUnit("ms")));
+      assertThat(testing.metrics())
+          .noneMatch(metric -> metric.getName().equals("process.runtime.jvm.memory.allocated"));
+    }
+  }
+}
@@ -4,6 +4,8 @@ plugins {
 
 dependencies {
   implementation(project(":instrumentation:runtime-metrics:library"))
+  // only loaded on Java 14 and later
+  implementation(project(":instrumentation:runtime-metrics-jfr:library"))
 
   compileOnly("io.opentelemetry:opentelemetry-sdk-extension-autoconfigure")
   compileOnly(project(":javaagent-tooling"))
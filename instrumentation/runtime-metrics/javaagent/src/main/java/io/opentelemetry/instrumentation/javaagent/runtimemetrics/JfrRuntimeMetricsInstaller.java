@@ -0,0 +1,63 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.javaagent.runtimemetrics;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.api.config.Config;
+import io.opentelemetry.instrumentation.runtimemetrics.jfr.JfrFeature;
+import io.opentelemetry.instrumentation.runtimemetrics.jfr.JfrRuntimeMetrics;
+import io.opentelemetry.instrumentation.runtimemetrics.jfr.JfrRuntimeMetricsBuilder;
+
+/**
+ * Starts the JFR based runtime metrics. The JFR runtime metrics classes are compiled for Java 14,
+ * so this class must only be loaded after checking that JFR event streaming is available.
+ */
+final class JfrRuntimeMetricsInstaller {
+
+  private static final String CONFIG_PREFIX =
+      "otel.instrumentation.runtime-metrics.experimental.jfr.";
+
+  static void install(Config config, OpenTelemetry openTelemetry) {
+    JfrRuntimeMetricsBuilder builder = JfrRuntimeMetrics.builder(openTelemetry);
+    setFeatureEnabled(builder, config, JfrFeature.GARBAGE_COLLECTION, "gc");
+    setFeatureEnabled(builder, config, JfrFeature.ALLOCATION, "allocation");
+    setFeatureEnabled(builder, config, JfrFeature.LOCK_CONTENTION, "lock-contention");
+    setFeatureEnabled(builder, config, JfrFeature.THREAD_CPU, "thread-cpu");
+    setFeatureEnabled(builder, config, JfrFeature.SAFEPOINTS, "safepoints");
+    // the events are streamed on a daemon thread until the JVM exits
+    builder.build();
+  }
+
+  static boolean recordsGarbageCollections(Config config) {
+    return isFeatureEnabled(config, "gc");
+  }
+
+  // the allocation samples are only emitted since Java 16
+  static boolean recordsAllocations(Config config) {
+    return isFeatureEnabled(config, "allocation") && javaFeatureVersion() >= 16;
+  }
+
+  private static void setFeatureEnabled(
+      JfrRuntimeMetricsBuilder builder, Config config, JfrFeature feature, String name) {
+    builder.setFeatureEnabled(feature, isFeatureEnabled(config, name));
+  }
+
+  private static boolean isFeatureEnabled(Config config, String name) {
+    return config.getBoolean(CONFIG_PREFIX + name + ".enabled", true);
+  }
+
+  private static int javaFeatureVersion() {
+    // e.g. 17, this class is only used on Java 14 and later
+    String version = System.getProperty("java.specification.version", "");
+    try {
+      return Integer.parseInt(version);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private JfrRuntimeMetricsInstaller() {}
+}
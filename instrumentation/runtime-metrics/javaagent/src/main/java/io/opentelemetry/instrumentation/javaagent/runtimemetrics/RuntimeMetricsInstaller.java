@@ -9,6 +9,7 @@ import com.google.auto.service.AutoService;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.instrumentation.api.config.Config;
 import io.opentelemetry.instrumentation.runtimemetrics.Classes;
+import io.opentelemetry.instrumentation.runtimemetrics.GarbageCollectionNotifications;
 import io.opentelemetry.instrumentation.runtimemetrics.GarbageCollector;
 import io.opentelemetry.instrumentation.runtimemetrics.MemoryPools;
 import io.opentelemetry.instrumentation.runtimemetrics.Threads;
@@ -16,10 +17,12 @@ import io.opentelemetry.javaagent.extension.AgentListener;
 import io.opentelemetry.javaagent.tooling.config.AgentConfig;
 import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
 import java.util.Collections;
+import java.util.logging.Logger;
 
 /** An {@link AgentListener} that enables runtime metrics during agent startup. */
 @AutoService(AgentListener.class)
 public class RuntimeMetricsInstaller implements AgentListener {
+  private static final Logger logger = Logger.getLogger(RuntimeMetricsInstaller.class.getName());
 
   private static final boolean DEFAULT_ENABLED =
       Config.get().getBoolean("otel.instrumentation.common.default-enabled", true);
@@ -33,10 +36,40 @@ public class RuntimeMetricsInstaller implements AgentListener {
       MemoryPools.registerObservers(GlobalOpenTelemetry.get());
       Threads.registerObservers(GlobalOpenTelemetry.get());
 
+      boolean jfrEnabled = false;
+      if (config.getBoolean(
+          "otel.instrumentation.runtime-metrics.experimental.jfr.enabled", false)) {
+        if (isJfrStreamingAvailable()) {
+          jfrEnabled = true;
+        } else {
+          logger.fine("JFR event streaming is not available, JFR runtime metrics are disabled");
+        }
+      }
+
       if (config.getBoolean(
           "otel.instrumentation.runtime-metrics.experimental-metrics.enabled", false)) {
         GarbageCollector.registerObservers(GlobalOpenTelemetry.get());
+        // the GC duration and the allocated memory are recorded from the JFR events instead, when
+        // the JFR runtime metrics record them
+        GarbageCollectionNotifications.registerObservers(
+            GlobalOpenTelemetry.get(),
+            !(jfrEnabled && JfrRuntimeMetricsInstaller.recordsGarbageCollections(config)),
+            !(jfrEnabled && JfrRuntimeMetricsInstaller.recordsAllocations(config)));
+      }
+
+      if (jfrEnabled) {
+        JfrRuntimeMetricsInstaller.install(config, GlobalOpenTelemetry.get());
       }
     }
   }
+
+  // the JFR runtime metrics classes can't be loaded before Java 14
+  private static boolean isJfrStreamingAvailable() {
+    try {
+      Class.forName("jdk.jfr.consumer.RecordingStream", false, ClassLoader.getSystemClassLoader());
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
 }
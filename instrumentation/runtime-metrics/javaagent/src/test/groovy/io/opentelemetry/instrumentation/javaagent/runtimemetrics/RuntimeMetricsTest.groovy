@@ -13,6 +13,8 @@ class RuntimeMetricsTest extends AgentInstrumentationSpecification {
   def "test runtime metrics is enabled"() {
     when:
     def conditions = new PollingConditions(timeout: 10, initialDelay: 1.5, factor: 1.25)
+    // generate a garbage collection notification
+    System.gc()
 
     then:
     conditions.eventually {
@@ -21,10 +23,15 @@ class RuntimeMetricsTest extends AgentInstrumentationSpecification {
       assert getMetrics().any { it.name == "process.runtime.jvm.classes.current_loaded" }
       assert getMetrics().any { it.name == "runtime.jvm.gc.time" }
       assert getMetrics().any { it.name == "runtime.jvm.gc.count" }
+      assert getMetrics().any { it.name == "process.runtime.jvm.gc.duration" }
       assert getMetrics().any { it.name == "process.runtime.jvm.memory.init" }
       assert getMetrics().any { it.name == "process.runtime.jvm.memory.usage" }
       assert getMetrics().any { it.name == "process.runtime.jvm.memory.committed" }
       assert getMetrics().any { it.name == "process.runtime.jvm.memory.max" }
+      assert getMetrics().any { it.name == "process.runtime.jvm.memory.usage_after_last_gc" }
+      assert getMetrics().any { it.name == "process.runtime.jvm.buffer.usage" }
+      assert getMetrics().any { it.name == "process.runtime.jvm.buffer.limit" }
+      assert getMetrics().any { it.name == "process.runtime.jvm.buffer.count" }
       assert getMetrics().any { it.name == "process.runtime.jvm.threads.count" }
     }
   }
@@ -0,0 +1,286 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics;
+
+import static java.util.logging.Level.FINE;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Registers a listener on the garbage collection notifications of the JVM that generates metrics
+ * about each garbage collection, as opposed to {@link GarbageCollector} that only observes the
+ * cumulative collection time and count. The attributes of the measurements are created once per
+ * collector and cause (or collector and memory pool), so handling a notification doesn't allocate
+ * them again.
+ *
+ * <p>The collection duration and the allocated memory are recorded as the same metrics, with the
+ * same attributes, as the ones that {@code JfrRuntimeMetrics} records from JFR events. When both
+ * are used, only one of them should record these metrics, see {@link
+ * #registerObservers(OpenTelemetry, boolean, boolean)}.
+ *
+ * <p>The notifications are only emitted by JVMs that implement the {@code com.sun.management} API,
+ * nothing is registered on the other JVMs.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * GarbageCollectionNotifications.registerObservers(GlobalOpenTelemetry.get());
+ * }</pre>
+ *
+ * <p>Example metrics being exported:
+ *
+ * <pre>
+ *   process.runtime.jvm.gc.duration{gc="G1 Young Generation",cause="G1 Evacuation Pause"} 3.0
+ *   process.runtime.jvm.gc.memory.reclaimed{gc="G1 Young Generation",pool="G1 Eden Space"} 2.5e7
+ *   process.runtime.jvm.gc.memory.promoted{gc="G1 Young Generation"} 1.2e6
+ *   process.runtime.jvm.memory.allocated 4.7e7
+ * </pre>
+ */
+public final class GarbageCollectionNotifications {
+  private static final Logger logger =
+      Logger.getLogger(GarbageCollectionNotifications.class.getName());
+
+  private static final AttributeKey<String> GC_KEY = AttributeKey.stringKey("gc");
+  private static final AttributeKey<String> CAUSE_KEY = AttributeKey.stringKey("cause");
+  private static final AttributeKey<String> POOL_KEY = AttributeKey.stringKey("pool");
+
+  private static final String END_OF_MAJOR_GC = "end of major GC";
+
+  /** Register the garbage collection notification listener. */
+  public static void registerObservers(OpenTelemetry openTelemetry) {
+    registerObservers(openTelemetry, true, true);
+  }
+
+  /**
+   * Register the garbage collection notification listener, recording the collection duration and
+   * the allocated memory only if they are not recorded from JFR events by {@code
+   * JfrRuntimeMetrics}, so that the same collections are not recorded twice.
+   *
+   * @param recordDuration whether to record {@code process.runtime.jvm.gc.duration}
+   * @param recordAllocated whether to record {@code process.runtime.jvm.memory.allocated}
+   */
+  public static void registerObservers(
+      OpenTelemetry openTelemetry, boolean recordDuration, boolean recordAllocated) {
+    if (!isNotificationInfoAvailable()) {
+      logger.fine(
+          "Garbage collection notifications are not available, GC notification metrics are"
+              + " disabled");
+      return;
+    }
+    registerObservers(
+        openTelemetry,
+        ManagementFactory.getGarbageCollectorMXBeans(),
+        recordDuration,
+        recordAllocated);
+  }
+
+  // Visible for testing
+  static GcListener registerObservers(
+      OpenTelemetry openTelemetry,
+      List<GarbageCollectorMXBean> garbageCollectors,
+      boolean recordDuration,
+      boolean recordAllocated) {
+    GcListener listener =
+        new GcListener(
+            openTelemetry.getMeter("io.opentelemetry.runtime-metrics"),
+            recordDuration,
+            recordAllocated);
+    for (GarbageCollectorMXBean gc : garbageCollectors) {
+      if (gc instanceof NotificationEmitter) {
+        ((NotificationEmitter) gc)
+            .addNotificationListener(
+                listener,
+                notification ->
+                    GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(
+                        notification.getType()),
+                null);
+      }
+    }
+    return listener;
+  }
+
+  private static boolean isNotificationInfoAvailable() {
+    try {
+      Class.forName(
+          "com.sun.management.GarbageCollectionNotificationInfo",
+          false,
+          GarbageCollectorMXBean.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  // the pools of the young generation of the serial, parallel, CMS and G1 collectors
+  private static boolean isYoungGenPool(String pool) {
+    return pool.endsWith("Eden Space");
+  }
+
+  // the pools of the old generation of the serial, parallel, CMS and G1 collectors
+  private static boolean isOldGenPool(String pool) {
+    return pool.endsWith("Old Gen") || pool.endsWith("Tenured Gen");
+  }
+
+  // Visible for testing
+  static final class GcListener implements NotificationListener {
+    @Nullable private final DoubleHistogram duration;
+    private final LongCounter reclaimed;
+    private final LongCounter promoted;
+    @Nullable private final LongCounter allocated;
+
+    // only accessed by handleCollection(), which handles the notifications one at a time
+    // gc -> cause -> attributes
+    private final Map<String, Map<String, Attributes>> collectionAttributes = new HashMap<>();
+    // gc -> pool -> attributes
+    private final Map<String, Map<String, Attributes>> poolAttributes = new HashMap<>();
+    private final Map<String, Attributes> gcAttributes = new HashMap<>();
+
+    private long youngGenUsageAfterPreviousGc;
+
+    private GcListener(Meter meter, boolean recordDuration, boolean recordAllocated) {
+      // same instrument as the one of JfrRuntimeMetrics
+      duration =
+          recordDuration
+              ? meter
+                  .histogramBuilder("process.runtime.jvm.gc.duration")
+                  .setDescription("Duration of JVM garbage collections")
+                  .setUnit("ms")
+                  .build()
+              : null;
+      reclaimed =
+          meter
+              .counterBuilder("process.runtime.jvm.gc.memory.reclaimed")
+              .setDescription("Memory freed in a memory pool by JVM garbage collections")
+              .setUnit("By")
+              .build();
+      promoted =
+          meter
+              .counterBuilder("process.runtime.jvm.gc.memory.promoted")
+              .setDescription(
+                  "Memory moved to the old generation by JVM garbage collections of the young"
+                      + " generation")
+              .setUnit("By")
+              .build();
+      // same instrument as the one of JfrRuntimeMetrics, estimated from the young generation usage
+      allocated =
+          recordAllocated
+              ? meter
+                  .counterBuilder("process.runtime.jvm.memory.allocated")
+                  .setDescription("Estimated number of bytes allocated on the heap")
+                  .setUnit("By")
+                  .build()
+              : null;
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+      try {
+        GarbageCollectionNotificationInfo notificationInfo =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        GcInfo gcInfo = notificationInfo.getGcInfo();
+        handleCollection(
+            notificationInfo.getGcName(),
+            notificationInfo.getGcAction(),
+            notificationInfo.getGcCause(),
+            gcInfo.getDuration(),
+            gcInfo.getMemoryUsageBeforeGc(),
+            gcInfo.getMemoryUsageAfterGc());
+      } catch (RuntimeException e) {
+        // don't let a failure get in the way of the other listeners
+        logger.log(FINE, "Failed to record the garbage collection notification", e);
+      }
+    }
+
+    // Visible for testing
+    synchronized void handleCollection(
+        String gc,
+        String action,
+        String cause,
+        long durationMillis,
+        Map<String, MemoryUsage> usagesBefore,
+        Map<String, MemoryUsage> usagesAfter) {
+      if (duration != null) {
+        duration.record(durationMillis, collectionAttributes(gc, cause));
+      }
+
+      long promotedBytes = 0;
+      for (Map.Entry<String, MemoryUsage> entry : usagesBefore.entrySet()) {
+        String pool = entry.getKey();
+        MemoryUsage after = usagesAfter.get(pool);
+        if (after == null) {
+          continue;
+        }
+        long before = entry.getValue().getUsed();
+        if (before > after.getUsed()) {
+          reclaimed.add(before - after.getUsed(), poolAttributes(gc, pool));
+        }
+        if (isOldGenPool(pool) && !END_OF_MAJOR_GC.equals(action)) {
+          promotedBytes += Math.max(0, after.getUsed() - before);
+        } else if (isYoungGenPool(pool)) {
+          if (allocated != null) {
+            allocated.add(Math.max(0, before - youngGenUsageAfterPreviousGc));
+          }
+          youngGenUsageAfterPreviousGc = after.getUsed();
+        }
+      }
+      if (promotedBytes > 0) {
+        promoted.add(promotedBytes, gcAttributes(gc));
+      }
+    }
+
+    private Attributes collectionAttributes(String gc, String cause) {
+      Map<String, Attributes> causeAttributes =
+          collectionAttributes.computeIfAbsent(gc, unused -> new HashMap<>());
+      Attributes attributes = causeAttributes.get(cause);
+      if (attributes == null) {
+        attributes = Attributes.of(GC_KEY, gc, CAUSE_KEY, cause);
+        causeAttributes.put(cause, attributes);
+      }
+      return attributes;
+    }
+
+    private Attributes poolAttributes(String gc, String pool) {
+      Map<String, Attributes> gcPoolAttributes =
+          poolAttributes.computeIfAbsent(gc, unused -> new HashMap<>());
+      Attributes attributes = gcPoolAttributes.get(pool);
+      if (attributes == null) {
+        attributes = Attributes.of(GC_KEY, gc, POOL_KEY, pool);
+        gcPoolAttributes.put(pool, attributes);
+      }
+      return attributes;
+    }
+
+    private Attributes gcAttributes(String gc) {
+      Attributes attributes = gcAttributes.get(gc);
+      if (attributes == null) {
+        attributes = Attributes.of(GC_KEY, gc);
+        gcAttributes.put(gc, attributes);
+      }
+      return attributes;
+    }
+  }
+
+  private GarbageCollectionNotifications() {}
+}
@@ -11,6 +11,7 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import java.lang.management.BufferPoolMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryType;
@@ -18,7 +19,7 @@ import java.lang.management.MemoryUsage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * Registers measurements that generate metrics about JVM memory pools.
@@ -36,9 +37,13 @@ import java.util.function.Function;
  *   process.runtime.jvm.memory.usage{type="heap",pool="G1 Eden Space"} 2500000
  *   process.runtime.jvm.memory.committed{type="heap",pool="G1 Eden Space"} 3000000
  *   process.runtime.jvm.memory.max{type="heap",pool="G1 Eden Space"} 4000000
+ *   process.runtime.jvm.memory.usage_after_last_gc{type="heap",pool="G1 Eden Space"} 0
  *   process.runtime.jvm.memory.init{type="non_heap",pool="Metaspace"} 200
  *   process.runtime.jvm.memory.usage{type="non_heap",pool="Metaspace"} 400
  *   process.runtime.jvm.memory.committed{type="non_heap",pool="Metaspace"} 500
+ *   process.runtime.jvm.buffer.usage{pool="direct"} 8192
+ *   process.runtime.jvm.buffer.limit{pool="direct"} 8192
+ *   process.runtime.jvm.buffer.count{pool="direct"} 1
  * </pre>
  */
 public final class MemoryPools {
@@ -62,51 +67,76 @@ public final class MemoryPools {
   /** Register observers for java runtime memory metrics. */
   public static void registerObservers(OpenTelemetry openTelemetry) {
     List<MemoryPoolMXBean> poolBeans = ManagementFactory.getMemoryPoolMXBeans();
+    List<BufferPoolMXBean> bufferPoolBeans =
+        ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
     Meter meter = openTelemetry.getMeter("io.opentelemetry.runtime-metrics");
 
+    // the usage of each pool is read once per collection and shared by all the instruments
+    MemoryPoolSnapshots snapshots = new MemoryPoolSnapshots(poolBeans);
+
     meter
         .upDownCounterBuilder("process.runtime.jvm.memory.usage")
         .setDescription("Measure of memory used")
         .setUnit("By")
-        .buildWithCallback(callback(poolBeans, MemoryUsage::getUsed));
+        .buildWithCallback(snapshots.callback(false, MemoryUsage::getUsed));
 
     meter
         .upDownCounterBuilder("process.runtime.jvm.memory.init")
         .setDescription("Measure of initial memory requested")
         .setUnit("By")
-        .buildWithCallback(callback(poolBeans, MemoryUsage::getInit));
+        .buildWithCallback(snapshots.callback(false, MemoryUsage::getInit));
 
     meter
         .upDownCounterBuilder("process.runtime.jvm.memory.committed")
         .setDescription("Measure of memory committed")
         .setUnit("By")
-        .buildWithCallback(callback(poolBeans, MemoryUsage::getCommitted));
+        .buildWithCallback(snapshots.callback(false, MemoryUsage::getCommitted));
 
     meter
         .upDownCounterBuilder("process.runtime.jvm.memory.max")
         .setDescription("Measure of max obtainable memory")
         .setUnit("By")
-        .buildWithCallback(callback(poolBeans, MemoryUsage::getMax));
+        .buildWithCallback(snapshots.callback(false, MemoryUsage::getMax));
+
+    meter
+        .upDownCounterBuilder("process.runtime.jvm.memory.usage_after_last_gc")
+        .setDescription(
+            "Measure of memory used after the most recent garbage collection event on this pool")
+        .setUnit("By")
+        .buildWithCallback(snapshots.callback(true, MemoryUsage::getUsed));
+
+    meter
+        .upDownCounterBuilder("process.runtime.jvm.buffer.usage")
+        .setDescription("Measure of memory used by buffers")
+        .setUnit("By")
+        .buildWithCallback(bufferPoolCallback(bufferPoolBeans, BufferPoolMXBean::getMemoryUsed));
+
+    meter
+        .upDownCounterBuilder("process.runtime.jvm.buffer.limit")
+        .setDescription("Measure of total memory capacity of buffers")
+        .setUnit("By")
+        .buildWithCallback(bufferPoolCallback(bufferPoolBeans, BufferPoolMXBean::getTotalCapacity));
+
+    meter
+        .upDownCounterBuilder("process.runtime.jvm.buffer.count")
+        .setDescription("Number of buffers in the pool")
+        .setUnit("{buffers}")
+        .buildWithCallback(bufferPoolCallback(bufferPoolBeans, BufferPoolMXBean::getCount));
   }
 
   // Visible for testing
-  static Consumer<ObservableLongMeasurement> callback(
-      List<MemoryPoolMXBean> poolBeans, Function<MemoryUsage, Long> extractor) {
-    List<Attributes> attributeSets = new ArrayList<>(poolBeans.size());
-    for (MemoryPoolMXBean pool : poolBeans) {
-      attributeSets.add(
-          Attributes.builder()
-              .put(POOL_KEY, pool.getName())
-              .put(TYPE_KEY, memoryType(pool.getType()))
-              .build());
+  static Consumer<ObservableLongMeasurement> bufferPoolCallback(
+      List<BufferPoolMXBean> bufferPoolBeans, ToLongFunction<BufferPoolMXBean> extractor) {
+    List<Attributes> attributeSets = new ArrayList<>(bufferPoolBeans.size());
+    for (BufferPoolMXBean pool : bufferPoolBeans) {
+      attributeSets.add(Attributes.of(POOL_KEY, pool.getName()));
     }
 
     return measurement -> {
-      for (int i = 0; i < poolBeans.size(); i++) {
-        Attributes attributes = attributeSets.get(i);
-        long value = extractor.apply(poolBeans.get(i).getUsage());
+      for (int i = 0; i < bufferPoolBeans.size(); i++) {
+        long value = extractor.applyAsLong(bufferPoolBeans.get(i));
         if (value != -1) {
-          measurement.record(value, attributes);
+          measurement.record(value, attributeSets.get(i));
         }
       }
     };
@@ -122,5 +152,74 @@ public final class MemoryPools {
     return "unknown";
   }
 
+  /**
+   * The usages of the memory pools, read once per collection. The callbacks of all the instruments
+   * are called one after the other when metrics are collected: a callback that already recorded the
+   * current snapshot is the first one of the next collection, and reads the memory pools again.
+   */
+  // Visible for testing
+  static final class MemoryPoolSnapshots {
+    private final List<MemoryPoolMXBean> poolBeans;
+    private final List<Attributes> attributeSets;
+    private final MemoryUsage[] usages;
+    // elements are null for the pools that don't support the collection usage
+    private final MemoryUsage[] usagesAfterGc;
+    private int callbacks;
+    // a bit per callback, set when the callback recorded the current snapshot
+    private long recordedCallbacks = -1;
+
+    MemoryPoolSnapshots(List<MemoryPoolMXBean> poolBeans) {
+      this.poolBeans = poolBeans;
+      attributeSets = new ArrayList<>(poolBeans.size());
+      for (MemoryPoolMXBean pool : poolBeans) {
+        attributeSets.add(
+            Attributes.builder()
+                .put(POOL_KEY, pool.getName())
+                .put(TYPE_KEY, memoryType(pool.getType()))
+                .build());
+      }
+      usages = new MemoryUsage[poolBeans.size()];
+      usagesAfterGc = new MemoryUsage[poolBeans.size()];
+    }
+
+    Consumer<ObservableLongMeasurement> callback(
+        boolean afterGc, ToLongFunction<MemoryUsage> extractor) {
+      int callback = callbacks++;
+      if (callback >= Long.SIZE) {
+        throw new IllegalStateException("Too many callbacks");
+      }
+      return measurement -> record(callback, afterGc, extractor, measurement);
+    }
+
+    private synchronized void record(
+        int callback,
+        boolean afterGc,
+        ToLongFunction<MemoryUsage> extractor,
+        ObservableLongMeasurement measurement) {
+      long callbackBit = 1L << callback;
+      if ((recordedCallbacks & callbackBit) != 0) {
+        for (int i = 0; i < poolBeans.size(); i++) {
+          MemoryPoolMXBean pool = poolBeans.get(i);
+          usages[i] = pool.getUsage();
+          usagesAfterGc[i] = pool.getCollectionUsage();
+        }
+        recordedCallbacks = 0;
+      }
+      recordedCallbacks |= callbackBit;
+
+      MemoryUsage[] snapshot = afterGc ? usagesAfterGc : usages;
+      for (int i = 0; i < snapshot.length; i++) {
+        MemoryUsage usage = snapshot[i];
+        if (usage == null) {
+          continue;
+        }
+        long value = extractor.applyAsLong(usage);
+        if (value != -1) {
+          measurement.record(value, attributeSets.get(i));
+        }
+      }
+    }
+  }
+
   private MemoryPools() {}
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
+import io.opentelemetry.instrumentation.testing.junit.LibraryInstrumentationExtension;
+import java.lang.management.MemoryUsage;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class GarbageCollectionNotificationsTest {
+
+  @RegisterExtension
+  static final InstrumentationExtension testing = LibraryInstrumentationExtension.create();
+
+  @Test
+  void handleCollection() {
+    GarbageCollectionNotifications.GcListener listener =
+        GarbageCollectionNotifications.registerObservers(
+            testing.getOpenTelemetry(), Collections.emptyList(), true, true);
+
+    Map<String, MemoryUsage> usagesBefore = new HashMap<>();
+    usagesBefore.put("G1 Eden Space", usage(300));
+    usagesBefore.put("G1 Old Gen", usage(100));
+    Map<String, MemoryUsage> usagesAfter = new HashMap<>();
+    usagesAfter.put("G1 Eden Space", usage(0));
+    usagesAfter.put("G1 Old Gen", usage(150));
+    listener.handleCollection(
+        "G1 Young Generation",
+        "end of minor GC",
+        "G1 Evacuation Pause",
+        5,
+        usagesBefore,
+        usagesAfter);
+
+    usagesBefore.put("G1 Eden Space", usage(200));
+    usagesBefore.put("G1 Old Gen", usage(150));
+    usagesAfter.put("G1 Old Gen", usage(180));
+    listener.handleCollection(
+        "G1 Young Generation",
+        "end of minor GC",
+        "G1 Evacuation Pause",
+        3,
+        usagesBefore,
+        usagesAfter);
+
+    Attributes collectionAttributes =
+        Attributes.builder()
+            .put("gc", "G1 Young Generation")
+            .put("cause", "G1 Evacuation Pause")
+            .build();
+    testing.waitAndAssertMetrics(
+        "io.opentelemetry.runtime-metrics",
+        "process.runtime.jvm.gc.duration",
+        metrics ->
+            metrics.anySatisfy(
+                metricData ->
+                    assertThat(metricData)
+                        .hasUnit("ms")
+                        .hasHistogramSatisfying(
+                            histogram ->
+                                histogram.hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasCount(2)
+                                            .hasSum(8)
+                                            .hasAttributes(collectionAttributes)))));
+    testing.waitAndAssertMetrics(
+        "io.opentelemetry.runtime-metrics",
+        "process.runtime.jvm.gc.memory.reclaimed",
+        metrics ->
+            metrics.anySatisfy(
+                metricData ->
+                    assertThat(metricData)
+                        .hasUnit("By")
+                        .hasLongSumSatisfying(
+                            sum ->
+                                sum.hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(500)
+                                            .hasAttributes(
+                                                Attributes.builder()
+                                                    .put("gc", "G1 Young Generation")
+                                                    .put("pool", "G1 Eden Space")
+                                                    .build())))));
+    testing.waitAndAssertMetrics(
+        "io.opentelemetry.runtime-metrics",
+        "process.runtime.jvm.gc.memory.promoted",
+        metrics ->
+            metrics.anySatisfy(
+                metricData ->
+                    assertThat(metricData)
+                        .hasUnit("By")
+                        .hasLongSumSatisfying(
+                            sum ->
+                                sum.hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(80)
+                                            .hasAttributes(
+                                                Attributes.builder()
+                                                    .put("gc", "G1 Young Generation")
+                                                    .build())))));
+    // the young generation usage before each collection, minus what survived the previous one
+    testing.waitAndAssertMetrics(
+        "io.opentelemetry.runtime-metrics",
+        "process.runtime.jvm.memory.allocated",
+        metrics ->
+            metrics.anySatisfy(
+                metricData ->
+                    assertThat(metricData)
+                        .hasUnit("By")
+                        .hasLongSumSatisfying(
+                            sum ->
+                                sum.hasPointsSatisfying(
+                                    point ->
+                                        point.hasValue(500).hasAttributes(Attributes.empty())))));
+  }
+
+  private static MemoryUsage usage(long used) {
+    return new MemoryUsage(0, used, 1000, 1000);
+  }
+}
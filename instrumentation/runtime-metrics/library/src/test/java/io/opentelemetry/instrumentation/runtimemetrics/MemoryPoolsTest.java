@@ -6,17 +6,21 @@
 package io.opentelemetry.instrumentation.runtimemetrics;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import java.lang.management.BufferPoolMXBean;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryType;
 import java.lang.management.MemoryUsage;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +40,9 @@ class MemoryPoolsTest {
 
   @Mock private MemoryUsage heapPoolUsage;
   @Mock private MemoryUsage nonHeapUsage;
+  @Mock private MemoryUsage heapPoolUsageAfterGc;
+
+  @Mock private BufferPoolMXBean directPoolBean;
 
   private List<MemoryPoolMXBean> beans;
 
@@ -56,7 +63,7 @@ class MemoryPoolsTest {
     when(nonHeapUsage.getUsed()).thenReturn(2L);
 
     Consumer<ObservableLongMeasurement> callback =
-        MemoryPools.callback(beans, MemoryUsage::getUsed);
+        new MemoryPools.MemoryPoolSnapshots(beans).callback(false, MemoryUsage::getUsed);
     callback.accept(measurement);
 
     verify(measurement)
@@ -71,11 +78,64 @@ class MemoryPoolsTest {
     when(heapPoolUsage.getMax()).thenReturn(1L);
     when(nonHeapUsage.getMax()).thenReturn(-1L);
 
-    Consumer<ObservableLongMeasurement> callback = MemoryPools.callback(beans, MemoryUsage::getMax);
+    Consumer<ObservableLongMeasurement> callback =
+        new MemoryPools.MemoryPoolSnapshots(beans).callback(false, MemoryUsage::getMax);
     callback.accept(measurement);
 
     verify(measurement)
         .record(1, Attributes.builder().put("pool", "heap_pool").put("type", "heap").build());
     verify(measurement, never()).record(eq(-1), any());
   }
+
+  @Test
+  void callbacks_ShareSnapshot() {
+    MemoryPools.MemoryPoolSnapshots snapshots = new MemoryPools.MemoryPoolSnapshots(beans);
+    Consumer<ObservableLongMeasurement> used = snapshots.callback(false, MemoryUsage::getUsed);
+    Consumer<ObservableLongMeasurement> committed =
+        snapshots.callback(false, MemoryUsage::getCommitted);
+
+    used.accept(measurement);
+    committed.accept(measurement);
+
+    verify(heapPoolBean, times(1)).getUsage();
+    verify(nonHeapPoolBean, times(1)).getUsage();
+
+    // next collection
+    used.accept(measurement);
+    committed.accept(measurement);
+
+    verify(heapPoolBean, times(2)).getUsage();
+    verify(nonHeapPoolBean, times(2)).getUsage();
+  }
+
+  @Test
+  void callback_AfterGc() {
+    when(heapPoolBean.getCollectionUsage()).thenReturn(heapPoolUsageAfterGc);
+    when(heapPoolUsageAfterGc.getUsed()).thenReturn(1L);
+    // the non heap pool doesn't support the collection usage
+
+    Consumer<ObservableLongMeasurement> callback =
+        new MemoryPools.MemoryPoolSnapshots(beans).callback(true, MemoryUsage::getUsed);
+    callback.accept(measurement);
+
+    verify(measurement)
+        .record(1, Attributes.builder().put("pool", "heap_pool").put("type", "heap").build());
+    verify(measurement, never())
+        .record(
+            anyLong(),
+            eq(Attributes.builder().put("pool", "non_heap_pool").put("type", "non_heap").build()));
+  }
+
+  @Test
+  void bufferPoolCallback_Records() {
+    when(directPoolBean.getName()).thenReturn("direct");
+    when(directPoolBean.getMemoryUsed()).thenReturn(8192L);
+
+    Consumer<ObservableLongMeasurement> callback =
+        MemoryPools.bufferPoolCallback(
+            Collections.singletonList(directPoolBean), BufferPoolMXBean::getMemoryUsed);
+    callback.accept(measurement);
+
+    verify(measurement).record(8192, Attributes.builder().put("pool", "direct").build());
+  }
 }
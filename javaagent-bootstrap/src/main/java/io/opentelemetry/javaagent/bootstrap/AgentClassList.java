@@ -0,0 +1,124 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.annotation.Nullable;
+
+/**
+ * The list of the classes defined by the {@link AgentClassLoader}, meant to be used together with a
+ * class data sharing archive of the agent classes.
+ *
+ * <p>When the class list file does not exist yet, the JVM is a training run: the names of the
+ * classes defined by the agent class loader are recorded in the order they were defined, and
+ * written to the file when the JVM shuts down. Otherwise, the listed classes are preloaded on a
+ * background thread while the agent starts, so that they are mapped from the archive (or parsed,
+ * when there is no archive) in parallel with the agent startup.
+ */
+final class AgentClassList {
+
+  static final String CLASS_LIST_FILE_PROPERTY = "otel.javaagent.experimental.class-list.file";
+
+  private final Path file;
+  private final List<String> preloadedClassNames;
+  @Nullable private final Queue<String> definedClassNames;
+
+  @Nullable
+  static AgentClassList create() {
+    String file = System.getProperty(CLASS_LIST_FILE_PROPERTY, "");
+    if (file.isEmpty()) {
+      return null;
+    }
+    AgentClassList classList = create(Paths.get(file));
+    if (classList.isTrainingRun()) {
+      Thread writer = new Thread(classList::write, "otel-javaagent-class-list-writer");
+      writer.setContextClassLoader(null);
+      Runtime.getRuntime().addShutdownHook(writer);
+    }
+    return classList;
+  }
+
+  // visible for testing
+  static AgentClassList create(Path file) {
+    if (!Files.exists(file)) {
+      return new AgentClassList(file, Collections.emptyList(), new ConcurrentLinkedQueue<>());
+    }
+    List<String> classNames;
+    try {
+      classNames = Files.readAllLines(file, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      System.err.println("Failed to read the agent class list from " + file + ": " + e);
+      classNames = Collections.emptyList();
+    }
+    return new AgentClassList(file, classNames, null);
+  }
+
+  private AgentClassList(
+      Path file, List<String> preloadedClassNames, @Nullable Queue<String> definedClassNames) {
+    this.file = file;
+    this.preloadedClassNames = preloadedClassNames;
+    this.definedClassNames = definedClassNames;
+  }
+
+  boolean isTrainingRun() {
+    return definedClassNames != null;
+  }
+
+  void recordDefined(String className) {
+    if (definedClassNames != null) {
+      definedClassNames.add(className);
+    }
+  }
+
+  /** Starts loading the listed classes on a background thread. */
+  void startPreloading(ClassLoader agentClassLoader) {
+    if (preloadedClassNames.isEmpty()) {
+      return;
+    }
+    Thread preloader =
+        new Thread(() -> preload(agentClassLoader), "otel-javaagent-class-preloader");
+    preloader.setDaemon(true);
+    preloader.setContextClassLoader(null);
+    preloader.start();
+  }
+
+  private void preload(ClassLoader agentClassLoader) {
+    for (String className : preloadedClassNames) {
+      try {
+        // not initialized, the agent startup decides when the classes are initialized
+        Class.forName(className, false, agentClassLoader);
+      } catch (ClassNotFoundException | LinkageError e) {
+        // e.g. the class was removed from a newer version of the agent, the class list is only a
+        // hint
+      }
+    }
+  }
+
+  // visible for testing
+  void write() {
+    if (definedClassNames == null) {
+      return;
+    }
+    try {
+      Path parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.write(file, new ArrayList<>(definedClassNames), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      System.err.println("Failed to write the agent class list to " + file + ": " + e);
+    }
+  }
+}
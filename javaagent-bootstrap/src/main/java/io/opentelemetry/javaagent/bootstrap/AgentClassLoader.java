@@ -16,6 +16,7 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
 import java.security.CodeSource;
 import java.security.Permission;
 import java.security.cert.Certificate;
@@ -43,6 +44,9 @@ public class AgentClassLoader extends URLClassLoader {
 
   private static final String AGENT_INITIALIZER_JAR =
       System.getProperty("otel.javaagent.experimental.initializer.jar", "");
+  private static final boolean MAPPED_JAR_ENABLED =
+      Boolean.parseBoolean(
+          System.getProperty("otel.javaagent.experimental.mapped-agent-jar.enabled", "false"));
 
   private static final String META_INF = "META-INF/";
   private static final String META_INF_VERSIONS = META_INF + "versions/";
@@ -65,6 +69,8 @@ public class AgentClassLoader extends URLClassLoader {
   private final String jarEntryPrefix;
   private final CodeSource codeSource;
   private final Manifest manifest;
+  @Nullable private final AgentJarIndex jarIndex;
+  @Nullable private final AgentClassList classList;
 
   /**
    * Construct a new AgentClassLoader.
@@ -73,6 +79,11 @@ public class AgentClassLoader extends URLClassLoader {
    * @param internalJarFileName File name of the internal jar
    */
   public AgentClassLoader(File javaagentFile, String internalJarFileName) {
+    this(javaagentFile, internalJarFileName, null);
+  }
+
+  AgentClassLoader(
+      File javaagentFile, String internalJarFileName, @Nullable AgentClassList classList) {
     super(new URL[] {}, getParentClassLoader());
     if (javaagentFile == null) {
       throw new IllegalArgumentException("Agent jar location should be set");
@@ -82,6 +93,7 @@ public class AgentClassLoader extends URLClassLoader {
     }
 
     bootstrapProxy = new BootstrapClassLoaderProxy(this);
+    this.classList = classList;
 
     jarEntryPrefix =
         internalJarFileName
@@ -95,6 +107,10 @@ public class AgentClassLoader extends URLClassLoader {
           new URL("x-internal-jar", null, 0, "/", new AgentClassLoaderUrlStreamHandler(jarFile));
       codeSource = new CodeSource(javaagentFile.toURI().toURL(), (Certificate[]) null);
       manifest = jarFile.getManifest();
+      jarIndex =
+          MAPPED_JAR_ENABLED
+              ? AgentJarIndex.create(javaagentFile, jarEntryPrefix, JAVA_VERSION)
+              : null;
     } catch (IOException e) {
       throw new IllegalStateException("Unable to open agent jar", e);
     }
@@ -157,7 +173,12 @@ public class AgentClassLoader extends URLClassLoader {
   }
 
   private Class<?> findAgentClass(String name) throws ClassNotFoundException {
-    JarEntry jarEntry = findJarEntry(name.replace('.', '/') + ".class");
+    String resourceName = name.replace('.', '/') + ".class";
+    if (jarIndex != null) {
+      return findIndexedAgentClass(jarIndex, name, resourceName + getClassSuffix());
+    }
+
+    JarEntry jarEntry = findJarEntry(resourceName);
     if (jarEntry != null) {
       byte[] bytes;
       try {
@@ -167,13 +188,50 @@ public class AgentClassLoader extends URLClassLoader {
       }
 
       definePackageIfNeeded(name);
-      return defineClass(name, bytes);
+      return defineAgentClass(name, bytes);
     }
 
     return null;
   }
 
+  private Class<?> findIndexedAgentClass(AgentJarIndex index, String name, String entryName)
+      throws ClassNotFoundException {
+    AgentJarIndex.Entry entry = index.find(entryName);
+    if (entry == null) {
+      return null;
+    }
+
+    ByteBuffer storedContent = index.getStoredContent(entry);
+    definePackageIfNeeded(name);
+    if (storedContent != null) {
+      // read straight from the mapped jar, nothing to inflate
+      Class<?> clazz = defineClass(name, storedContent, codeSource);
+      if (classList != null) {
+        classList.recordDefined(name);
+      }
+      return clazz;
+    }
+
+    byte[] bytes;
+    try {
+      bytes = getJarEntryBytes(jarFile.getJarEntry(index.getJarEntryName(entryName, entry)));
+    } catch (IOException exception) {
+      throw new ClassNotFoundException(name, exception);
+    }
+    return defineAgentClass(name, bytes);
+  }
+
+  private Class<?> defineAgentClass(String name, byte[] bytes) {
+    Class<?> clazz = defineClass(name, bytes);
+    if (classList != null) {
+      classList.recordDefined(name);
+    }
+    return clazz;
+  }
+
   public Class<?> defineClass(String name, byte[] bytes) {
+    // the code source is the agent jar file, which allows the JVM to archive the agent classes in a
+    // dynamic class data sharing archive
     return defineClass(name, bytes, 0, bytes.length, codeSource);
   }
 
@@ -273,21 +331,22 @@ public class AgentClassLoader extends URLClassLoader {
   }
 
   private URL findJarResource(String name) {
+    if (jarIndex != null) {
+      String entryName = name.endsWith(".class") ? name + getClassSuffix() : name;
+      AgentJarIndex.Entry entry = jarIndex.find(entryName);
+      return entry != null ? getJarEntryUrl(jarIndex.getJarEntryName(entryName, entry)) : null;
+    }
+
     JarEntry jarEntry = findJarEntry(name);
-    return getJarEntryUrl(jarEntry);
+    return jarEntry != null ? getJarEntryUrl(jarEntry.getName()) : null;
   }
 
-  private URL getJarEntryUrl(JarEntry jarEntry) {
-    if (jarEntry != null) {
-      try {
-        return new URL(jarBase, jarEntry.getName());
-      } catch (MalformedURLException e) {
-        throw new IllegalStateException(
-            "Failed to construct url for jar entry " + jarEntry.getName(), e);
-      }
+  private URL getJarEntryUrl(String jarEntryName) {
+    try {
+      return new URL(jarBase, jarEntryName);
+    } catch (MalformedURLException e) {
+      throw new IllegalStateException("Failed to construct url for jar entry " + jarEntryName, e);
     }
-
-    return null;
   }
 
   @Override
@@ -351,7 +410,7 @@ public class AgentClassLoader extends URLClassLoader {
       // find from agent jar
       if (agentClassLoader != null) {
         JarEntry jarEntry = agentClassLoader.jarFile.getJarEntry(resourceName);
-        return agentClassLoader.getJarEntryUrl(jarEntry);
+        return jarEntry != null ? agentClassLoader.getJarEntryUrl(jarEntry.getName()) : null;
       }
       return null;
     }
@@ -29,7 +29,11 @@ public final class AgentInitializer {
       return;
     }
 
-    agentClassLoader = createAgentClassLoader("inst", javaagentFile);
+    AgentClassList classList = AgentClassList.create();
+    agentClassLoader = createAgentClassLoader("inst", javaagentFile, classList);
+    if (classList != null) {
+      classList.startPreloading(agentClassLoader);
+    }
     agentStarter = createAgentStarter(agentClassLoader, inst, javaagentFile);
     if (!fromPremain || !delayAgentStart()) {
       agentStarter.start();
@@ -96,10 +100,12 @@ public final class AgentInitializer {
    *
    * @param innerJarFilename Filename of internal jar to use for the classpath of the agent
    *     classloader
+   * @param classList Records or preloads the agent classes, {@code null} if not configured
    * @return Agent Classloader
    */
-  private static ClassLoader createAgentClassLoader(String innerJarFilename, File javaagentFile) {
-    return new AgentClassLoader(javaagentFile, innerJarFilename);
+  private static ClassLoader createAgentClassLoader(
+      String innerJarFilename, File javaagentFile, @Nullable AgentClassList classList) {
+    return new AgentClassLoader(javaagentFile, innerJarFilename, classList);
   }
 
   private static AgentStarter createAgentStarter(
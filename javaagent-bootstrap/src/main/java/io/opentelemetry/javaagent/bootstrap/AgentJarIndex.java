@@ -0,0 +1,205 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * An index of the entries of the internal jar, built once from the central directory of the
+ * memory-mapped agent jar. Multi release jar entries are resolved while the index is built, so
+ * finding an entry takes a single hash lookup. Entries that are stored uncompressed are read
+ * straight from the mapped jar, without going through {@link java.util.jar.JarFile}.
+ *
+ * <p>This class is thread safe.
+ */
+final class AgentJarIndex {
+
+  private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+  private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+  private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+  private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int LOCAL_HEADER_SIZE = 30;
+  private static final int MAX_COMMENT_SIZE = 0xFFFF;
+  private static final int STORED = 0;
+
+  private static final String META_INF = "META-INF/";
+  private static final String META_INF_VERSIONS = META_INF + "versions/";
+  private static final int MIN_MULTI_RELEASE_JAR_JAVA_VERSION = 9;
+
+  private final MappedByteBuffer jar;
+  private final String jarEntryPrefix;
+  // keyed by the entry name without the internal jar prefix and the versioned directory
+  private final Map<String, Entry> entries;
+
+  private AgentJarIndex(MappedByteBuffer jar, String jarEntryPrefix, Map<String, Entry> entries) {
+    this.jar = jar;
+    this.jarEntryPrefix = jarEntryPrefix;
+    this.entries = entries;
+  }
+
+  /**
+   * Indexes the entries of the agent jar whose names start with {@code jarEntryPrefix}. Returns
+   * {@code null} if the jar can't be indexed, e.g. because it is a zip64 archive.
+   */
+  @Nullable
+  static AgentJarIndex create(File javaagentFile, String jarEntryPrefix, int javaVersion)
+      throws IOException {
+    MappedByteBuffer jar;
+    try (FileChannel channel = FileChannel.open(javaagentFile.toPath(), StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        return null;
+      }
+      // the mapping stays valid after the channel is closed
+      jar = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    ByteBuffer buffer = jar.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+    int endOfCentralDirectory = findEndOfCentralDirectory(buffer);
+    if (endOfCentralDirectory == -1) {
+      return null;
+    }
+    int entryCount = buffer.getShort(endOfCentralDirectory + 10) & 0xFFFF;
+    long centralDirectoryOffset = buffer.getInt(endOfCentralDirectory + 16) & 0xFFFFFFFFL;
+    if (entryCount == 0xFFFF || centralDirectoryOffset == 0xFFFFFFFFL) {
+      // zip64
+      return null;
+    }
+
+    Map<String, Entry> entries = new HashMap<>();
+    int position = (int) centralDirectoryOffset;
+    for (int i = 0; i < entryCount; i++) {
+      if (buffer.getInt(position) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+        return null;
+      }
+      int method = buffer.getShort(position + 10) & 0xFFFF;
+      int compressedSize = buffer.getInt(position + 20);
+      int size = buffer.getInt(position + 24);
+      int nameLength = buffer.getShort(position + 28) & 0xFFFF;
+      int extraLength = buffer.getShort(position + 30) & 0xFFFF;
+      int commentLength = buffer.getShort(position + 32) & 0xFFFF;
+      long localHeaderOffset = buffer.getInt(position + 42) & 0xFFFFFFFFL;
+      String name = readName(buffer, position + CENTRAL_DIRECTORY_HEADER_SIZE, nameLength);
+      position += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+
+      if (!name.startsWith(jarEntryPrefix) || name.endsWith("/")) {
+        continue;
+      }
+      name = name.substring(jarEntryPrefix.length());
+      int version = 0;
+      if (name.startsWith(META_INF_VERSIONS)) {
+        int versionEnd = name.indexOf('/', META_INF_VERSIONS.length());
+        if (versionEnd == -1) {
+          continue;
+        }
+        try {
+          version = Integer.parseInt(name.substring(META_INF_VERSIONS.length(), versionEnd));
+        } catch (NumberFormatException e) {
+          continue;
+        }
+        name = name.substring(versionEnd + 1);
+        // same logic as in JarFile.getVersionedEntry
+        if (version < MIN_MULTI_RELEASE_JAR_JAVA_VERSION
+            || version > javaVersion
+            || name.startsWith(META_INF)) {
+          continue;
+        }
+      }
+      Entry existing = entries.get(name);
+      if (existing == null || existing.version < version) {
+        entries.put(
+            name,
+            new Entry(version, (int) localHeaderOffset, method, compressedSize, size));
+      }
+    }
+    return new AgentJarIndex(jar, jarEntryPrefix, entries);
+  }
+
+  private static int findEndOfCentralDirectory(ByteBuffer buffer) {
+    int last = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+    int first = Math.max(0, last - MAX_COMMENT_SIZE);
+    for (int position = last; position >= first; position--) {
+      if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+        return position;
+      }
+    }
+    return -1;
+  }
+
+  private static String readName(ByteBuffer buffer, int position, int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(position + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the entry for the given name, relative to the internal jar, or {@code null} if there is
+   * no such entry.
+   */
+  @Nullable
+  Entry find(String name) {
+    return entries.get(name);
+  }
+
+  /** Returns the full name of the entry in the agent jar. */
+  String getJarEntryName(String name, Entry entry) {
+    if (entry.version == 0) {
+      return jarEntryPrefix + name;
+    }
+    return jarEntryPrefix + META_INF_VERSIONS + entry.version + "/" + name;
+  }
+
+  /**
+   * Returns the content of the entry, or {@code null} if the entry is compressed and has to be read
+   * through the {@link java.util.jar.JarFile}.
+   */
+  @Nullable
+  ByteBuffer getStoredContent(Entry entry) {
+    if (entry.method != STORED || entry.compressedSize != entry.size) {
+      return null;
+    }
+    ByteBuffer buffer = jar.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    int localHeader = entry.localHeaderOffset;
+    if (buffer.getInt(localHeader) != LOCAL_HEADER_SIGNATURE) {
+      return null;
+    }
+    // the extra field of the local header may differ from the one in the central directory
+    int nameLength = buffer.getShort(localHeader + 26) & 0xFFFF;
+    int extraLength = buffer.getShort(localHeader + 28) & 0xFFFF;
+    int start = localHeader + LOCAL_HEADER_SIZE + nameLength + extraLength;
+    buffer.limit(start + entry.size);
+    buffer.position(start);
+    return buffer.slice();
+  }
+
+  static final class Entry {
+    private final int version;
+    private final int localHeaderOffset;
+    private final int method;
+    private final int compressedSize;
+    private final int size;
+
+    private Entry(int version, int localHeaderOffset, int method, int compressedSize, int size) {
+      this.version = version;
+      this.localHeaderOffset = localHeaderOffset;
+      this.method = method;
+      this.compressedSize = compressedSize;
+      this.size = size;
+    }
+  }
+}
@@ -6,22 +6,29 @@
 package io.opentelemetry.javaagent.bootstrap;
 
 import java.lang.instrument.ClassFileTransformer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Holder for {@link ClassFileTransformer} used by the instrumentation. Calling transform on this
- * class file transformer processes given bytes the same way as they would be processed during
- * loading of the class.
+ * Holder for the {@link ClassFileTransformer}s used by the instrumentation. Calling transform on
+ * these class file transformers, in order, processes given bytes the same way as they would be
+ * processed during loading of the class.
  */
 public final class ClassFileTransformerHolder {
 
-  private static volatile ClassFileTransformer classFileTransformer;
+  private static final List<ClassFileTransformer> classFileTransformers =
+      new CopyOnWriteArrayList<>();
+  private static final List<ClassFileTransformer> unmodifiableClassFileTransformers =
+      Collections.unmodifiableList(classFileTransformers);
 
-  public static ClassFileTransformer getClassFileTransformer() {
-    return classFileTransformer;
+  /** Returns the class file transformers, in the order in which they were installed. */
+  public static List<ClassFileTransformer> getClassFileTransformers() {
+    return unmodifiableClassFileTransformers;
   }
 
-  public static void setClassFileTransformer(ClassFileTransformer transformer) {
-    classFileTransformer = transformer;
+  public static void addClassFileTransformer(ClassFileTransformer transformer) {
+    classFileTransformers.add(transformer);
   }
 
   private ClassFileTransformerHolder() {}
@@ -0,0 +1,56 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AgentClassListTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void shouldPreloadClassesDefinedInTrainingRun() throws IOException, InterruptedException {
+    Path file = directory.resolve("agent-classes.txt");
+
+    AgentClassList trainingRun = AgentClassList.create(file);
+    assertThat(trainingRun.isTrainingRun()).isTrue();
+    trainingRun.recordDefined("com.example.First");
+    trainingRun.recordDefined("com.example.Second");
+    trainingRun.write();
+
+    assertThat(Files.readAllLines(file, StandardCharsets.UTF_8))
+        .containsExactly("com.example.First", "com.example.Second");
+
+    AgentClassList nextRun = AgentClassList.create(file);
+    assertThat(nextRun.isTrainingRun()).isFalse();
+    List<String> loadedClassNames = new CopyOnWriteArrayList<>();
+    CountDownLatch preloaded = new CountDownLatch(2);
+    nextRun.startPreloading(
+        new ClassLoader(null) {
+          @Override
+          protected Class<?> loadClass(String name, boolean resolve)
+              throws ClassNotFoundException {
+            loadedClassNames.add(name);
+            preloaded.countDown();
+            throw new ClassNotFoundException(name);
+          }
+        });
+
+    assertThat(preloaded.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(loadedClassNames).containsExactly("com.example.First", "com.example.Second");
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AgentJarIndexTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void shouldIndexInternalJarEntries() throws IOException {
+    Path jar = directory.resolve("agent.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      addEntry(out, "inst/a/Stored.classdata", "stored", ZipEntry.STORED);
+      addEntry(out, "inst/a/Deflated.classdata", "deflated", ZipEntry.DEFLATED);
+      addEntry(out, "inst/a/Versioned.classdata", "base", ZipEntry.STORED);
+      addEntry(out, "inst/META-INF/versions/9/a/Versioned.classdata", "9", ZipEntry.STORED);
+      addEntry(out, "inst/META-INF/versions/17/a/Versioned.classdata", "17", ZipEntry.STORED);
+      addEntry(out, "a/Bootstrap.class", "bootstrap", ZipEntry.STORED);
+    }
+
+    AgentJarIndex index = AgentJarIndex.create(jar.toFile(), "inst/", 11);
+
+    assertThat(index).isNotNull();
+    assertThat(index.find("a/Bootstrap.class")).isNull();
+    assertThat(index.find("a/Missing.classdata")).isNull();
+
+    AgentJarIndex.Entry stored = index.find("a/Stored.classdata");
+    assertThat(stored).isNotNull();
+    assertThat(index.getJarEntryName("a/Stored.classdata", stored))
+        .isEqualTo("inst/a/Stored.classdata");
+    assertThat(content(index.getStoredContent(stored))).isEqualTo("stored");
+
+    AgentJarIndex.Entry deflated = index.find("a/Deflated.classdata");
+    assertThat(deflated).isNotNull();
+    // compressed entries are read through the JarFile
+    assertThat(index.getStoredContent(deflated)).isNull();
+
+    // the highest version that is not newer than the running java version is used
+    AgentJarIndex.Entry versioned = index.find("a/Versioned.classdata");
+    assertThat(versioned).isNotNull();
+    assertThat(index.getJarEntryName("a/Versioned.classdata", versioned))
+        .isEqualTo("inst/META-INF/versions/9/a/Versioned.classdata");
+    assertThat(content(index.getStoredContent(versioned))).isEqualTo("9");
+
+    AgentJarIndex java8Index = AgentJarIndex.create(jar.toFile(), "inst/", 8);
+    assertThat(java8Index).isNotNull();
+    assertThat(content(java8Index.getStoredContent(java8Index.find("a/Versioned.classdata"))))
+        .isEqualTo("base");
+  }
+
+  private static void addEntry(JarOutputStream out, String name, String content, int method)
+      throws IOException {
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    JarEntry entry = new JarEntry(name);
+    entry.setMethod(method);
+    if (method == ZipEntry.STORED) {
+      CRC32 crc = new CRC32();
+      crc.update(bytes);
+      entry.setCrc(crc.getValue());
+      entry.setSize(bytes.length);
+      entry.setCompressedSize(bytes.length);
+    }
+    out.putNextEntry(entry);
+    out.write(bytes);
+    out.closeEntry();
+  }
+
+  private static String content(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
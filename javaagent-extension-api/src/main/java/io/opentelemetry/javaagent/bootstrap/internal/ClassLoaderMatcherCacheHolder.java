@@ -33,6 +33,8 @@ public final class ClassLoaderMatcherCacheHolder {
   }
 
   public static void invalidateAllCachesForClassLoader(ClassLoader loader) {
+    // resources that were not found may be found now
+    ClassLoaderResourceCache.invalidate(loader);
     synchronized (allCaches) {
       for (Cache<ClassLoader, Boolean> cache : allCaches) {
         cache.remove(loader);
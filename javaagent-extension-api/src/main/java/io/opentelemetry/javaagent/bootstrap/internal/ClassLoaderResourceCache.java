@@ -0,0 +1,55 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap.internal;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The results of the resource lookups done by the agent to find out which classes a class loader
+ * can load, shared by all the {@code hasClassesNamed()} class loader matchers. Each resource is
+ * looked up at most once per class loader, no matter how many instrumentations probe it. Resources
+ * that were not found are remembered too.
+ *
+ * <p>The results for a class loader are discarded together with the class loader matcher caches,
+ * see {@link ClassLoaderMatcherCacheHolder#invalidateAllCachesForClassLoader(ClassLoader)}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class ClassLoaderResourceCache {
+
+  // only whether the resources exist is kept: the URLs, and the URL stream handlers they reference,
+  // could keep the class loader reachable from its own weakly keyed entry, e.g. OSGi bundle URLs
+  private static final Cache<ClassLoader, Map<String, Boolean>> resources = Cache.weak();
+
+  /**
+   * Returns whether {@link ClassLoader#getResource(String)} finds the resource, looking the
+   * resource up only if it wasn't looked up before.
+   */
+  public static boolean hasResource(ClassLoader classLoader, String resourceName) {
+    Map<String, Boolean> classLoaderResources =
+        resources.computeIfAbsent(classLoader, cl -> new ConcurrentHashMap<>());
+    Boolean found = classLoaderResources.get(resourceName);
+    if (found == null) {
+      boolean priorValue = InClassLoaderMatcher.getAndSet(true);
+      try {
+        found = classLoader.getResource(resourceName) != null;
+      } finally {
+        InClassLoaderMatcher.set(priorValue);
+      }
+      classLoaderResources.put(resourceName, found);
+    }
+    return found;
+  }
+
+  static void invalidate(ClassLoader classLoader) {
+    resources.remove(classLoader);
+  }
+
+  private ClassLoaderResourceCache() {}
+}
@@ -7,7 +7,7 @@ package io.opentelemetry.javaagent.extension.matcher;
 
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.internal.ClassLoaderMatcherCacheHolder;
-import io.opentelemetry.javaagent.bootstrap.internal.InClassLoaderMatcher;
+import io.opentelemetry.javaagent.bootstrap.internal.ClassLoaderResourceCache;
 import net.bytebuddy.matcher.ElementMatcher;
 
 class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.AbstractBase<ClassLoader> {
@@ -34,15 +34,11 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
   }
 
   private boolean hasResources(ClassLoader cl) {
-    boolean priorValue = InClassLoaderMatcher.getAndSet(true);
-    try {
-      for (String resource : resources) {
-        if (cl.getResource(resource) == null) {
-          return false;
-        }
+    for (String resource : resources) {
+      // many instrumentations probe the same classes, e.g. javax.servlet.Filter
+      if (!ClassLoaderResourceCache.hasResource(cl, resource)) {
+        return false;
       }
-    } finally {
-      InClassLoaderMatcher.set(priorValue);
     }
     return true;
   }
@@ -0,0 +1,44 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+class ClassLoaderResourceCacheTest {
+
+  @Test
+  void looksUpResourcesOncePerClassLoader() throws MalformedURLException {
+    URL url = new URL("file:/a/Found.class");
+    AtomicInteger lookups = new AtomicInteger();
+    ClassLoader classLoader =
+        new ClassLoader(null) {
+          @Nullable
+          @Override
+          public URL getResource(String name) {
+            lookups.incrementAndGet();
+            return name.equals("a/Found.class") ? url : null;
+          }
+        };
+
+    assertThat(ClassLoaderResourceCache.hasResource(classLoader, "a/Found.class")).isTrue();
+    assertThat(ClassLoaderResourceCache.hasResource(classLoader, "a/Found.class")).isTrue();
+    assertThat(ClassLoaderResourceCache.hasResource(classLoader, "a/Missing.class")).isFalse();
+    assertThat(ClassLoaderResourceCache.hasResource(classLoader, "a/Missing.class")).isFalse();
+    assertThat(lookups).hasValue(2);
+
+    // e.g. a URL was added to the class loader
+    ClassLoaderMatcherCacheHolder.invalidateAllCachesForClassLoader(classLoader);
+
+    assertThat(ClassLoaderResourceCache.hasResource(classLoader, "a/Missing.class")).isFalse();
+    assertThat(lookups).hasValue(3);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.extendsClass;
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.hasSuperType;
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.implementsInterface;
+import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.namedOneOf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matches the types loaded at startup against type matchers shaped like the ones of the
+ * instrumentations (mostly {@code named(...)} and {@code implementsInterface(named(...))}), with
+ * and without the {@link TypeMatchingPreFilter}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class TypeMatchingPreFilterBenchmark {
+
+  private static final Class<?>[] loadedClasses = {
+    String.class,
+    StringBuilder.class,
+    Integer.class,
+    Thread.class,
+    ThreadLocal.class,
+    ClassLoader.class,
+    java.io.FileInputStream.class,
+    java.io.BufferedReader.class,
+    java.net.URLClassLoader.class,
+    java.net.Socket.class,
+    java.nio.ByteBuffer.class,
+    java.util.ArrayList.class,
+    java.util.LinkedList.class,
+    java.util.HashMap.class,
+    java.util.TreeMap.class,
+    java.util.LinkedHashSet.class,
+    java.util.Optional.class,
+    java.util.concurrent.ConcurrentHashMap.class,
+    java.util.concurrent.ThreadPoolExecutor.class,
+    java.util.concurrent.ScheduledThreadPoolExecutor.class,
+    java.util.concurrent.ForkJoinPool.class,
+    java.util.concurrent.CompletableFuture.class,
+    java.util.concurrent.FutureTask.class,
+    java.util.concurrent.locks.ReentrantLock.class,
+    java.util.logging.Logger.class,
+    java.util.regex.Pattern.class,
+    java.time.LocalDateTime.class,
+    java.lang.reflect.Method.class,
+    java.lang.invoke.MethodHandles.class,
+    java.security.MessageDigest.class
+  };
+
+  private static final List<TypeDescription> types = new ArrayList<>();
+  private static final List<ElementMatcher<TypeDescription>> matchers = new ArrayList<>();
+  private static final List<ElementMatcher<TypeDescription>> preFilteredMatchers =
+      new ArrayList<>();
+
+  static {
+    for (Class<?> loadedClass : loadedClasses) {
+      types.add(TypeDescription.ForLoadedType.of(loadedClass));
+    }
+
+    for (int i = 0; i < 200; i++) {
+      matchers.add(named("com.example.library" + i + ".Client"));
+    }
+    for (int i = 0; i < 10; i++) {
+      matchers.add(namedOneOf("com.example.library" + i + ".A", "com.example.library" + i + ".B"));
+      matchers.add(nameStartsWith("com.example.library" + i + ".internal."));
+    }
+    for (int i = 0; i < 70; i++) {
+      matchers.add(implementsInterface(named("com.example.library" + i + ".Handler")));
+    }
+    for (int i = 0; i < 20; i++) {
+      matchers.add(extendsClass(named("com.example.library" + i + ".AbstractHandler")));
+    }
+    matchers.add(implementsInterface(named("java.util.concurrent.Executor")));
+    matchers.add(hasSuperType(named("java.lang.Runnable")));
+    matchers.add(extendsClass(named("java.lang.ClassLoader")));
+
+    TypeMatchingPreFilter preFilter = new TypeMatchingPreFilter();
+    for (ElementMatcher<TypeDescription> matcher : matchers) {
+      preFilteredMatchers.add(preFilter.gate(matcher));
+    }
+    preFilter.build();
+  }
+
+  @Benchmark
+  public int withoutPreFilter() {
+    return matchAll(matchers);
+  }
+
+  @Benchmark
+  public int withPreFilter() {
+    return matchAll(preFilteredMatchers);
+  }
+
+  private static int matchAll(List<ElementMatcher<TypeDescription>> matchers) {
+    int matches = 0;
+    for (TypeDescription type : types) {
+      for (ElementMatcher<TypeDescription> matcher : matchers) {
+        if (matcher.matches(type)) {
+          matches++;
+        }
+      }
+    }
+    return matches;
+  }
+}
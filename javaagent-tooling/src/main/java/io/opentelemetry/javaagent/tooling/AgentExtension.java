@@ -27,6 +27,18 @@ public interface AgentExtension extends Ordered {
    */
   AgentBuilder extend(AgentBuilder agentBuilder);
 
+  /**
+   * Extend the passed {@code agentBuilder} with the customizations that {@link
+   * #extend(AgentBuilder)} deferred. With staged installation, the returned agent is installed in
+   * the background once the agent customized by {@link #extend(AgentBuilder)} is installed, and
+   * retransforms the classes that were already loaded.
+   *
+   * @return The customized agent, or the passed {@code agentBuilder} if nothing was deferred.
+   */
+  default AgentBuilder extendDeferred(AgentBuilder agentBuilder) {
+    return agentBuilder;
+  }
+
   /**
    * Returns the name of the extension. It does not have to be unique, but it should be
    * human-readable: javaagent uses the extension name in its logs.
@@ -5,7 +5,6 @@
 
 package io.opentelemetry.javaagent.tooling;
 
-import static io.opentelemetry.javaagent.tooling.OpenTelemetryInstaller.installOpenTelemetrySdk;
 import static io.opentelemetry.javaagent.tooling.SafeServiceLoader.load;
 import static io.opentelemetry.javaagent.tooling.SafeServiceLoader.loadOrdered;
 import static io.opentelemetry.javaagent.tooling.Utils.getResourceName;
@@ -28,13 +27,17 @@ import io.opentelemetry.javaagent.bootstrap.DefineClassHelper;
 import io.opentelemetry.javaagent.bootstrap.InstrumentedTaskClasses;
 import io.opentelemetry.javaagent.extension.AgentListener;
 import io.opentelemetry.javaagent.extension.ignore.IgnoredTypesConfigurer;
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
 import io.opentelemetry.javaagent.tooling.asyncannotationsupport.WeakRefAsyncOperationEndStrategies;
 import io.opentelemetry.javaagent.tooling.bootstrap.BootstrapPackagesBuilderImpl;
 import io.opentelemetry.javaagent.tooling.bootstrap.BootstrapPackagesConfigurer;
+import io.opentelemetry.javaagent.tooling.cache.TransformationDecisionCache;
 import io.opentelemetry.javaagent.tooling.config.AgentConfig;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredClassLoadersMatcher;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesBuilderImpl;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesMatcher;
+import io.opentelemetry.javaagent.tooling.instrumentation.InstrumentationLoader;
+import io.opentelemetry.javaagent.tooling.instrumentation.StartupProfiler;
 import io.opentelemetry.javaagent.tooling.muzzle.AgentTooling;
 import io.opentelemetry.javaagent.tooling.util.Trie;
 import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
@@ -44,6 +47,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
@@ -70,6 +77,14 @@ public class AgentInstaller {
   private static final String FORCE_SYNCHRONOUS_AGENT_LISTENERS_CONFIG =
       "otel.javaagent.experimental.force-synchronous-agent-listeners";
 
+  public static final String STAGED_INSTALLATION_CONFIG =
+      "otel.javaagent.experimental.staged-installation.enabled";
+  public static final String DEFERRED_INSTRUMENTATIONS_CONFIG =
+      "otel.javaagent.experimental.staged-installation.deferred-instrumentations";
+
+  // the instrumentation module discovery and the SDK build of the staged installation
+  private static final int STARTUP_THREADS = 2;
+
   private static final String STRICT_CONTEXT_STRESSOR_MILLIS =
       "otel.javaagent.testing.strict-context-stressor-millis";
 
@@ -105,20 +120,50 @@ public class AgentInstaller {
     setBootstrapPackages(config);
     setDefineClassHandler();
 
-    // If noop OpenTelemetry is enabled, autoConfiguredSdk will be null and AgentListeners are not
-    // called
+    long startupStart = System.nanoTime();
+    StartupTimes startupTimes = new StartupTimes();
+    boolean stagedInstallation = config.getBoolean(STAGED_INSTALLATION_CONFIG, false);
+    FutureTask<AutoConfiguredOpenTelemetrySdk> sdkBuild = null;
     AutoConfiguredOpenTelemetrySdk autoConfiguredSdk = null;
-    if (config.getBoolean(JAVAAGENT_NOOP_CONFIG, false)) {
-      logger.info("Tracing and metrics are disabled because noop is enabled.");
-      GlobalOpenTelemetry.set(NoopOpenTelemetry.getInstance());
-    } else {
-      autoConfiguredSdk = installOpenTelemetrySdk(config);
+    if (stagedInstallation) {
+      // the instrumentation modules are discovered and the SDK is built while the ignored types are
+      // configured; the startup threads inherit the context class loader that the service loader
+      // uses from this thread
+      ExecutorService startupExecutor =
+          Executors.newFixedThreadPool(STARTUP_THREADS, AgentInstaller::newStartupThread);
+      FutureTask<List<InstrumentationModule>> moduleDiscovery =
+          new FutureTask<>(
+              () -> {
+                long start = System.nanoTime();
+                List<InstrumentationModule> modules = InstrumentationLoader.discoverModules(true);
+                startupTimes.record("module-discovery", start);
+                return modules;
+              });
+      InstrumentationLoader.setModuleDiscovery(moduleDiscovery);
+      startupExecutor.execute(moduleDiscovery);
+      if (!config.getBoolean(JAVAAGENT_NOOP_CONFIG, false)) {
+        // the SDK is installed and passed to the before agent listeners on this thread, before any
+        // extension is loaded
+        OpenTelemetryInstaller.configureContextStorage();
+        sdkBuild =
+            new FutureTask<>(
+                () -> {
+                  long start = System.nanoTime();
+                  AutoConfiguredOpenTelemetrySdk sdk =
+                      OpenTelemetryInstaller.buildOpenTelemetrySdk(config);
+                  startupTimes.record("sdk-build", start);
+                  return sdk;
+                });
+        startupExecutor.execute(sdkBuild);
+      }
+      // the threads terminate when the tasks are done
+      startupExecutor.shutdown();
     }
-
-    if (autoConfiguredSdk != null) {
-      runBeforeAgentListeners(agentListeners, config, autoConfiguredSdk);
+    if (sdkBuild == null) {
+      autoConfiguredSdk = installOpenTelemetrySdk(config, agentListeners, startupTimes, null);
     }
 
+    long start = System.nanoTime();
     AgentBuilder agentBuilder =
         new AgentBuilder.Default()
             .disableClassFormatChanges()
@@ -126,25 +171,37 @@ public class AgentInstaller {
             .with(new RedefinitionDiscoveryStrategy())
             .with(AgentBuilder.DescriptionStrategy.Default.POOL_ONLY)
             .with(AgentTooling.poolStrategy())
-            .with(new ClassLoadListener())
             .with(AgentTooling.locationStrategy());
     if (JavaModule.isSupported()) {
       agentBuilder = agentBuilder.with(new ExposeAgentBootstrapListener(inst));
     }
 
-    agentBuilder = configureIgnoredTypes(config, agentBuilder);
+    AgentBuilder.Ignored ignoredAgentBuilder = configureIgnoredTypes(config, agentBuilder);
+    startupTimes.record("ignored-types", start);
+
+    // the deferred instrumentations are installed on top of this agent builder: it only has the
+    // listeners that are notified about the classes transformed by its own transformer, the ones
+    // that are notified about every class are added to the first agent only; the decision cache is
+    // used by the first agent only too, a type that its instrumentations ignore may be transformed
+    // by the deferred ones
+    AgentBuilder baseAgentBuilder = configureDebugMode(ignoredAgentBuilder);
+    agentBuilder =
+        configureDebugMode(configureDecisionCache(config, ignoredAgentBuilder))
+            .with(new ClassLoadListener());
+    StartupProfiler startupProfiler = StartupProfiler.get();
+    if (startupProfiler != null) {
+      agentBuilder = agentBuilder.with(startupProfiler.listener());
+    }
 
-    if (AgentConfig.get().isDebugModeEnabled()) {
-      agentBuilder =
-          agentBuilder
-              .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
-              .with(new RedefinitionDiscoveryStrategy())
-              .with(new RedefinitionLoggingListener())
-              .with(new TransformLoggingListener());
+    if (sdkBuild != null) {
+      autoConfiguredSdk =
+          installOpenTelemetrySdk(config, agentListeners, startupTimes, awaitSdkBuild(sdkBuild));
     }
 
+    start = System.nanoTime();
+    List<AgentExtension> agentExtensions = loadOrdered(AgentExtension.class);
     int numberOfLoadedExtensions = 0;
-    for (AgentExtension agentExtension : loadOrdered(AgentExtension.class)) {
+    for (AgentExtension agentExtension : agentExtensions) {
       if (logger.isLoggable(FINE)) {
         logger.log(
             FINE,
@@ -166,15 +223,117 @@ public class AgentInstaller {
       }
     }
     logger.log(FINE, "Installed {0} extension(s)", numberOfLoadedExtensions);
+    startupTimes.record("extensions", start);
 
+    start = System.nanoTime();
     ResettableClassFileTransformer resettableClassFileTransformer = agentBuilder.installOn(inst);
-    ClassFileTransformerHolder.setClassFileTransformer(resettableClassFileTransformer);
+    ClassFileTransformerHolder.addClassFileTransformer(resettableClassFileTransformer);
+    startupTimes.record("install", start);
 
     if (autoConfiguredSdk != null) {
+      start = System.nanoTime();
       runAfterAgentListeners(agentListeners, config, autoConfiguredSdk);
+      startupTimes.record("after-agent-listeners", start);
+      if (config.getBoolean("otel.javaagent.supportability-metrics.enabled", true)) {
+        startupTimes.registerMetrics(
+            autoConfiguredSdk
+                .getOpenTelemetrySdk()
+                .getMeterProvider()
+                .get("io.opentelemetry.javaagent"));
+      }
+    }
+    startupTimes.record("total", startupStart);
+    if (startupProfiler != null) {
+      startupProfiler.logReport("agent installation");
+      startupProfiler.logReportAtShutdown();
+    }
+
+    if (stagedInstallation) {
+      Thread thread =
+          new Thread(
+              () ->
+                  installDeferredExtensions(inst, baseAgentBuilder, agentExtensions, startupTimes),
+              "otel-javaagent-deferred-installer");
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  @Nullable
+  private static AutoConfiguredOpenTelemetrySdk installOpenTelemetrySdk(
+      Config config,
+      Iterable<AgentListener> agentListeners,
+      StartupTimes startupTimes,
+      @Nullable AutoConfiguredOpenTelemetrySdk builtSdk) {
+    long start = System.nanoTime();
+    // If noop OpenTelemetry is enabled, autoConfiguredSdk will be null and AgentListeners are not
+    // called
+    AutoConfiguredOpenTelemetrySdk autoConfiguredSdk = null;
+    if (config.getBoolean(JAVAAGENT_NOOP_CONFIG, false)) {
+      logger.info("Tracing and metrics are disabled because noop is enabled.");
+      GlobalOpenTelemetry.set(NoopOpenTelemetry.getInstance());
+    } else if (builtSdk != null) {
+      autoConfiguredSdk = OpenTelemetryInstaller.installOpenTelemetrySdk(config, builtSdk);
+    } else {
+      autoConfiguredSdk = OpenTelemetryInstaller.installOpenTelemetrySdk(config);
+    }
+
+    if (autoConfiguredSdk != null) {
+      runBeforeAgentListeners(agentListeners, config, autoConfiguredSdk);
+    }
+    startupTimes.record("sdk", start);
+    return autoConfiguredSdk;
+  }
+
+  private static AutoConfiguredOpenTelemetrySdk awaitSdkBuild(
+      FutureTask<AutoConfiguredOpenTelemetrySdk> sdkBuild) {
+    try {
+      return sdkBuild.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while building the OpenTelemetry SDK", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
     }
   }
 
+  private static void installDeferredExtensions(
+      Instrumentation inst,
+      AgentBuilder baseAgentBuilder,
+      List<AgentExtension> agentExtensions,
+      StartupTimes startupTimes) {
+    long start = System.nanoTime();
+    AgentBuilder agentBuilder = baseAgentBuilder;
+    for (AgentExtension agentExtension : agentExtensions) {
+      try {
+        agentBuilder = agentExtension.extendDeferred(agentBuilder);
+      } catch (Exception | LinkageError e) {
+        logger.log(
+            SEVERE,
+            "Unable to load deferred part of extension "
+                + agentExtension.extensionName()
+                + " [class "
+                + agentExtension.getClass().getName()
+                + "]",
+            e);
+      }
+    }
+    if (agentBuilder == baseAgentBuilder) {
+      return;
+    }
+    // already loaded classes are retransformed, like the ones loaded before the agent started
+    ResettableClassFileTransformer deferredClassFileTransformer = agentBuilder.installOn(inst);
+    ClassFileTransformerHolder.addClassFileTransformer(deferredClassFileTransformer);
+    startupTimes.record("deferred-install", start);
+  }
+
   private static void setupUnsafe(Instrumentation inst) {
     try {
       UnsafeInitializer.initialize(inst, AgentInstaller.class.getClassLoader());
@@ -209,7 +368,8 @@ public class AgentInstaller {
     }
   }
 
-  private static AgentBuilder configureIgnoredTypes(Config config, AgentBuilder agentBuilder) {
+  private static AgentBuilder.Ignored configureIgnoredTypes(
+      Config config, AgentBuilder agentBuilder) {
     IgnoredTypesBuilderImpl builder = new IgnoredTypesBuilderImpl();
     for (IgnoredTypesConfigurer configurer : loadOrdered(IgnoredTypesConfigurer.class)) {
       configurer.configure(config, builder);
@@ -227,6 +387,39 @@ public class AgentInstaller {
             });
   }
 
+  private static AgentBuilder configureDecisionCache(
+      Config config, AgentBuilder.Ignored ignoredAgentBuilder) {
+    TransformationDecisionCache.initialize(config);
+    TransformationDecisionCache decisionCache = TransformationDecisionCache.get();
+    if (!decisionCache.isEnabled()) {
+      return ignoredAgentBuilder;
+    }
+    // the decision cache is consulted after all the other ignore matchers, so that it only records
+    // the types that went through the instrumentation type matchers
+    return ignoredAgentBuilder
+        .or(
+            (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) ->
+                decisionCache.isKnownToBeIgnored(typeDescription, classLoader))
+        .with(decisionCache.listener());
+  }
+
+  private static AgentBuilder configureDebugMode(AgentBuilder agentBuilder) {
+    if (!AgentConfig.get().isDebugModeEnabled()) {
+      return agentBuilder;
+    }
+    return agentBuilder
+        .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+        .with(new RedefinitionDiscoveryStrategy())
+        .with(new RedefinitionLoggingListener())
+        .with(new TransformLoggingListener());
+  }
+
+  private static Thread newStartupThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "otel-javaagent-startup");
+    thread.setDaemon(true);
+    return thread;
+  }
+
   private static void runAfterAgentListeners(
       Iterable<AgentListener> agentListeners,
       Config config,
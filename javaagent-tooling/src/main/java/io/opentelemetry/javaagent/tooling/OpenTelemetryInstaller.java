@@ -5,8 +5,10 @@
 
 package io.opentelemetry.javaagent.tooling;
 
+import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.instrumentation.api.appender.internal.LogEmitterProvider;
 import io.opentelemetry.instrumentation.api.config.Config;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.sdk.appender.internal.DelegatingLogEmitterProvider;
 import io.opentelemetry.javaagent.bootstrap.AgentInitializer;
 import io.opentelemetry.javaagent.bootstrap.AgentLogEmitterProvider;
@@ -27,20 +29,43 @@ public class OpenTelemetryInstaller {
    * @return the {@link AutoConfiguredOpenTelemetrySdk}
    */
   static AutoConfiguredOpenTelemetrySdk installOpenTelemetrySdk(Config config) {
-    System.setProperty("io.opentelemetry.context.contextStorageProvider", "default");
+    AutoConfiguredOpenTelemetrySdk autoConfiguredSdk =
+        newSdkBuilder(config).setResultAsGlobal(true).build();
+    return completeInstallation(config, autoConfiguredSdk);
+  }
+
+  /**
+   * Builds the {@link OpenTelemetrySdk} using autoconfigure without installing it, so that it can
+   * be built on another thread than the one that installs it with {@link
+   * #installOpenTelemetrySdk(Config, AutoConfiguredOpenTelemetrySdk)}.
+   */
+  static AutoConfiguredOpenTelemetrySdk buildOpenTelemetrySdk(Config config) {
+    return newSdkBuilder(config).setResultAsGlobal(false).build();
+  }
+
+  /** Installs the {@link OpenTelemetrySdk} built by {@link #buildOpenTelemetrySdk(Config)}. */
+  static AutoConfiguredOpenTelemetrySdk installOpenTelemetrySdk(
+      Config config, AutoConfiguredOpenTelemetrySdk autoConfiguredSdk) {
+    GlobalOpenTelemetry.set(autoConfiguredSdk.getOpenTelemetrySdk());
+    return completeInstallation(config, autoConfiguredSdk);
+  }
+
+  private static AutoConfiguredOpenTelemetrySdkBuilder newSdkBuilder(Config config) {
+    configureContextStorage();
 
     AutoConfiguredOpenTelemetrySdkBuilder builder =
-        AutoConfiguredOpenTelemetrySdk.builder()
-            .setResultAsGlobal(true)
-            .addPropertiesSupplier(config::getAllProperties);
+        AutoConfiguredOpenTelemetrySdk.builder().addPropertiesSupplier(config::getAllProperties);
 
     ClassLoader classLoader = AgentInitializer.getExtensionsClassLoader();
     if (classLoader != null) {
       // May be null in unit tests.
       builder.setServiceClassLoader(classLoader);
     }
+    return builder;
+  }
 
-    AutoConfiguredOpenTelemetrySdk autoConfiguredSdk = builder.build();
+  private static AutoConfiguredOpenTelemetrySdk completeInstallation(
+      Config config, AutoConfiguredOpenTelemetrySdk autoConfiguredSdk) {
     OpenTelemetrySdk sdk = autoConfiguredSdk.getOpenTelemetrySdk();
 
     OpenTelemetrySdkAccess.internalSetForceFlush(
@@ -57,6 +82,16 @@ public class OpenTelemetryInstaller {
         DelegatingLogEmitterProvider.from(sdkLogEmitterProvider);
     AgentLogEmitterProvider.set(logEmitterProvider);
 
+    if (config.getBoolean("otel.javaagent.supportability-metrics.enabled", true)) {
+      SupportabilityMetrics.instance()
+          .registerObservers(sdk.getMeterProvider().get("io.opentelemetry.javaagent"));
+    }
+
     return autoConfiguredSdk;
   }
+
+  /** Must be called before the {@link io.opentelemetry.context.Context} is first used. */
+  static void configureContextStorage() {
+    System.setProperty("io.opentelemetry.context.contextStorageProvider", "default");
+  }
 }
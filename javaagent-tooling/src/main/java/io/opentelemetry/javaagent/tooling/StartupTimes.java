@@ -0,0 +1,60 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static java.util.logging.Level.FINE;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The durations of the agent startup phases. They are logged when the agent debug logging is
+ * enabled, and exported as the {@code otel.javaagent.startup.duration} gauge.
+ */
+final class StartupTimes {
+  private static final Logger logger = Logger.getLogger(StartupTimes.class.getName());
+
+  private static final AttributeKey<String> PHASE = AttributeKey.stringKey("phase");
+
+  // phases may be recorded by the background installation thread
+  private final Map<String, Long> durationsMillis = new LinkedHashMap<>();
+
+  /** Records the duration of the phase that started at {@code startNanos}. */
+  void record(String phase, long startNanos) {
+    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    synchronized (durationsMillis) {
+      durationsMillis.put(phase, millis);
+    }
+    logger.log(FINE, "Agent startup phase {0} took {1} ms", new Object[] {phase, millis});
+  }
+
+  void registerMetrics(Meter meter) {
+    meter
+        .gaugeBuilder("otel.javaagent.startup.duration")
+        .setDescription("The duration of the javaagent startup phases")
+        .setUnit("ms")
+        .ofLongs()
+        .buildWithCallback(
+            measurement -> {
+              synchronized (durationsMillis) {
+                durationsMillis.forEach(
+                    (phase, millis) -> measurement.record(millis, Attributes.of(PHASE, phase)));
+              }
+            });
+  }
+
+  @Override
+  public String toString() {
+    synchronized (durationsMillis) {
+      return durationsMillis.toString();
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.cache;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import javax.annotation.Nullable;
+
+/**
+ * Computes fingerprints of the classes a class loader can load: the path, size and modification
+ * time of every jar on the class path of the class loader and its parents. Two class loaders with
+ * the same fingerprint load the same classes, so that the decisions made for one can be reused for
+ * the other, also in another JVM.
+ *
+ * <p>Only class loaders whose class path can be determined, i.e. {@link URLClassLoader}s and the
+ * application class loader, and that consists only of (possibly nested) jar files, have a
+ * fingerprint. Classes in directories can change without the directory being modified. Subclasses
+ * of {@link URLClassLoader} (e.g. Groovy class loaders, or the class loaders of proxy and generated
+ * classes) may define classes that are not on their class path, only the ones known not to do that
+ * have a fingerprint. A class loader with an empty class path has no fingerprint for the same
+ * reason.
+ */
+final class ClassLoaderFingerprints {
+
+  static final String BOOTSTRAP = "bootstrap";
+
+  static final String PLATFORM = "platform";
+
+  private static final String[] PLATFORM_CLASS_LOADERS = {
+    "jdk.internal.loader.ClassLoaders$PlatformClassLoader", "sun.misc.Launcher$ExtClassLoader"
+  };
+
+  // URLClassLoader subclasses that only load the classes of their class path
+  private static final String[] URL_CLASS_LOADERS = {
+    "java.net.URLClassLoader", "org.springframework.boot.loader.LaunchedURLClassLoader"
+  };
+
+  @Nullable
+  static String fingerprint(@Nullable ClassLoader classLoader) {
+    if (classLoader == null) {
+      return BOOTSTRAP;
+    }
+    if (isPlatformClassLoader(classLoader)) {
+      return PLATFORM;
+    }
+    StringBuilder classPath = new StringBuilder();
+    ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+    for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+      if (isPlatformClassLoader(cl)) {
+        // the platform classes are determined by the jdk version, which is part of the cache key
+        break;
+      }
+      if (cl == systemClassLoader) {
+        String javaClassPath = System.getProperty("java.class.path", "");
+        for (String path : javaClassPath.split(File.pathSeparator)) {
+          if (!path.isEmpty() && !appendJar(classPath, new File(path))) {
+            return null;
+          }
+        }
+      } else if (cl instanceof URLClassLoader && isUrlClassLoader(cl)) {
+        for (URL url : ((URLClassLoader) cl).getURLs()) {
+          if (!appendJar(classPath, url)) {
+            return null;
+          }
+        }
+      } else {
+        return null;
+      }
+    }
+    if (classPath.length() == 0) {
+      return null;
+    }
+    return hash(classPath.toString());
+  }
+
+  static String hash(String value) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+      StringBuilder hex = new StringBuilder(32);
+      // 128 bits are plenty for telling apart class paths
+      for (int i = 0; i < 16; i++) {
+        hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16))
+            .append(Character.forDigit(digest[i] & 0xF, 16));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      // every java platform implementation is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static boolean appendJar(StringBuilder classPath, URL url) {
+    String spec = url.toString();
+    if ("jar".equals(url.getProtocol())) {
+      // a jar nested in another jar, e.g. jar:file:/app.jar!/BOOT-INF/lib/library.jar!/, is
+      // identified by its url and the outermost jar file
+      int separator = spec.indexOf("!/");
+      if (separator == -1) {
+        return false;
+      }
+      classPath.append(spec).append('\n');
+      spec = spec.substring("jar:".length(), separator);
+    }
+    if (!spec.startsWith("file:")) {
+      return false;
+    }
+    try {
+      return appendJar(classPath, new File(new URL(spec).toURI()));
+    } catch (MalformedURLException | URISyntaxException | IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  static boolean appendJar(StringBuilder classPath, File file) {
+    if (!file.isFile()) {
+      return false;
+    }
+    classPath
+        .append(file.getAbsolutePath())
+        .append(':')
+        .append(file.length())
+        .append(':')
+        .append(file.lastModified())
+        .append('\n');
+    return true;
+  }
+
+  private static boolean isPlatformClassLoader(ClassLoader classLoader) {
+    return isOneOf(classLoader, PLATFORM_CLASS_LOADERS);
+  }
+
+  private static boolean isUrlClassLoader(ClassLoader classLoader) {
+    return isOneOf(classLoader, URL_CLASS_LOADERS);
+  }
+
+  private static boolean isOneOf(ClassLoader classLoader, String[] classNames) {
+    String name = classLoader.getClass().getName();
+    for (String className : classNames) {
+      if (className.equals(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private ClassLoaderFingerprints() {}
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.cache;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.instrumentation.api.config.Config;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.javaagent.OpenTelemetryAgent;
+import io.opentelemetry.javaagent.tooling.AgentVersion;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Remembers the transformation decisions of this JVM in a file, so that they can be reused by the
+ * next JVM that runs the same application with the same agent: the classes that were not
+ * transformed by any instrumentation are ignored without running the type matchers, and the muzzle
+ * checks are not repeated.
+ *
+ * <p>Decisions are stored per {@linkplain ClassLoaderFingerprints class loader fingerprint}, the
+ * whole file is discarded when the agent, the JVM or the configuration changes. The file is written
+ * when the JVM shuts down.
+ */
+public final class TransformationDecisionCache {
+  private static final Logger logger =
+      Logger.getLogger(TransformationDecisionCache.class.getName());
+
+  static final String DIRECTORY_CONFIG = "otel.javaagent.experimental.decision-cache.directory";
+  static final String FILE_NAME = "transformation-decisions.txt";
+
+  private static final String NOT_CACHEABLE = "";
+
+  private static volatile TransformationDecisionCache instance =
+      new TransformationDecisionCache(null, "");
+
+  /**
+   * Loads the decisions of the previous run from the directory configured by {@code
+   * otel.javaagent.experimental.decision-cache.directory}, if it is set.
+   */
+  public static void initialize(Config config) {
+    String directory = config.getString(DIRECTORY_CONFIG);
+    if (directory == null || directory.isEmpty()) {
+      return;
+    }
+    TransformationDecisionCache cache =
+        new TransformationDecisionCache(Paths.get(directory, FILE_NAME), runFingerprint(config));
+    cache.load();
+    Thread saver = new Thread(cache::save, "otel-decision-cache-writer");
+    saver.setContextClassLoader(null);
+    Runtime.getRuntime().addShutdownHook(saver);
+    instance = cache;
+  }
+
+  public static TransformationDecisionCache get() {
+    return instance;
+  }
+
+  @Nullable private final Path file;
+  private final String runFingerprint;
+
+  // decisions of the previous run, by class loader fingerprint; not modified after loading
+  private final Map<String, Set<String>> previousIgnoredTypes = new HashMap<>();
+  private final Map<String, Map<String, Boolean>> previousMuzzleResults = new HashMap<>();
+
+  // decisions of this run, by class loader fingerprint
+  private final Map<String, Set<String>> ignoredTypes = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, Boolean>> muzzleResults = new ConcurrentHashMap<>();
+
+  private final Cache<ClassLoader, String> classLoaderFingerprints = Cache.weak();
+  private final ThreadLocal<PendingDecision> pendingDecision =
+      ThreadLocal.withInitial(PendingDecision::new);
+
+  // visible for testing
+  TransformationDecisionCache(@Nullable Path file, String runFingerprint) {
+    this.file = file;
+    this.runFingerprint = runFingerprint;
+  }
+
+  public boolean isEnabled() {
+    return file != null;
+  }
+
+  /**
+   * Returns {@code true} if the type was not transformed by any instrumentation in the previous
+   * run. Otherwise, the decision made for the type in this run will be recorded by the {@link
+   * #listener()}.
+   */
+  public boolean isKnownToBeIgnored(TypeDescription type, @Nullable ClassLoader classLoader) {
+    if (file == null) {
+      return false;
+    }
+    PendingDecision pending = pendingDecision.get();
+    pending.clear();
+    String fingerprint = fingerprint(classLoader);
+    if (fingerprint == null) {
+      return false;
+    }
+    String typeName = type.getName();
+    Set<String> previous = previousIgnoredTypes.get(fingerprint);
+    if (previous != null && previous.contains(typeName)) {
+      // keep the decision for the next run
+      recordIgnored(fingerprint, typeName);
+      return true;
+    }
+    pending.typeName = typeName;
+    pending.fingerprint = fingerprint;
+    return false;
+  }
+
+  /** Returns a listener that records which types were not transformed. */
+  public AgentBuilder.Listener listener() {
+    return new DecisionListener();
+  }
+
+  /**
+   * Returns the result of the muzzle check of the instrumentation module in the previous run, or
+   * {@code null} if it is not known.
+   */
+  @Nullable
+  public Boolean getMuzzleResult(String instrumentationModule, ClassLoader classLoader) {
+    if (file == null) {
+      return null;
+    }
+    String fingerprint = fingerprint(classLoader);
+    if (fingerprint == null) {
+      return null;
+    }
+    Map<String, Boolean> previous = previousMuzzleResults.get(fingerprint);
+    Boolean result = previous == null ? null : previous.get(instrumentationModule);
+    if (result != null) {
+      recordMuzzleResult(fingerprint, instrumentationModule, result);
+    }
+    return result;
+  }
+
+  public void recordMuzzleResult(
+      String instrumentationModule, ClassLoader classLoader, boolean result) {
+    if (file == null) {
+      return;
+    }
+    String fingerprint = fingerprint(classLoader);
+    if (fingerprint != null) {
+      recordMuzzleResult(fingerprint, instrumentationModule, result);
+    }
+  }
+
+  private void recordIgnored(String fingerprint, String typeName) {
+    ignoredTypes
+        .computeIfAbsent(fingerprint, k -> Collections.newSetFromMap(new ConcurrentHashMap<>()))
+        .add(typeName);
+  }
+
+  private void recordMuzzleResult(
+      String fingerprint, String instrumentationModule, boolean result) {
+    muzzleResults
+        .computeIfAbsent(fingerprint, k -> new ConcurrentHashMap<>())
+        .put(instrumentationModule, result);
+  }
+
+  @Nullable
+  private String fingerprint(@Nullable ClassLoader classLoader) {
+    if (classLoader == null) {
+      return ClassLoaderFingerprints.BOOTSTRAP;
+    }
+    String fingerprint =
+        classLoaderFingerprints.computeIfAbsent(
+            classLoader,
+            cl -> {
+              String result = ClassLoaderFingerprints.fingerprint(cl);
+              return result == null ? NOT_CACHEABLE : result;
+            });
+    return fingerprint.equals(NOT_CACHEABLE) ? null : fingerprint;
+  }
+
+  // visible for testing
+  void load() {
+    if (file == null) {
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      if (!runFingerprint.equals(reader.readLine())) {
+        logger.log(FINE, "Discarding the transformation decisions of a different agent setup");
+        return;
+      }
+      String fingerprint = null;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.length() < 2) {
+          continue;
+        }
+        String value = line.substring(2);
+        switch (line.charAt(0)) {
+          case 'L':
+            fingerprint = value;
+            break;
+          case 'I':
+            if (fingerprint != null) {
+              previousIgnoredTypes.computeIfAbsent(fingerprint, k -> new HashSet<>()).add(value);
+            }
+            break;
+          case 'M':
+            int separator = value.lastIndexOf(' ');
+            if (fingerprint != null && separator != -1) {
+              previousMuzzleResults
+                  .computeIfAbsent(fingerprint, k -> new HashMap<>())
+                  .put(
+                      value.substring(0, separator),
+                      Boolean.parseBoolean(value.substring(separator + 1)));
+            }
+            break;
+          default:
+            break;
+        }
+      }
+    } catch (NoSuchFileException e) {
+      // first run
+    } catch (IOException e) {
+      logger.log(WARNING, "Failed to read the transformation decisions from " + file, e);
+      previousIgnoredTypes.clear();
+      previousMuzzleResults.clear();
+    }
+  }
+
+  // visible for testing
+  void save() {
+    if (file == null) {
+      return;
+    }
+    Map<String, Set<String>> ignored = new TreeMap<>(ignoredTypes);
+    Map<String, Map<String, Boolean>> muzzle = new TreeMap<>(muzzleResults);
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      Path tempFile = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        writer.write(runFingerprint);
+        writer.newLine();
+        Set<String> fingerprints = new TreeSet<>(ignored.keySet());
+        fingerprints.addAll(muzzle.keySet());
+        for (String fingerprint : fingerprints) {
+          writer.write("L " + fingerprint);
+          writer.newLine();
+          for (Map.Entry<String, Boolean> entry :
+              muzzle.getOrDefault(fingerprint, Collections.emptyMap()).entrySet()) {
+            writer.write("M " + entry.getKey() + " " + entry.getValue());
+            writer.newLine();
+          }
+          for (String typeName : ignored.getOrDefault(fingerprint, Collections.emptySet())) {
+            writer.write("I " + typeName);
+            writer.newLine();
+          }
+        }
+      }
+      // readers never see a partially written file
+      Files.move(
+          tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      logger.log(WARNING, "Failed to write the transformation decisions to " + file, e);
+    }
+  }
+
+  private static String runFingerprint(Config config) {
+    StringBuilder fingerprint = new StringBuilder();
+    fingerprint
+        .append(AgentVersion.VERSION)
+        .append('\n')
+        .append(System.getProperty("java.vm.name"))
+        .append(' ')
+        .append(System.getProperty("java.vm.version"))
+        .append('\n')
+        .append(System.getProperty("java.home"))
+        .append('\n');
+    // snapshot builds of the agent share the same version
+    try {
+      CodeSource codeSource = OpenTelemetryAgent.class.getProtectionDomain().getCodeSource();
+      if (codeSource != null && codeSource.getLocation() != null) {
+        ClassLoaderFingerprints.appendJar(fingerprint, new File(codeSource.getLocation().toURI()));
+      }
+    } catch (URISyntaxException | RuntimeException e) {
+      // the agent version has to do
+    }
+    // the configuration decides which instrumentations are enabled
+    new TreeMap<>(config.getAllProperties())
+        .forEach((key, value) -> fingerprint.append(key).append('=').append(value).append('\n'));
+    return ClassLoaderFingerprints.hash(fingerprint.toString());
+  }
+
+  private static final class PendingDecision {
+    @Nullable String typeName;
+    @Nullable String fingerprint;
+
+    void clear() {
+      typeName = null;
+      fingerprint = null;
+    }
+  }
+
+  private class DecisionListener extends AgentBuilder.Listener.Adapter {
+
+    @Override
+    public void onIgnored(
+        TypeDescription typeDescription,
+        ClassLoader classLoader,
+        JavaModule module,
+        boolean loaded) {
+      PendingDecision pending = pendingDecision.get();
+      // types ignored by the ignore matchers never have a pending decision
+      if (pending.fingerprint != null && typeDescription.getName().equals(pending.typeName)) {
+        recordIgnored(pending.fingerprint, pending.typeName);
+      }
+      pending.clear();
+    }
+
+    @Override
+    public void onComplete(
+        String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+      pendingDecision.get().clear();
+    }
+  }
+}
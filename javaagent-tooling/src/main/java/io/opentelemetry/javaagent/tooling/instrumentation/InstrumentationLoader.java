@@ -6,27 +6,165 @@
 package io.opentelemetry.javaagent.tooling.instrumentation;
 
 import static io.opentelemetry.javaagent.tooling.SafeServiceLoader.loadOrdered;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.SEVERE;
+import static java.util.logging.Level.WARNING;
 
 import com.google.auto.service.AutoService;
+import io.opentelemetry.instrumentation.api.config.Config;
 import io.opentelemetry.javaagent.bootstrap.InstrumentationHolder;
 import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
 import io.opentelemetry.javaagent.tooling.AgentExtension;
+import io.opentelemetry.javaagent.tooling.AgentInstaller;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 
 @AutoService(AgentExtension.class)
 public class InstrumentationLoader implements AgentExtension {
   private static final Logger logger = Logger.getLogger(InstrumentationLoader.class.getName());
 
+  // instrumentations that are installed first by the staged installation, in this order, so that
+  // the context is propagated across threads and the server and client spans are created from the
+  // start; they can't be deferred
+  private static final List<String> PRIORITY_INSTRUMENTATIONS =
+      Arrays.asList(
+          "executor",
+          "servlet",
+          "apache-httpasyncclient",
+          "apache-httpclient",
+          "async-http-client",
+          "google-http-client",
+          "http-url-connection",
+          "java-http-client",
+          "jetty-httpclient",
+          "netty",
+          "okhttp",
+          "reactor-netty",
+          "vertx-http-client");
+
+  // the modules discovered in the background by the staged installation
+  @Nullable private static volatile Future<List<InstrumentationModule>> moduleDiscovery;
+
   private final InstrumentationModuleInstaller instrumentationModuleInstaller =
       new InstrumentationModuleInstaller(InstrumentationHolder.getInstrumentation());
+  private final List<InstrumentationModule> deferredModules = new ArrayList<>();
+
+  /**
+   * Sets the background discovery of the instrumentation modules (see {@link
+   * #discoverModules(boolean)}), that {@link #extend(AgentBuilder)} waits for instead of loading
+   * the modules itself.
+   */
+  public static void setModuleDiscovery(Future<List<InstrumentationModule>> discovery) {
+    moduleDiscovery = discovery;
+  }
+
+  /**
+   * Loads the instrumentation modules, ordered by {@link InstrumentationModule#order()}. If {@code
+   * prioritized}, the priority instrumentations come first among the modules with the same order.
+   */
+  public static List<InstrumentationModule> discoverModules(boolean prioritized) {
+    List<InstrumentationModule> instrumentationModules = loadOrdered(InstrumentationModule.class);
+    if (prioritized) {
+      // the sort is stable, the other modules keep their order
+      instrumentationModules.sort(
+          Comparator.comparingInt(InstrumentationModule::order)
+              .thenComparingInt(InstrumentationLoader::priority));
+    }
+    return instrumentationModules;
+  }
 
   @Override
   public AgentBuilder extend(AgentBuilder agentBuilder) {
+    Config config = Config.get();
+    boolean stagedInstallation =
+        config.getBoolean(AgentInstaller.STAGED_INSTALLATION_CONFIG, false);
+    Set<String> deferredInstrumentations =
+        stagedInstallation
+            ? new HashSet<>(
+                config.getList(AgentInstaller.DEFERRED_INSTRUMENTATIONS_CONFIG, emptyList()))
+            : emptySet();
+
+    List<InstrumentationModule> instrumentationModules = new ArrayList<>();
+    for (InstrumentationModule instrumentationModule : awaitModules(stagedInstallation)) {
+      if (isDeferred(instrumentationModule, deferredInstrumentations)) {
+        deferredModules.add(instrumentationModule);
+      } else {
+        instrumentationModules.add(instrumentationModule);
+      }
+    }
+    agentBuilder = install(instrumentationModules, agentBuilder);
+    return agentBuilder;
+  }
+
+  @Override
+  public AgentBuilder extendDeferred(AgentBuilder agentBuilder) {
+    if (deferredModules.isEmpty()) {
+      return agentBuilder;
+    }
+    return install(deferredModules, agentBuilder);
+  }
+
+  private static List<InstrumentationModule> awaitModules(boolean prioritized) {
+    Future<List<InstrumentationModule>> discovery = moduleDiscovery;
+    if (discovery != null) {
+      moduleDiscovery = null;
+      try {
+        return discovery.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.log(WARNING, "Interrupted while discovering the instrumentation modules", e);
+      } catch (ExecutionException e) {
+        logger.log(WARNING, "Failed to discover the instrumentation modules", e.getCause());
+      }
+    }
+    return discoverModules(prioritized);
+  }
+
+  private static int priority(InstrumentationModule instrumentationModule) {
+    int priority = PRIORITY_INSTRUMENTATIONS.size();
+    for (String name : instrumentationModule.instrumentationNames()) {
+      int index = PRIORITY_INSTRUMENTATIONS.indexOf(name);
+      if (index != -1 && index < priority) {
+        priority = index;
+      }
+    }
+    return priority;
+  }
+
+  private static boolean isDeferred(
+      InstrumentationModule instrumentationModule, Set<String> deferredInstrumentations) {
+    if (deferredInstrumentations.isEmpty()) {
+      return false;
+    }
+    boolean listed = false;
+    for (String name : instrumentationModule.instrumentationNames()) {
+      listed |= deferredInstrumentations.contains(name);
+    }
+    if (listed && priority(instrumentationModule) < PRIORITY_INSTRUMENTATIONS.size()) {
+      logger.log(
+          WARNING,
+          "Instrumentation {0} can't be deferred, installing it with the agent",
+          instrumentationModule.instrumentationName());
+      return false;
+    }
+    return listed;
+  }
+
+  private AgentBuilder install(
+      List<InstrumentationModule> instrumentationModules, AgentBuilder agentBuilder) {
     int numberOfLoadedModules = 0;
-    for (InstrumentationModule instrumentationModule : loadOrdered(InstrumentationModule.class)) {
+    for (InstrumentationModule instrumentationModule : instrumentationModules) {
       if (logger.isLoggable(FINE)) {
         logger.log(
             FINE,
@@ -50,6 +188,7 @@ public class InstrumentationLoader implements AgentExtension {
             e);
       }
     }
+    instrumentationModuleInstaller.completeInstallation();
     logger.log(FINE, "Installed {0} instrumenter(s)", numberOfLoadedModules);
 
     return agentBuilder;
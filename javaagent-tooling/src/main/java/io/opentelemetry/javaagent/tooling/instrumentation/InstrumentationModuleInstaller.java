@@ -12,6 +12,7 @@ import static net.bytebuddy.matcher.ElementMatchers.isAnnotatedWith;
 import static net.bytebuddy.matcher.ElementMatchers.named;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 
+import io.opentelemetry.instrumentation.api.config.Config;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
 import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
@@ -19,6 +20,7 @@ import io.opentelemetry.javaagent.tooling.HelperInjector;
 import io.opentelemetry.javaagent.tooling.TransformSafeLogger;
 import io.opentelemetry.javaagent.tooling.Utils;
 import io.opentelemetry.javaagent.tooling.bytebuddy.LoggingFailSafeMatcher;
+import io.opentelemetry.javaagent.tooling.cache.TransformationDecisionCache;
 import io.opentelemetry.javaagent.tooling.config.AgentConfig;
 import io.opentelemetry.javaagent.tooling.field.VirtualFieldImplementationInstaller;
 import io.opentelemetry.javaagent.tooling.field.VirtualFieldImplementationInstallerFactory;
@@ -33,6 +35,7 @@ import java.security.ProtectionDomain;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.annotation.AnnotationSource;
 import net.bytebuddy.description.type.TypeDescription;
@@ -49,12 +52,31 @@ public final class InstrumentationModuleInstaller {
   public static final ElementMatcher.Junction<AnnotationSource> NOT_DECORATOR_MATCHER =
       not(isAnnotatedWith(named("javax.decorator.Decorator")));
 
+  private static final String PRE_FILTER_ENABLED_CONFIG =
+      "otel.javaagent.experimental.type-matching-pre-filter.enabled";
+
   private final Instrumentation instrumentation;
   private final VirtualFieldImplementationInstallerFactory virtualFieldInstallerFactory =
       new VirtualFieldImplementationInstallerFactory();
+  @Nullable private final TypeMatchingPreFilter preFilter;
+  @Nullable private final StartupProfiler startupProfiler = StartupProfiler.get();
 
   public InstrumentationModuleInstaller(Instrumentation instrumentation) {
     this.instrumentation = instrumentation;
+    preFilter =
+        Config.get().getBoolean(PRE_FILTER_ENABLED_CONFIG, true)
+            ? new TypeMatchingPreFilter()
+            : null;
+  }
+
+  /**
+   * Builds the pre-filter of the type matchers of the installed instrumentations. Must be called
+   * after the instrumentation modules were installed.
+   */
+  void completeInstallation() {
+    if (preFilter != null) {
+      preFilter.build();
+    }
   }
 
   AgentBuilder install(
@@ -82,9 +104,13 @@ public final class InstrumentationModuleInstaller {
       return parentAgentBuilder;
     }
 
+    StartupProfiler.ModuleProfile profile =
+        startupProfiler != null ? startupProfiler.createModuleProfile(instrumentationModule) : null;
+
     ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher =
         instrumentationModule.classLoaderMatcher();
-    MuzzleMatcher muzzleMatcher = new MuzzleMatcher(instrumentationModule);
+    AgentBuilder.RawMatcher muzzleMatcher = new MuzzleMatcher(instrumentationModule);
+    AgentBuilder.Transformer constantAdjuster = ConstantAdjuster.instance();
     AgentBuilder.Transformer helperInjector =
         new HelperInjector(
             instrumentationModule.instrumentationName(),
@@ -92,23 +118,37 @@ public final class InstrumentationModuleInstaller {
             helperResourceBuilder.getResources(),
             Utils.getExtensionsClassLoader(),
             instrumentation);
+    if (profile != null) {
+      muzzleMatcher = profile.muzzleMatcher(muzzleMatcher);
+      constantAdjuster = profile.firstTransformer(constantAdjuster);
+      helperInjector = profile.helperInjector(helperInjector);
+    }
     VirtualFieldImplementationInstaller contextProvider =
         virtualFieldInstallerFactory.create(instrumentationModule);
 
     AgentBuilder agentBuilder = parentAgentBuilder;
     for (TypeInstrumentation typeInstrumentation : typeInstrumentations) {
+      ElementMatcher<TypeDescription> instrumentationTypeMatcher =
+          typeInstrumentation.typeMatcher();
+      if (preFilter != null) {
+        instrumentationTypeMatcher = preFilter.gate(instrumentationTypeMatcher);
+      }
       ElementMatcher<TypeDescription> typeMatcher =
           new NamedMatcher<>(
               instrumentationModule.getClass().getSimpleName()
                   + "#"
                   + typeInstrumentation.getClass().getSimpleName(),
-              new IgnoreFailedTypeMatcher(typeInstrumentation.typeMatcher()));
+              new IgnoreFailedTypeMatcher(instrumentationTypeMatcher));
       ElementMatcher<ClassLoader> classLoaderMatcher =
           new NamedMatcher<>(
               instrumentationModule.getClass().getSimpleName()
                   + "#"
                   + typeInstrumentation.getClass().getSimpleName(),
               moduleClassLoaderMatcher.and(typeInstrumentation.classLoaderOptimization()));
+      if (profile != null) {
+        typeMatcher = profile.typeMatcher(typeMatcher);
+        classLoaderMatcher = profile.classLoaderMatcher(classLoaderMatcher);
+      }
 
       AgentBuilder.Identified.Extendable extendableAgentBuilder =
           agentBuilder
@@ -122,7 +162,7 @@ public final class InstrumentationModuleInstaller {
                           + classLoaderMatcher))
               .and(NOT_DECORATOR_MATCHER)
               .and(muzzleMatcher)
-              .transform(ConstantAdjuster.instance())
+              .transform(constantAdjuster)
               .transform(helperInjector);
       extendableAgentBuilder = contextProvider.rewriteVirtualFieldsCalls(extendableAgentBuilder);
       TypeTransformerImpl typeTransformer = new TypeTransformerImpl(extendableAgentBuilder);
@@ -165,8 +205,28 @@ public final class InstrumentationModuleInstaller {
     }
 
     private boolean doesMatch(ClassLoader classLoader) {
+      TransformationDecisionCache decisionCache = TransformationDecisionCache.get();
+      String moduleName = instrumentationModule.getClass().getName();
+      Boolean previousResult = decisionCache.getMuzzleResult(moduleName, classLoader);
+      if (previousResult != null) {
+        if (!previousResult) {
+          MuzzleFailureCounter.inc();
+          muzzleLogger.log(
+              WARNING,
+              "Instrumentation skipped, mismatched references were found in a previous run: {0}"
+                  + " [class {1}] on {2}",
+              new Object[] {
+                instrumentationModule.instrumentationName(),
+                instrumentationModule.getClass().getName(),
+                classLoader
+              });
+        }
+        return previousResult;
+      }
+
       ReferenceMatcher muzzle = getReferenceMatcher();
       boolean isMatch = muzzle.matches(classLoader);
+      decisionCache.recordMuzzleResult(moduleName, classLoader, isMatch);
 
       if (!isMatch) {
         MuzzleFailureCounter.inc();
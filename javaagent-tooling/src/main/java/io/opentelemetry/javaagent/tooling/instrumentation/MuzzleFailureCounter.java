@@ -5,10 +5,15 @@
 
 package io.opentelemetry.javaagent.tooling.instrumentation;
 
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.MUZZLE_FAILURE;
+
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public final class MuzzleFailureCounter {
   private static final AtomicInteger counter = new AtomicInteger();
+  private static final SupportabilityMetrics.Counter supportabilityCounter =
+      SupportabilityMetrics.instance().counter(MUZZLE_FAILURE);
 
   private MuzzleFailureCounter() {}
 
@@ -18,5 +23,6 @@ public final class MuzzleFailureCounter {
 
   public static void inc() {
     counter.incrementAndGet();
+    supportabilityCounter.increment();
   }
 }
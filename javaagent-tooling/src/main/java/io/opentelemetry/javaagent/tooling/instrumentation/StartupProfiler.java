@@ -0,0 +1,301 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.logging.Level.INFO;
+
+import io.opentelemetry.instrumentation.api.config.Config;
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Measures the time that the agent spends on each {@link InstrumentationModule} while it matches
+ * and transforms classes, so that the modules that cost the most startup time can be found (and
+ * disabled). The report is logged when the agent installation completes and again when the JVM
+ * shuts down, so that it also covers the classes that were loaded while the application started.
+ *
+ * <p>The time spent generating the bytecode of a transformed class (applying the advices, rewriting
+ * the virtual field calls and injecting the virtual fields) can't be attributed to the individual
+ * transformers, it is split evenly between the modules that transformed the class.
+ *
+ * <p>Only the type matcher calls that return {@code true} are counted as type matches.
+ */
+public final class StartupProfiler {
+  private static final Logger logger = Logger.getLogger(StartupProfiler.class.getName());
+
+  @Nullable
+  private static final StartupProfiler instance =
+      Config.get().getBoolean("otel.javaagent.experimental.startup-profiler.enabled", false)
+          ? new StartupProfiler()
+          : null;
+
+  enum Phase {
+    TYPE_MATCHING("type matching"),
+    CLASS_LOADER_MATCHING("class loader"),
+    MUZZLE("muzzle"),
+    HELPER_INJECTION("helpers"),
+    ADVICE("advice");
+
+    private final String columnName;
+
+    Phase(String columnName) {
+      this.columnName = columnName;
+    }
+  }
+
+  private final Queue<ModuleProfile> modules = new ConcurrentLinkedQueue<>();
+  private final LongAdder classesExamined = new LongAdder();
+  private final LongAdder classesTransformed = new LongAdder();
+  private final ThreadLocal<Transformation> currentTransformation =
+      ThreadLocal.withInitial(Transformation::new);
+
+  /** Returns the startup profiler, or {@code null} if it is not enabled. */
+  @Nullable
+  public static StartupProfiler get() {
+    return instance;
+  }
+
+  // visible for testing
+  StartupProfiler() {}
+
+  ModuleProfile createModuleProfile(InstrumentationModule instrumentationModule) {
+    ModuleProfile profile = new ModuleProfile(instrumentationModule);
+    modules.add(profile);
+    return profile;
+  }
+
+  /** Returns the listener that measures the transformation of each class. */
+  public AgentBuilder.Listener listener() {
+    return new TransformationListener();
+  }
+
+  public void logReport(String when) {
+    if (logger.isLoggable(INFO)) {
+      logger.log(INFO, report(when));
+    }
+  }
+
+  /** Logs the report when the JVM shuts down. */
+  public void logReportAtShutdown() {
+    Thread thread = new Thread(() -> logReport("shutdown"), "otel-javaagent-startup-profiler");
+    Runtime.getRuntime().addShutdownHook(thread);
+  }
+
+  // visible for testing
+  String report(String when) {
+    List<ModuleProfile> profiles = new ArrayList<>(modules);
+    profiles.sort(Comparator.comparingLong(ModuleProfile::totalNanos).reversed());
+
+    StringBuilder report = new StringBuilder();
+    report
+        .append("Instrumentation startup profile at ")
+        .append(when)
+        .append(": ")
+        .append(classesExamined.sum())
+        .append(" classes examined, ")
+        .append(classesTransformed.sum())
+        .append(" transformed, times in ms")
+        .append(System.lineSeparator());
+    report.append(String.format("%-40s", "instrumentation"));
+    for (Phase phase : Phase.values()) {
+      report.append(String.format(" %14s", phase.columnName));
+    }
+    report.append(String.format(" %10s %12s %11s%n", "total", "type matches", "transformed"));
+    for (ModuleProfile profile : profiles) {
+      report.append(String.format("%-40s", profile.instrumentationName));
+      for (Phase phase : Phase.values()) {
+        report.append(String.format(" %14.1f", millis(profile.phaseNanos[phase.ordinal()].sum())));
+      }
+      report.append(
+          String.format(
+              " %10.1f %12d %11d%n",
+              millis(profile.totalNanos()),
+              profile.typeMatches.sum(),
+              profile.classesTransformed.sum()));
+    }
+    return report.toString();
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /** The measurements of a single instrumentation module. */
+  final class ModuleProfile {
+    private final String instrumentationName;
+    private final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+    private final LongAdder typeMatches = new LongAdder();
+    private final LongAdder classesTransformed = new LongAdder();
+
+    private ModuleProfile(InstrumentationModule instrumentationModule) {
+      instrumentationName = instrumentationModule.instrumentationName();
+      for (int i = 0; i < phaseNanos.length; i++) {
+        phaseNanos[i] = new LongAdder();
+      }
+    }
+
+    /** Records the time spent in the given phase since {@code startNanos}. */
+    void record(Phase phase, long startNanos) {
+      phaseNanos[phase.ordinal()].add(System.nanoTime() - startNanos);
+    }
+
+    long totalNanos() {
+      long total = 0;
+      for (LongAdder nanos : phaseNanos) {
+        total += nanos.sum();
+      }
+      return total;
+    }
+
+    ElementMatcher<TypeDescription> typeMatcher(ElementMatcher<TypeDescription> delegate) {
+      return new ProfilingMatcher<>(this, Phase.TYPE_MATCHING, delegate);
+    }
+
+    ElementMatcher<ClassLoader> classLoaderMatcher(ElementMatcher<ClassLoader> delegate) {
+      return new ProfilingMatcher<>(this, Phase.CLASS_LOADER_MATCHING, delegate);
+    }
+
+    AgentBuilder.RawMatcher muzzleMatcher(AgentBuilder.RawMatcher delegate) {
+      return (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+        long start = System.nanoTime();
+        try {
+          return delegate.matches(
+              typeDescription, classLoader, module, classBeingRedefined, protectionDomain);
+        } finally {
+          record(Phase.MUZZLE, start);
+        }
+      };
+    }
+
+    AgentBuilder.Transformer helperInjector(AgentBuilder.Transformer delegate) {
+      return (builder, typeDescription, classLoader, module) -> {
+        long start = System.nanoTime();
+        try {
+          return delegate.transform(builder, typeDescription, classLoader, module);
+        } finally {
+          long nanos = System.nanoTime() - start;
+          phaseNanos[Phase.HELPER_INJECTION.ordinal()].add(nanos);
+          // not part of the bytecode generation measured by the listener
+          currentTransformation.get().excludedNanos += nanos;
+        }
+      };
+    }
+
+    /**
+     * Wraps the first transformer of the module, so that the module is recorded as one of the
+     * modules that transform the current class.
+     */
+    AgentBuilder.Transformer firstTransformer(AgentBuilder.Transformer delegate) {
+      return (builder, typeDescription, classLoader, module) -> {
+        currentTransformation.get().start(this);
+        return delegate.transform(builder, typeDescription, classLoader, module);
+      };
+    }
+  }
+
+  private static final class ProfilingMatcher<T> implements ElementMatcher<T> {
+    private final ModuleProfile profile;
+    private final Phase phase;
+    private final ElementMatcher<T> delegate;
+
+    private ProfilingMatcher(ModuleProfile profile, Phase phase, ElementMatcher<T> delegate) {
+      this.profile = profile;
+      this.phase = phase;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean matches(T target) {
+      long start = System.nanoTime();
+      boolean matches = false;
+      try {
+        matches = delegate.matches(target);
+        return matches;
+      } finally {
+        profile.record(phase, start);
+        if (matches && phase == Phase.TYPE_MATCHING) {
+          profile.typeMatches.increment();
+        }
+      }
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+  }
+
+  /** The modules that transform the class that is currently transformed by this thread. */
+  private static final class Transformation {
+    private final List<ModuleProfile> modules = new ArrayList<>();
+    private long startNanos;
+    private long excludedNanos;
+
+    void start(ModuleProfile profile) {
+      if (modules.isEmpty()) {
+        startNanos = System.nanoTime();
+      }
+      // a module may transform a class with several type instrumentations
+      if (!modules.contains(profile)) {
+        modules.add(profile);
+      }
+    }
+
+    void reset() {
+      modules.clear();
+      excludedNanos = 0;
+    }
+  }
+
+  private class TransformationListener extends AgentBuilder.Listener.Adapter {
+
+    @Override
+    public void onDiscovery(
+        String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+      classesExamined.increment();
+      currentTransformation.get().reset();
+    }
+
+    @Override
+    public void onTransformation(
+        TypeDescription typeDescription,
+        ClassLoader classLoader,
+        JavaModule module,
+        boolean loaded,
+        DynamicType dynamicType) {
+      classesTransformed.increment();
+      Transformation transformation = currentTransformation.get();
+      if (transformation.modules.isEmpty()) {
+        return;
+      }
+      long nanos = System.nanoTime() - transformation.startNanos - transformation.excludedNanos;
+      long share = Math.max(0, nanos) / transformation.modules.size();
+      for (ModuleProfile profile : transformation.modules) {
+        profile.phaseNanos[Phase.ADVICE.ordinal()].add(share);
+        profile.classesTransformed.increment();
+      }
+    }
+
+    @Override
+    public void onComplete(
+        String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+      currentTransformation.get().reset();
+    }
+  }
+}
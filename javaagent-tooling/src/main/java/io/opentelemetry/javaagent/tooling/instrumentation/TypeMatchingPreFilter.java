@@ -0,0 +1,604 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import io.opentelemetry.javaagent.tooling.util.Trie;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.AnnotationTypeMatcher;
+import net.bytebuddy.matcher.BooleanMatcher;
+import net.bytebuddy.matcher.CollectionItemMatcher;
+import net.bytebuddy.matcher.DeclaringAnnotationMatcher;
+import net.bytebuddy.matcher.DeclaringMethodMatcher;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ErasureMatcher;
+import net.bytebuddy.matcher.HasSuperClassMatcher;
+import net.bytebuddy.matcher.HasSuperTypeMatcher;
+import net.bytebuddy.matcher.NameMatcher;
+import net.bytebuddy.matcher.StringMatcher;
+import net.bytebuddy.matcher.StringSetMatcher;
+
+/**
+ * A pre-filter shared by the type matchers of all the installed instrumentations.
+ *
+ * <p>When a type matcher is {@linkplain #gate(ElementMatcher) gated}, the names that it requires
+ * are read from it: the names or name prefixes of the type itself (e.g. {@code named(...)}, {@code
+ * namedOneOf(...)} or {@code nameStartsWith(...)}), of one of its super types (e.g. {@code
+ * implementsInterface(named(...))} or {@code extendsClass(named(...))}), or of the annotations of
+ * the type or of one of its declared methods (e.g. {@code declaresMethod(isAnnotatedWith(...))}).
+ * A conjunction only needs one of its parts to require names, a disjunction needs all of them.
+ *
+ * <p>The type names and prefixes of all the gated matchers are combined into one index, so that a
+ * loaded type is looked up once, in time proportional to the length of its name, instead of being
+ * compared by each matcher. The names of its super types and annotations are only read when a
+ * gated matcher whose class loader matcher matched needs them, and at most once for all the
+ * matchers. A type that has none of the required names is rejected before its matcher runs.
+ *
+ * <p>Type matchers that can't be analyzed (e.g. custom matchers) are not gated. Until the
+ * pre-filter is {@linkplain #build() built}, the gated matchers are not filtered.
+ */
+final class TypeMatchingPreFilter {
+
+  // the extension API matchers are package-private
+  private static final String SAFE_HAS_SUPER_TYPE_MATCHER =
+      "io.opentelemetry.javaagent.extension.matcher.SafeHasSuperTypeMatcher";
+  private static final String SAFE_EXTENDS_CLASS_MATCHER =
+      "io.opentelemetry.javaagent.extension.matcher.SafeExtendsClassMatcher";
+  private static final String SAFE_ERASURE_MATCHER =
+      "io.opentelemetry.javaagent.extension.matcher.SafeErasureMatcher";
+
+  private static final BitSet NO_MATCHES = new BitSet();
+
+  private final List<Requirement> requirements = new ArrayList<>();
+  // the facts of the type that was matched last on each thread
+  private final ThreadLocal<TypeFacts> lastTypeFacts = new ThreadLocal<>();
+
+  @Nullable private volatile Index index;
+
+  /**
+   * Returns the given type matcher, gated by this pre-filter when the names that it requires are
+   * known.
+   */
+  ElementMatcher<TypeDescription> gate(ElementMatcher<TypeDescription> typeMatcher) {
+    Requirement requirement = Requirement.of(typeMatcher);
+    if (requirement == null) {
+      return typeMatcher;
+    }
+    int id;
+    synchronized (this) {
+      id = requirements.size();
+      requirements.add(requirement);
+    }
+    return new GatedMatcher(this, id, typeMatcher);
+  }
+
+  /**
+   * Builds the index of the type matchers gated so far. Must be called after the instrumentation
+   * modules were installed, the matchers that are gated afterwards aren't filtered until it is
+   * called again.
+   */
+  synchronized void build() {
+    index = new Index(requirements.toArray(new Requirement[0]));
+  }
+
+  private boolean mayMatch(int id, TypeDescription type) {
+    Index index = this.index;
+    if (index == null || id >= index.requirements.length) {
+      return true;
+    }
+    // all the matchers run one after another on the thread that loads the type, with the same
+    // type description
+    TypeFacts facts = lastTypeFacts.get();
+    if (facts == null || facts.index != index || facts.type.get() != type) {
+      facts = new TypeFacts(index, type);
+      lastTypeFacts.set(facts);
+    }
+    return facts.mayMatch(id, type);
+  }
+
+  /** The names that a type must have for a type matcher to match it. */
+  static final class Requirement {
+    final Set<String> names = new HashSet<>();
+    final Set<String> namePrefixes = new HashSet<>();
+    final Set<String> superTypeNames = new HashSet<>();
+    final Set<String> superTypeNamePrefixes = new HashSet<>();
+    final Set<String> annotationNames = new HashSet<>();
+    final Set<String> methodAnnotationNames = new HashSet<>();
+
+    /** Returns the requirement of the given type matcher, or null if it is not known. */
+    @Nullable
+    static Requirement of(ElementMatcher<?> matcher) {
+      if (matcher instanceof NameMatcher) {
+        return ofName(getField(NameMatcher.class, "matcher", matcher));
+      }
+      if (matcher instanceof BooleanMatcher) {
+        Boolean matches = getField(BooleanMatcher.class, "matches", matcher);
+        // none() matches no name at all
+        return Boolean.FALSE.equals(matches) ? new Requirement() : null;
+      }
+      if (matcher instanceof ElementMatcher.Junction.Conjunction) {
+        List<ElementMatcher<?>> parts =
+            getField(ElementMatcher.Junction.Conjunction.class, "matchers", matcher);
+        return parts == null ? null : cheapest(parts);
+      }
+      if (matcher instanceof ElementMatcher.Junction.Disjunction) {
+        List<ElementMatcher<?>> parts =
+            getField(ElementMatcher.Junction.Disjunction.class, "matchers", matcher);
+        return parts == null ? null : union(parts);
+      }
+      if (matcher instanceof HasSuperTypeMatcher) {
+        return ofSuperType(getField(HasSuperTypeMatcher.class, "matcher", matcher));
+      }
+      if (matcher instanceof HasSuperClassMatcher) {
+        return ofSuperType(getField(HasSuperClassMatcher.class, "matcher", matcher));
+      }
+      String className = matcher.getClass().getName();
+      if (className.equals(SAFE_HAS_SUPER_TYPE_MATCHER)
+          || className.equals(SAFE_EXTENDS_CLASS_MATCHER)) {
+        return ofSuperType(getField(matcher.getClass(), "matcher", matcher));
+      }
+      if (matcher instanceof AnnotationTypeMatcher) {
+        // the names of the annotation type
+        Requirement annotationType =
+            ofField(getField(AnnotationTypeMatcher.class, "matcher", matcher));
+        return annotationType != null && annotationType.hasOnlyNames() ? annotationType : null;
+      }
+      if (matcher instanceof DeclaringAnnotationMatcher) {
+        Requirement annotation =
+            ofField(anyItemMatcher(getField(DeclaringAnnotationMatcher.class, "matcher", matcher)));
+        if (annotation == null
+            || !annotation.hasOnlyNames()
+            || !annotation.namePrefixes.isEmpty()) {
+          return null;
+        }
+        Requirement requirement = new Requirement();
+        requirement.annotationNames.addAll(annotation.names);
+        return requirement;
+      }
+      if (matcher instanceof DeclaringMethodMatcher) {
+        Set<String> annotationNames =
+            methodAnnotationNames(
+                anyItemMatcher(getField(DeclaringMethodMatcher.class, "matcher", matcher)));
+        if (annotationNames == null) {
+          return null;
+        }
+        Requirement requirement = new Requirement();
+        requirement.methodAnnotationNames.addAll(annotationNames);
+        return requirement;
+      }
+      return null;
+    }
+
+    // the names of the annotations that a method matcher requires the method to declare
+    @Nullable
+    private static Set<String> methodAnnotationNames(@Nullable Object matcher) {
+      if (matcher instanceof ElementMatcher.Junction.Conjunction) {
+        List<ElementMatcher<?>> parts =
+            getField(ElementMatcher.Junction.Conjunction.class, "matchers", matcher);
+        if (parts == null) {
+          return null;
+        }
+        for (ElementMatcher<?> part : parts) {
+          Set<String> names = methodAnnotationNames(part);
+          if (names != null) {
+            return names;
+          }
+        }
+        return null;
+      }
+      if (matcher instanceof ElementMatcher.Junction.Disjunction) {
+        List<ElementMatcher<?>> parts =
+            getField(ElementMatcher.Junction.Disjunction.class, "matchers", matcher);
+        if (parts == null) {
+          return null;
+        }
+        Set<String> union = new HashSet<>();
+        for (ElementMatcher<?> part : parts) {
+          Set<String> names = methodAnnotationNames(part);
+          if (names == null) {
+            return null;
+          }
+          union.addAll(names);
+        }
+        return union;
+      }
+      if (matcher instanceof DeclaringAnnotationMatcher) {
+        Requirement requirement = of((DeclaringAnnotationMatcher<?>) matcher);
+        return requirement == null ? null : requirement.annotationNames;
+      }
+      return null;
+    }
+
+    @Nullable
+    private static Requirement ofName(@Nullable Object nameMatcher) {
+      Requirement requirement = new Requirement();
+      if (nameMatcher instanceof StringMatcher) {
+        String value = getField(StringMatcher.class, "value", nameMatcher);
+        StringMatcher.Mode mode = getField(StringMatcher.class, "mode", nameMatcher);
+        if (value == null || mode == null) {
+          return null;
+        }
+        switch (mode) {
+          case EQUALS_FULLY:
+            requirement.names.add(value);
+            return requirement;
+          case STARTS_WITH:
+            requirement.namePrefixes.add(value);
+            return requirement;
+          default:
+            return null;
+        }
+      }
+      if (nameMatcher instanceof StringSetMatcher) {
+        Collection<String> values = getField(StringSetMatcher.class, "values", nameMatcher);
+        if (values == null) {
+          return null;
+        }
+        requirement.names.addAll(values);
+        return requirement;
+      }
+      return null;
+    }
+
+    // a super type matcher requires the names that its erasure matcher requires of a super type
+    @Nullable
+    private static Requirement ofSuperType(@Nullable Object erasureMatcher) {
+      Object matcher = null;
+      if (erasureMatcher instanceof ErasureMatcher) {
+        matcher = getField(ErasureMatcher.class, "matcher", erasureMatcher);
+      } else if (erasureMatcher != null
+          && erasureMatcher.getClass().getName().equals(SAFE_ERASURE_MATCHER)) {
+        matcher = getField(erasureMatcher.getClass(), "matcher", erasureMatcher);
+      }
+      Requirement superType = ofField(matcher);
+      if (superType == null || !superType.hasOnlyNames()) {
+        return null;
+      }
+      Requirement requirement = new Requirement();
+      requirement.superTypeNames.addAll(superType.names);
+      requirement.superTypeNamePrefixes.addAll(superType.namePrefixes);
+      return requirement;
+    }
+
+    // declaresMethod(...) and isAnnotatedWith(...) match when any declared element matches
+    @Nullable
+    private static Object anyItemMatcher(@Nullable Object collectionMatcher) {
+      if (!(collectionMatcher instanceof CollectionItemMatcher)) {
+        return null;
+      }
+      return getField(CollectionItemMatcher.class, "matcher", collectionMatcher);
+    }
+
+    @Nullable
+    private static Requirement ofField(@Nullable Object matcher) {
+      return matcher instanceof ElementMatcher ? of((ElementMatcher<?>) matcher) : null;
+    }
+
+    // a conjunction only matches what each of its parts matches, so the requirement of the part
+    // that is the cheapest to check is enough
+    @Nullable
+    private static Requirement cheapest(List<ElementMatcher<?>> parts) {
+      Requirement cheapest = null;
+      for (ElementMatcher<?> part : parts) {
+        Requirement requirement = of(part);
+        if (requirement != null && (cheapest == null || requirement.cost() < cheapest.cost())) {
+          cheapest = requirement;
+        }
+      }
+      return cheapest;
+    }
+
+    // a disjunction matches what any of its parts matches, so all of them must have a requirement
+    @Nullable
+    private static Requirement union(List<ElementMatcher<?>> parts) {
+      Requirement union = new Requirement();
+      for (ElementMatcher<?> part : parts) {
+        Requirement requirement = of(part);
+        if (requirement == null) {
+          return null;
+        }
+        union.names.addAll(requirement.names);
+        union.namePrefixes.addAll(requirement.namePrefixes);
+        union.superTypeNames.addAll(requirement.superTypeNames);
+        union.superTypeNamePrefixes.addAll(requirement.superTypeNamePrefixes);
+        union.annotationNames.addAll(requirement.annotationNames);
+        union.methodAnnotationNames.addAll(requirement.methodAnnotationNames);
+      }
+      return union;
+    }
+
+    private boolean hasOnlyNames() {
+      return superTypeNames.isEmpty()
+          && superTypeNamePrefixes.isEmpty()
+          && annotationNames.isEmpty()
+          && methodAnnotationNames.isEmpty();
+    }
+
+    private boolean requiresSuperTypes() {
+      return !superTypeNames.isEmpty() || !superTypeNamePrefixes.isEmpty();
+    }
+
+    // the name of the type is known, its annotations, super types and declared methods have to be
+    // resolved, in that order of cost
+    private int cost() {
+      if (!methodAnnotationNames.isEmpty()) {
+        return 3;
+      }
+      if (requiresSuperTypes()) {
+        return 2;
+      }
+      if (!annotationNames.isEmpty()) {
+        return 1;
+      }
+      return 0;
+    }
+  }
+
+  /** The type names and name prefixes of all the requirements, mapped to the requirement ids. */
+  private static final class Index {
+    final Requirement[] requirements;
+    private final Map<String, BitSet> names = new HashMap<>();
+    private final Trie<BitSet> namePrefixes;
+
+    Index(Requirement[] requirements) {
+      this.requirements = requirements;
+      Map<String, BitSet> prefixes = new HashMap<>();
+      for (int id = 0; id < requirements.length; id++) {
+        for (String name : requirements[id].names) {
+          names.computeIfAbsent(name, k -> new BitSet()).set(id);
+        }
+        for (String prefix : requirements[id].namePrefixes) {
+          prefixes.computeIfAbsent(prefix, k -> new BitSet()).set(id);
+        }
+      }
+      // the trie only returns the value of the longest matching prefix, so that value includes the
+      // ids of all the shorter prefixes that it starts with
+      Trie.Builder<BitSet> builder = Trie.builder();
+      for (Map.Entry<String, BitSet> prefix : prefixes.entrySet()) {
+        BitSet ids = new BitSet();
+        for (Map.Entry<String, BitSet> other : prefixes.entrySet()) {
+          if (prefix.getKey().startsWith(other.getKey())) {
+            ids.or(other.getValue());
+          }
+        }
+        builder.put(prefix.getKey(), ids);
+      }
+      namePrefixes = builder.build();
+    }
+
+    BitSet idsMatchingName(String name) {
+      BitSet exact = names.get(name);
+      BitSet prefixed = namePrefixes.getOrNull(name);
+      if (exact == null) {
+        return prefixed == null ? NO_MATCHES : prefixed;
+      }
+      if (prefixed == null) {
+        return exact;
+      }
+      BitSet ids = (BitSet) exact.clone();
+      ids.or(prefixed);
+      return ids;
+    }
+  }
+
+  /** The names of a type, its super types and its annotations, read when they are needed. */
+  private static final class TypeFacts {
+    final Index index;
+    // the type descriptions of the type pool must not be kept after the type was matched
+    final WeakReference<TypeDescription> type;
+    private final BitSet idsMatchingName;
+    @Nullable private Set<String> superTypeNames;
+    // null when the annotations could not be read
+    @Nullable private Set<String> annotationNames;
+    @Nullable private Set<String> methodAnnotationNames;
+    private boolean annotationNamesRead;
+    private boolean methodAnnotationNamesRead;
+
+    TypeFacts(Index index, TypeDescription type) {
+      this.index = index;
+      this.type = new WeakReference<>(type);
+      idsMatchingName = index.idsMatchingName(type.getActualName());
+    }
+
+    boolean mayMatch(int id, TypeDescription type) {
+      if (idsMatchingName.get(id)) {
+        return true;
+      }
+      Requirement requirement = index.requirements[id];
+      if (requirement.requiresSuperTypes()
+          && containsAny(
+              superTypeNames(type),
+              requirement.superTypeNames,
+              requirement.superTypeNamePrefixes)) {
+        return true;
+      }
+      if (!requirement.annotationNames.isEmpty()) {
+        Set<String> names = annotationNames(type);
+        // the matcher decides when the annotations could not be read
+        if (names == null || containsAny(names, requirement.annotationNames, null)) {
+          return true;
+        }
+      }
+      if (!requirement.methodAnnotationNames.isEmpty()) {
+        Set<String> names = methodAnnotationNames(type);
+        return names == null || containsAny(names, requirement.methodAnnotationNames, null);
+      }
+      return false;
+    }
+
+    private Set<String> superTypeNames(TypeDescription type) {
+      if (superTypeNames == null) {
+        Set<String> names = new HashSet<>();
+        // like the safe super type matchers, the super types that can't be resolved are skipped
+        TypeDefinition typeDefinition = type;
+        while (typeDefinition != null) {
+          String name = actualName(typeDefinition);
+          if (name == null) {
+            break;
+          }
+          names.add(name);
+          addInterfaceNames(typeDefinition, names);
+          typeDefinition = superClass(typeDefinition);
+        }
+        superTypeNames = names;
+      }
+      return superTypeNames;
+    }
+
+    @Nullable
+    private Set<String> annotationNames(TypeDescription type) {
+      if (!annotationNamesRead) {
+        annotationNamesRead = true;
+        try {
+          Set<String> names = new HashSet<>();
+          addAnnotationNames(type.getDeclaredAnnotations(), names);
+          annotationNames = names;
+        } catch (Throwable t) {
+          annotationNames = null;
+        }
+      }
+      return annotationNames;
+    }
+
+    @Nullable
+    private Set<String> methodAnnotationNames(TypeDescription type) {
+      if (!methodAnnotationNamesRead) {
+        methodAnnotationNamesRead = true;
+        try {
+          Set<String> names = new HashSet<>();
+          for (MethodDescription method : type.getDeclaredMethods()) {
+            addAnnotationNames(method.getDeclaredAnnotations(), names);
+          }
+          methodAnnotationNames = names;
+        } catch (Throwable t) {
+          methodAnnotationNames = null;
+        }
+      }
+      return methodAnnotationNames;
+    }
+
+    private static void addAnnotationNames(
+        Iterable<AnnotationDescription> annotations, Set<String> names) {
+      for (AnnotationDescription annotation : annotations) {
+        names.add(annotation.getAnnotationType().getActualName());
+      }
+    }
+
+    private static void addInterfaceNames(TypeDefinition typeDefinition, Set<String> names) {
+      Iterator<TypeDescription.Generic> interfaces;
+      try {
+        interfaces = typeDefinition.getInterfaces().iterator();
+      } catch (Throwable t) {
+        return;
+      }
+      while (true) {
+        TypeDescription.Generic interfaceType;
+        try {
+          if (!interfaces.hasNext()) {
+            return;
+          }
+          interfaceType = interfaces.next();
+        } catch (Throwable t) {
+          return;
+        }
+        String name = actualName(interfaceType);
+        if (name != null && names.add(name)) {
+          addInterfaceNames(interfaceType, names);
+        }
+      }
+    }
+
+    @Nullable
+    private static TypeDefinition superClass(TypeDefinition typeDefinition) {
+      try {
+        return typeDefinition.getSuperClass();
+      } catch (Throwable t) {
+        return null;
+      }
+    }
+
+    @Nullable
+    private static String actualName(TypeDefinition typeDefinition) {
+      try {
+        return typeDefinition.asErasure().getActualName();
+      } catch (Throwable t) {
+        return null;
+      }
+    }
+
+    private static boolean containsAny(
+        Set<String> names, Set<String> required, @Nullable Set<String> requiredPrefixes) {
+      for (String name : required) {
+        if (names.contains(name)) {
+          return true;
+        }
+      }
+      if (requiredPrefixes != null && !requiredPrefixes.isEmpty()) {
+        for (String name : names) {
+          for (String prefix : requiredPrefixes) {
+            if (name.startsWith(prefix)) {
+              return true;
+            }
+          }
+        }
+      }
+      return false;
+    }
+  }
+
+  /** A type matcher that only runs when the type may have the names that it requires. */
+  private static final class GatedMatcher
+      extends ElementMatcher.Junction.AbstractBase<TypeDescription> {
+    private final TypeMatchingPreFilter preFilter;
+    private final int id;
+    private final ElementMatcher<TypeDescription> delegate;
+
+    private GatedMatcher(
+        TypeMatchingPreFilter preFilter, int id, ElementMatcher<TypeDescription> delegate) {
+      this.preFilter = preFilter;
+      this.id = id;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean matches(TypeDescription target) {
+      return preFilter.mayMatch(id, target) && delegate.matches(target);
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+  }
+
+  // byte buddy matchers don't expose what they match, if the field is not found (e.g. because
+  // byte buddy was updated) the matcher is not gated
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private static <T> T getField(Class<?> type, String fieldName, Object instance) {
+    try {
+      Field field = type.getDeclaredField(fieldName);
+      field.setAccessible(true);
+      return (T) field.get(instance);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+}
@@ -16,6 +16,7 @@ import net.bytebuddy.dynamic.loading.ClassInjector
 import spock.lang.Specification
 
 import java.lang.ref.WeakReference
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.concurrent.atomic.AtomicReference
 
 import static io.opentelemetry.instrumentation.test.utils.ClasspathUtils.isClassLoaded
@@ -58,6 +59,34 @@ class HelperInjectionTest extends Specification {
     null == ref.get()
   }
 
+  def "helper class bytes are read once for all classloaders"() {
+    setup:
+    URL[] helpersSourceUrls = new URL[1]
+    helpersSourceUrls[0] = HelperClass.getProtectionDomain().getCodeSource().getLocation()
+    AtomicInteger lookups = new AtomicInteger()
+    ClassLoader helpersSourceLoader = new URLClassLoader(helpersSourceUrls) {
+      @Override
+      InputStream getResourceAsStream(String name) {
+        lookups.incrementAndGet()
+        return super.getResourceAsStream(name)
+      }
+    }
+
+    String helperClassName = HelperInjectionTest.getPackage().getName() + '.HelperClass'
+    HelperInjector injector = new HelperInjector("test", [helperClassName], [], helpersSourceLoader, null)
+    URLClassLoader loader1 = new URLClassLoader(new URL[0], (ClassLoader) null)
+    URLClassLoader loader2 = new URLClassLoader(new URL[0], (ClassLoader) null)
+
+    when:
+    injector.transform(null, null, loader1, null)
+    injector.transform(null, null, loader2, null)
+
+    then:
+    lookups.get() == 1
+    HelperInjector.loadHelperClass(loader1, helperClassName).getClassLoader() == loader1
+    HelperInjector.loadHelperClass(loader2, helperClassName).getClassLoader() == loader2
+  }
+
   def "helpers injected on bootstrap classloader"() {
     setup:
     ByteBuddyAgent.install()
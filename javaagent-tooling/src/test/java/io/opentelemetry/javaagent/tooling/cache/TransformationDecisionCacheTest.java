@@ -0,0 +1,147 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TransformationDecisionCacheTest {
+
+  private static final TypeDescription IGNORED = TypeDescription.ForLoadedType.of(String.class);
+  private static final TypeDescription TRANSFORMED = TypeDescription.ForLoadedType.of(Thread.class);
+
+  @TempDir Path directory;
+
+  @Test
+  void shouldReuseDecisionsOfPreviousRun() throws IOException {
+    Path file = directory.resolve(TransformationDecisionCache.FILE_NAME);
+    URLClassLoader classLoader = classLoader("library.jar");
+
+    TransformationDecisionCache firstRun = new TransformationDecisionCache(file, "agent");
+    firstRun.load();
+    runTypeMatchers(firstRun, IGNORED, true);
+    runTypeMatchers(firstRun, TRANSFORMED, false);
+    assertNull(firstRun.getMuzzleResult("module", classLoader));
+    firstRun.recordMuzzleResult("module", classLoader, false);
+    firstRun.save();
+
+    TransformationDecisionCache secondRun = new TransformationDecisionCache(file, "agent");
+    secondRun.load();
+    assertTrue(secondRun.isKnownToBeIgnored(IGNORED, null));
+    assertFalse(secondRun.isKnownToBeIgnored(TRANSFORMED, null));
+    assertEquals(false, secondRun.getMuzzleResult("module", classLoader));
+    assertNull(secondRun.getMuzzleResult("module", classLoader("other.jar")));
+    secondRun.save();
+
+    // the decisions that were reused are kept for the next run
+    TransformationDecisionCache thirdRun = new TransformationDecisionCache(file, "agent");
+    thirdRun.load();
+    assertTrue(thirdRun.isKnownToBeIgnored(IGNORED, null));
+    assertEquals(false, thirdRun.getMuzzleResult("module", classLoader));
+  }
+
+  @Test
+  void shouldDiscardDecisionsOfDifferentAgentSetup() {
+    Path file = directory.resolve(TransformationDecisionCache.FILE_NAME);
+
+    TransformationDecisionCache firstRun = new TransformationDecisionCache(file, "agent");
+    runTypeMatchers(firstRun, IGNORED, true);
+    firstRun.save();
+
+    TransformationDecisionCache secondRun = new TransformationDecisionCache(file, "other agent");
+    secondRun.load();
+    assertFalse(secondRun.isKnownToBeIgnored(IGNORED, null));
+  }
+
+  @Test
+  void shouldNotCacheDecisionsForClassesInDirectories() throws IOException {
+    Path file = directory.resolve(TransformationDecisionCache.FILE_NAME);
+    URLClassLoader classLoader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, null);
+
+    TransformationDecisionCache firstRun = new TransformationDecisionCache(file, "agent");
+    runTypeMatchers(firstRun, IGNORED, true, classLoader);
+    firstRun.save();
+
+    TransformationDecisionCache secondRun = new TransformationDecisionCache(file, "agent");
+    secondRun.load();
+    assertFalse(secondRun.isKnownToBeIgnored(IGNORED, classLoader));
+  }
+
+  @Test
+  void shouldNotCacheDecisionsForUrlClassLoaderSubclasses() throws IOException {
+    Path file = directory.resolve(TransformationDecisionCache.FILE_NAME);
+    Path jar = directory.resolve("library.jar");
+    Files.createFile(jar);
+    // e.g. a class loader of generated classes
+    URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null) {};
+
+    TransformationDecisionCache firstRun = new TransformationDecisionCache(file, "agent");
+    runTypeMatchers(firstRun, IGNORED, true, classLoader);
+    firstRun.save();
+
+    TransformationDecisionCache secondRun = new TransformationDecisionCache(file, "agent");
+    secondRun.load();
+    assertFalse(secondRun.isKnownToBeIgnored(IGNORED, classLoader));
+  }
+
+  @Test
+  void shouldNotCacheDecisionsForClassLoadersWithoutClassPath() {
+    Path file = directory.resolve(TransformationDecisionCache.FILE_NAME);
+    URLClassLoader classLoader = new URLClassLoader(new URL[0], null);
+
+    TransformationDecisionCache firstRun = new TransformationDecisionCache(file, "agent");
+    runTypeMatchers(firstRun, IGNORED, true, classLoader);
+    firstRun.save();
+
+    TransformationDecisionCache secondRun = new TransformationDecisionCache(file, "agent");
+    secondRun.load();
+    assertFalse(secondRun.isKnownToBeIgnored(IGNORED, classLoader));
+    // the bootstrap class loader doesn't share its decisions with it
+    assertFalse(secondRun.isKnownToBeIgnored(IGNORED, null));
+  }
+
+  private static void runTypeMatchers(
+      TransformationDecisionCache cache, TypeDescription type, boolean ignored) {
+    runTypeMatchers(cache, type, ignored, null);
+  }
+
+  // simulates byte buddy running the ignore matchers and then the instrumentations
+  private static void runTypeMatchers(
+      TransformationDecisionCache cache,
+      TypeDescription type,
+      boolean ignored,
+      @Nullable ClassLoader classLoader) {
+    AgentBuilder.Listener listener = cache.listener();
+    assertFalse(cache.isKnownToBeIgnored(type, classLoader));
+    if (ignored) {
+      listener.onIgnored(type, classLoader, null, false);
+    } else {
+      listener.onTransformation(type, classLoader, null, false, null);
+    }
+    listener.onComplete(type.getName(), classLoader, null, false);
+  }
+
+  private URLClassLoader classLoader(String jarName) throws IOException {
+    Path jar = directory.resolve(jarName);
+    if (!Files.exists(jar)) {
+      Files.createFile(jar);
+    }
+    return new URLClassLoader(new URL[] {jar.toUri().toURL()}, null);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.Collections.emptyList;
+import static net.bytebuddy.matcher.ElementMatchers.any;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
+import java.util.List;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.jupiter.api.Test;
+
+class StartupProfilerTest {
+
+  @Test
+  void shouldProfileModules() {
+    StartupProfiler profiler = new StartupProfiler();
+    StartupProfiler.ModuleProfile first = profiler.createModuleProfile(new TestModule("first"));
+    StartupProfiler.ModuleProfile second = profiler.createModuleProfile(new TestModule("second"));
+    AgentBuilder.Listener listener = profiler.listener();
+    TypeDescription type = type(String.class);
+
+    listener.onDiscovery(type.getName(), null, null, false);
+    assertThat(first.typeMatcher(named("java.lang.String")).matches(type)).isTrue();
+    assertThat(second.typeMatcher(any()).matches(type)).isTrue();
+    first.firstTransformer((builder, typeDescription, classLoader, module) -> builder)
+        .transform(null, type, null, null);
+    second.firstTransformer((builder, typeDescription, classLoader, module) -> builder)
+        .transform(null, type, null, null);
+    listener.onTransformation(type, null, null, false, null);
+    listener.onComplete(type.getName(), null, null, false);
+
+    listener.onDiscovery("java.lang.Integer", null, null, false);
+    assertThat(first.typeMatcher(named("java.lang.String")).matches(type(Integer.class)))
+        .isFalse();
+    assertThat(second.typeMatcher(any()).matches(type(Integer.class))).isTrue();
+    listener.onComplete("java.lang.Integer", null, null, false);
+
+    String report = profiler.report("test");
+    assertThat(report)
+        .startsWith(
+            "Instrumentation startup profile at test: 2 classes examined, 1 transformed,"
+                + " times in ms");
+    // type matches, only the matcher calls that returned true, and transformed classes
+    assertThat(report.split(System.lineSeparator()))
+        .anySatisfy(line -> assertThat(line).startsWith("first ").endsWith(" 1           1"))
+        .anySatisfy(line -> assertThat(line).startsWith("second ").endsWith(" 2           1"));
+  }
+
+  private static TypeDescription type(Class<?> clazz) {
+    return TypeDescription.ForLoadedType.of(clazz);
+  }
+
+  private static class TestModule extends InstrumentationModule {
+    private TestModule(String name) {
+      super(name);
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      return emptyList();
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.extendsClass;
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.implementsInterface;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static net.bytebuddy.matcher.ElementMatchers.declaresMethod;
+import static net.bytebuddy.matcher.ElementMatchers.hasSuperType;
+import static net.bytebuddy.matcher.ElementMatchers.isAnnotatedWith;
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.nameEndsWith;
+import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.namedOneOf;
+import static net.bytebuddy.matcher.ElementMatchers.none;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.annotation.Retention;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.Test;
+
+class TypeMatchingPreFilterTest {
+
+  private static final List<TypeDescription> types =
+      Arrays.asList(
+          type(ThreadPoolExecutor.class),
+          type(ConcurrentHashMap.class),
+          type(ArrayList.class),
+          type(Thread.class),
+          type(Runnable.class),
+          type(String.class),
+          type(Annotated.class),
+          type(AnnotatedMethod.class));
+
+  @Test
+  void shouldMatchLikeTheGatedMatchers() {
+    List<ElementMatcher<TypeDescription>> matchers =
+        Arrays.asList(
+            named("java.util.concurrent.ThreadPoolExecutor"),
+            namedOneOf("java.lang.Thread", "java.lang.Runnable"),
+            nameStartsWith("java.util.concurrent.ConcurrentHash"),
+            nameStartsWith("java.util."),
+            named("java.util.ArrayList").and(not(isInterface())),
+            named("java.lang.Integer").or(named("java.lang.String")),
+            implementsInterface(named("java.util.concurrent.Executor")),
+            implementsInterface(named("java.lang.Runnable")),
+            extendsClass(named("java.util.concurrent.AbstractExecutorService")),
+            hasSuperType(named("java.util.List")),
+            hasSuperType(nameStartsWith("java.util.Abstract")),
+            isAnnotatedWith(named(Traced.class.getName())),
+            declaresMethod(isAnnotatedWith(named(Traced.class.getName()))),
+            declaresMethod(named("method").and(isAnnotatedWith(named(Traced.class.getName())))),
+            none());
+
+    TypeMatchingPreFilter preFilter = new TypeMatchingPreFilter();
+    List<ElementMatcher<TypeDescription>> gatedMatchers = new ArrayList<>();
+    for (ElementMatcher<TypeDescription> matcher : matchers) {
+      ElementMatcher<TypeDescription> gatedMatcher = preFilter.gate(matcher);
+      assertThat(gatedMatcher).as(matcher.toString()).isNotSameAs(matcher);
+      gatedMatchers.add(gatedMatcher);
+    }
+    preFilter.build();
+
+    for (TypeDescription type : types) {
+      for (int i = 0; i < matchers.size(); i++) {
+        assertThat(gatedMatchers.get(i).matches(type))
+            .as(matchers.get(i) + " on " + type)
+            .isEqualTo(matchers.get(i).matches(type));
+      }
+    }
+  }
+
+  @Test
+  void shouldRejectTypesWithoutTheRequiredNames() {
+    AtomicInteger namedCalls = new AtomicInteger();
+    AtomicInteger superTypeCalls = new AtomicInteger();
+    AtomicInteger annotationCalls = new AtomicInteger();
+    TypeMatchingPreFilter preFilter = new TypeMatchingPreFilter();
+    ElementMatcher<TypeDescription> namedMatcher =
+        preFilter.gate(counting(namedCalls).and(named("java.lang.Thread")));
+    ElementMatcher<TypeDescription> superTypeMatcher =
+        preFilter.gate(
+            counting(superTypeCalls).and(implementsInterface(named("java.lang.Runnable"))));
+    ElementMatcher<TypeDescription> annotationMatcher =
+        preFilter.gate(
+            counting(annotationCalls)
+                .and(declaresMethod(isAnnotatedWith(named(Traced.class.getName())))));
+    preFilter.build();
+
+    for (TypeDescription type : types) {
+      namedMatcher.matches(type);
+      superTypeMatcher.matches(type);
+      annotationMatcher.matches(type);
+    }
+
+    // Thread
+    assertThat(namedCalls.get()).isEqualTo(1);
+    // Thread and Runnable
+    assertThat(superTypeCalls.get()).isEqualTo(2);
+    // AnnotatedMethod
+    assertThat(annotationCalls.get()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotGateMatchersThatCantBeAnalyzed() {
+    TypeMatchingPreFilter preFilter = new TypeMatchingPreFilter();
+    ElementMatcher.Junction<TypeDescription> custom = counting(new AtomicInteger());
+
+    assertThat(preFilter.gate(custom)).isSameAs(custom);
+    ElementMatcher<TypeDescription> notNamed = not(named("java.lang.String"));
+    assertThat(preFilter.gate(notNamed)).isSameAs(notNamed);
+    ElementMatcher<TypeDescription> nameEnding = nameEndsWith("Executor");
+    assertThat(preFilter.gate(nameEnding)).isSameAs(nameEnding);
+    ElementMatcher<TypeDescription> partlyNamed = named("java.lang.String").or(custom);
+    assertThat(preFilter.gate(partlyNamed)).isSameAs(partlyNamed);
+  }
+
+  @Test
+  void shouldNotFilterBeforeBuilt() {
+    TypeMatchingPreFilter preFilter = new TypeMatchingPreFilter();
+    AtomicInteger calls = new AtomicInteger();
+    ElementMatcher<TypeDescription> matcher =
+        preFilter.gate(counting(calls).and(named("java.lang.Thread")));
+
+    matcher.matches(type(String.class));
+
+    assertThat(calls.get()).isEqualTo(1);
+  }
+
+  private static ElementMatcher.Junction<TypeDescription> counting(AtomicInteger calls) {
+    return new ElementMatcher.Junction.AbstractBase<TypeDescription>() {
+      @Override
+      public boolean matches(TypeDescription target) {
+        calls.incrementAndGet();
+        return true;
+      }
+    };
+  }
+
+  private static TypeDescription type(Class<?> clazz) {
+    return TypeDescription.ForLoadedType.of(clazz);
+  }
+
+  @Retention(RUNTIME)
+  @interface Traced {}
+
+  @Traced
+  static class Annotated {}
+
+  static class AnnotatedMethod {
+    @Traced
+    void method() {}
+  }
+}
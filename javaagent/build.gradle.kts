@@ -30,6 +30,10 @@ val javaagentLibs by configurations.creating {
   extendsFrom(baseJavaagentLibs)
 }
 
+// build with -PuncompressedAgentJar=true to store the jar entries uncompressed, the agent classes can
+// then be read straight from the memory-mapped jar (otel.javaagent.experimental.mapped-agent-jar.enabled)
+val uncompressedAgentJar = findProperty("uncompressedAgentJar") == "true"
+
 // exclude javaagent dependencies from the bootstrap classpath
 bootstrapLibs.run {
   exclude("net.bytebuddy")
@@ -159,6 +163,10 @@ tasks {
 
     duplicatesStrategy = DuplicatesStrategy.FAIL
 
+    if (uncompressedAgentJar) {
+      entryCompression = ZipEntryCompression.STORED
+    }
+
     archiveClassifier.set("")
 
     manifest {
@@ -183,6 +191,10 @@ tasks {
 
     duplicatesStrategy = DuplicatesStrategy.FAIL
 
+    if (uncompressedAgentJar) {
+      entryCompression = ZipEntryCompression.STORED
+    }
+
     archiveClassifier.set("base")
 
     manifest {
@@ -8,6 +8,7 @@ package io.opentelemetry.javaagent.tooling;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.SEVERE;
 
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.HelperResources;
 import io.opentelemetry.javaagent.bootstrap.InjectedClassHelper;
@@ -71,7 +72,7 @@ public class HelperInjector implements Transformer {
       };
 
   private static final HelperClassInjector BOOT_CLASS_INJECTOR =
-      new HelperClassInjector(null) {
+      new HelperClassInjector(null, null) {
         @Override
         Class<?> inject(ClassLoader classLoader, String className) {
           throw new UnsupportedOperationException("should not be called");
@@ -88,6 +89,11 @@ public class HelperInjector implements Transformer {
   @Nullable private final ClassLoader helpersSource;
   @Nullable private final Instrumentation instrumentation;
   private final Map<String, byte[]> dynamicTypeMap = new LinkedHashMap<>();
+  private final SupportabilityMetrics.HelperInjectionTimer injectionTimer;
+
+  // the helper class bytes are read once, and shared by all the class loaders they're injected into
+  @Nullable private volatile Map<String, byte[]> helperMap;
+  @Nullable private volatile Map<String, HelperClassInjector> helperClassInjectors;
 
   private final Cache<ClassLoader, Boolean> injectedClassLoaders = Cache.weak();
   private final Cache<ClassLoader, Boolean> resourcesInjectedClassLoaders = Cache.weak();
@@ -116,6 +122,7 @@ public class HelperInjector implements Transformer {
     this.helperResources = helperResources;
     this.helpersSource = helpersSource;
     this.instrumentation = instrumentation;
+    this.injectionTimer = SupportabilityMetrics.instance().helperInjectionTimer(requestingName);
   }
 
   private HelperInjector(
@@ -128,6 +135,7 @@ public class HelperInjector implements Transformer {
     this.helperResources = Collections.emptyList();
     this.helpersSource = null;
     this.instrumentation = instrumentation;
+    this.injectionTimer = SupportabilityMetrics.instance().helperInjectionTimer(requestingName);
   }
 
   public static HelperInjector forDynamicTypes(
@@ -146,20 +154,42 @@ public class HelperInjector implements Transformer {
   }
 
   private Map<String, byte[]> getHelperMap() throws IOException {
-    if (dynamicTypeMap.isEmpty()) {
-      Map<String, byte[]> classnameToBytes = new LinkedHashMap<>();
-
-      ClassFileLocator locator = ClassFileLocator.ForClassLoader.of(helpersSource);
+    if (!dynamicTypeMap.isEmpty()) {
+      return dynamicTypeMap;
+    }
+    Map<String, byte[]> classnameToBytes = helperMap;
+    if (classnameToBytes == null) {
+      synchronized (this) {
+        classnameToBytes = helperMap;
+        if (classnameToBytes == null) {
+          classnameToBytes = new LinkedHashMap<>();
+
+          ClassFileLocator locator = ClassFileLocator.ForClassLoader.of(helpersSource);
+
+          for (String helperClassName : helperClassNames) {
+            byte[] classBytes = locator.locate(helperClassName).resolve();
+            classnameToBytes.put(helperClassName, classBytes);
+          }
 
-      for (String helperClassName : helperClassNames) {
-        byte[] classBytes = locator.locate(helperClassName).resolve();
-        classnameToBytes.put(helperClassName, classBytes);
+          helperMap = classnameToBytes;
+        }
       }
+    }
+    return classnameToBytes;
+  }
 
-      return classnameToBytes;
-    } else {
-      return dynamicTypeMap;
+  // the injectors don't depend on the class loader, the same ones are registered for all of them
+  private Map<String, HelperClassInjector> getHelperClassInjectors() throws IOException {
+    Map<String, HelperClassInjector> injectors = helperClassInjectors;
+    if (injectors == null) {
+      injectors = new LinkedHashMap<>();
+      for (Map.Entry<String, byte[]> entry : getHelperMap().entrySet()) {
+        injectors.put(entry.getKey(), new HelperClassInjector(entry.getValue(), injectionTimer));
+      }
+      // racing threads may create the injectors more than once, which is harmless
+      helperClassInjectors = injectors;
     }
+    return injectors;
   }
 
   @Override
@@ -239,6 +269,7 @@ public class HelperInjector implements Transformer {
     injectedClassLoaders.computeIfAbsent(
         classLoader,
         cl -> {
+          long startNanos = System.nanoTime();
           try {
             if (logger.isLoggable(FINE)) {
               logger.log(
@@ -247,23 +278,20 @@ public class HelperInjector implements Transformer {
                   new Object[] {cl, helperClassNames});
             }
 
-            Map<String, byte[]> classnameToBytes = getHelperMap();
             Map<String, HelperClassInjector> map =
                 helperInjectors.computeIfAbsent(cl, (unused) -> new ConcurrentHashMap<>());
-            for (Map.Entry<String, byte[]> entry : classnameToBytes.entrySet()) {
-              // for boot loader we use a placeholder injector, we only need these classes to be
-              // in the injected classes map to later tell which of the classes are injected
-              HelperClassInjector injector =
-                  isBootClassLoader(cl)
-                      ? BOOT_CLASS_INJECTOR
-                      : new HelperClassInjector(entry.getValue());
-              map.put(entry.getKey(), injector);
-            }
-
             // For boot loader we define the classes immediately. For other loaders we load them
             // from the loadClass method of the class loader.
             if (isBootClassLoader(cl)) {
+              Map<String, byte[]> classnameToBytes = getHelperMap();
+              for (String className : classnameToBytes.keySet()) {
+                // for boot loader we use a placeholder injector, we only need these classes to be
+                // in the injected classes map to later tell which of the classes are injected
+                map.put(className, BOOT_CLASS_INJECTOR);
+              }
               injectBootstrapClassLoader(classnameToBytes);
+            } else {
+              map.putAll(getHelperClassInjectors());
             }
           } catch (Exception e) {
             if (logger.isLoggable(SEVERE)) {
@@ -274,6 +302,8 @@ public class HelperInjector implements Transformer {
                   e);
             }
             throw new IllegalStateException(e);
+          } finally {
+            injectionTimer.recordSince(startNanos);
           }
           return true;
         });
@@ -358,16 +388,23 @@ public class HelperInjector implements Transformer {
 
   private static class HelperClassInjector {
     private final byte[] bytes;
+    private final SupportabilityMetrics.HelperInjectionTimer injectionTimer;
 
-    HelperClassInjector(byte[] bytes) {
+    HelperClassInjector(byte[] bytes, SupportabilityMetrics.HelperInjectionTimer injectionTimer) {
       this.bytes = bytes;
+      this.injectionTimer = injectionTimer;
     }
 
     Class<?> inject(ClassLoader classLoader, String className) {
-      Map<String, Class<?>> result =
-          new ClassInjector.UsingReflection(classLoader)
-              .injectRaw(Collections.singletonMap(className, bytes));
-      return result.get(className);
+      long startNanos = System.nanoTime();
+      try {
+        Map<String, Class<?>> result =
+            new ClassInjector.UsingReflection(classLoader)
+                .injectRaw(Collections.singletonMap(className, bytes));
+        return result.get(className);
+      } finally {
+        injectionTimer.recordSince(startNanos);
+      }
     }
   }
 }
@@ -5,7 +5,12 @@
 
 package io.opentelemetry.javaagent.tooling.muzzle;
 
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.TYPE_POOL_CACHE_HIT;
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.TYPE_POOL_CACHE_MISS;
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.TYPE_POOL_CACHE_NOT_FOUND_HIT;
+
 import io.opentelemetry.instrumentation.api.config.Config;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.InstrumentationHolder;
 import io.opentelemetry.javaagent.bootstrap.VirtualFieldAccessorMarker;
@@ -37,14 +42,14 @@ import net.bytebuddy.utility.JavaModule;
  * <ul>
  *   There two core parts to the cache...
  *   <li>a cache of ClassLoader to WeakReference&lt;ClassLoader&gt;
- *   <li>a single cache of TypeResolutions for all ClassLoaders - keyed by a custom composite key of
- *       ClassLoader and class name
+ *   <li>a single tiered cache of TypeResolutions for all ClassLoaders - keyed by a custom composite
+ *       key of ClassLoader and class name
  * </ul>
  *
  * <p>This design was chosen to create a single limited size cache that can be adjusted for the
  * entire application -- without having to create a large number of WeakReference objects.
  *
- * <p>Eviction is handled through a size restriction
+ * <p>Eviction is handled through a size restriction of each tier
  */
 public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
 
@@ -56,6 +61,8 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
   private static final Method findLoadedClassMethod = getFindLoadedClassMethod();
 
   static final int TYPE_CAPACITY = 64;
+  static final int MAIN_TYPE_CAPACITY = 1024;
+  static final int NOT_FOUND_TYPE_CAPACITY = 4096;
 
   static final int BOOTSTRAP_HASH = 7236344; // Just a random number
 
@@ -72,8 +79,11 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
   /**
    * Single shared Type.Resolution cache -- uses a composite key -- conceptually of loader & name
    */
-  final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache =
-      Cache.bounded(TYPE_CAPACITY);
+  final TieredResolutionCache sharedResolutionCache =
+      new TieredResolutionCache(
+          Cache.bounded("type-pool", TYPE_CAPACITY),
+          Cache.bounded("type-pool-main", MAIN_TYPE_CAPACITY),
+          Cache.bounded("type-pool-not-found", NOT_FOUND_TYPE_CAPACITY));
 
   // fast path for bootstrap
   final SharedResolutionCacheAdapter bootstrapCacheProvider =
@@ -247,6 +257,68 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
     }
   }
 
+  /**
+   * The most recently used resolutions are kept in a small hot tier, backed by a larger main tier.
+   * Resolutions of types that were not found are kept apart in a tier of their own: they hold no
+   * parsed class file, so many of them can be kept cheaply, and hierarchy matching looks them up
+   * over and over again, e.g. the optional dependencies of a library. This way they don't evict the
+   * resolved types either.
+   *
+   * <p>The capacity of each tier can be configured, as each of them is a named cache.
+   */
+  private static final class TieredResolutionCache {
+    private static final SupportabilityMetrics.Counter cacheHitCounter =
+        SupportabilityMetrics.instance().counter(TYPE_POOL_CACHE_HIT);
+    private static final SupportabilityMetrics.Counter notFoundCacheHitCounter =
+        SupportabilityMetrics.instance().counter(TYPE_POOL_CACHE_NOT_FOUND_HIT);
+    private static final SupportabilityMetrics.Counter cacheMissCounter =
+        SupportabilityMetrics.instance().counter(TYPE_POOL_CACHE_MISS);
+
+    private final Cache<TypeCacheKey, TypePool.Resolution> hotTier;
+    private final Cache<TypeCacheKey, TypePool.Resolution> mainTier;
+    private final Cache<TypeCacheKey, TypePool.Resolution> notFoundTier;
+
+    TieredResolutionCache(
+        Cache<TypeCacheKey, TypePool.Resolution> hotTier,
+        Cache<TypeCacheKey, TypePool.Resolution> mainTier,
+        Cache<TypeCacheKey, TypePool.Resolution> notFoundTier) {
+      this.hotTier = hotTier;
+      this.mainTier = mainTier;
+      this.notFoundTier = notFoundTier;
+    }
+
+    @Nullable
+    TypePool.Resolution find(TypeCacheKey key) {
+      TypePool.Resolution resolution = hotTier.get(key);
+      if (resolution != null) {
+        cacheHitCounter.increment();
+        return resolution;
+      }
+      resolution = mainTier.get(key);
+      if (resolution != null) {
+        cacheHitCounter.increment();
+        hotTier.put(key, resolution);
+        return resolution;
+      }
+      resolution = notFoundTier.get(key);
+      if (resolution != null) {
+        notFoundCacheHitCounter.increment();
+        return resolution;
+      }
+      cacheMissCounter.increment();
+      return null;
+    }
+
+    void register(TypeCacheKey key, TypePool.Resolution resolution) {
+      if (resolution.isResolved()) {
+        hotTier.put(key, resolution);
+        mainTier.put(key, resolution);
+      } else {
+        notFoundTier.put(key, resolution);
+      }
+    }
+  }
+
   private static final class SharedResolutionCacheAdapter implements TypePool.CacheProvider {
     private static final String OBJECT_NAME = "java.lang.Object";
     private static final TypePool.Resolution OBJECT_RESOLUTION =
@@ -254,12 +326,12 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
 
     private final int loaderHash;
     private final WeakReference<ClassLoader> loaderRef;
-    private final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache;
+    private final TieredResolutionCache sharedResolutionCache;
 
     SharedResolutionCacheAdapter(
         int loaderHash,
         WeakReference<ClassLoader> loaderRef,
-        Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache) {
+        TieredResolutionCache sharedResolutionCache) {
       this.loaderHash = loaderHash;
       this.loaderRef = loaderRef;
       this.sharedResolutionCache = sharedResolutionCache;
@@ -267,17 +339,11 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
 
     @Override
     public TypePool.Resolution find(String className) {
-      TypePool.Resolution existingResolution =
-          sharedResolutionCache.get(new TypeCacheKey(loaderHash, loaderRef, className));
-      if (existingResolution != null) {
-        return existingResolution;
-      }
-
       if (OBJECT_NAME.equals(className)) {
         return OBJECT_RESOLUTION;
       }
 
-      return null;
+      return sharedResolutionCache.find(new TypeCacheKey(loaderHash, loaderRef, className));
     }
 
     @Override
@@ -286,7 +352,8 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
         return resolution;
       }
 
-      sharedResolutionCache.put(new TypeCacheKey(loaderHash, loaderRef, className), resolution);
+      sharedResolutionCache.register(
+          new TypeCacheKey(loaderHash, loaderRef, className), resolution);
       return resolution;
     }
 
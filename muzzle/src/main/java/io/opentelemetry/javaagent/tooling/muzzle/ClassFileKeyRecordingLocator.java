@@ -0,0 +1,64 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.Map;
+import java.util.zip.CRC32;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.utility.StreamDrainer;
+
+/**
+ * Locates class files with the class loader like {@link
+ * ClassFileLocator.ForClassLoader.WeaklyReferenced}, and records a key for every class file it
+ * reads, so that muzzle knows where a resolved type comes from without looking its class file up
+ * again. The key is the URL of the class file together with the length and the CRC32 checksum of
+ * its bytes, a class file that is replaced at the same URL (e.g. when an application is redeployed)
+ * gets a different key.
+ *
+ * <p>The class loader is only weakly referenced, the type descriptions resolved by the type pool
+ * of this locator may outlive the class loader in the shared type pool cache.
+ */
+final class ClassFileKeyRecordingLocator implements ClassFileLocator {
+
+  private final WeakReference<ClassLoader> classLoader;
+  private final Map<String, String> classFileKeys;
+
+  ClassFileKeyRecordingLocator(ClassLoader classLoader, Map<String, String> classFileKeys) {
+    this.classLoader = new WeakReference<>(classLoader);
+    this.classFileKeys = classFileKeys;
+  }
+
+  @Override
+  public Resolution locate(String name) throws IOException {
+    ClassLoader loader = classLoader.get();
+    if (loader == null) {
+      return new Resolution.Illegal(name);
+    }
+    URL url = loader.getResource(Utils.getResourceName(name));
+    if (url == null) {
+      return new Resolution.Illegal(name);
+    }
+    byte[] bytes;
+    try (InputStream inputStream = url.openStream()) {
+      bytes = StreamDrainer.DEFAULT.drain(inputStream);
+    }
+    classFileKeys.put(name, classFileKey(url, bytes));
+    return new Resolution.Explicit(bytes);
+  }
+
+  private static String classFileKey(URL url, byte[] bytes) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes, 0, bytes.length);
+    return url.toExternalForm() + '#' + bytes.length + '-' + Long.toHexString(crc.getValue());
+  }
+
+  @Override
+  public void close() {}
+}
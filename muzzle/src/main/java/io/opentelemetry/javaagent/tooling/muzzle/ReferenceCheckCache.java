@@ -0,0 +1,58 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The results of the individual class, field and method reference checks, shared by the {@link
+ * ReferenceMatcher}s of all instrumentation modules, so that a reference used by many modules is
+ * checked only once per class loader.
+ *
+ * <p>Checks that only depend on the class file of the referenced class (the class modifiers, and
+ * the fields and methods declared by the class itself) are additionally remembered by the class
+ * file, so that they are not repeated for other class loaders that load the class from the same
+ * jar, e.g. the web application class loaders of an application server that share the server
+ * libraries. A class file is identified by its URL together with the length and the checksum of
+ * its bytes (see {@link ClassFileKeyRecordingLocator}), so results are not reused for a class file
+ * that was replaced at the same URL. The key of a class file is recorded when the muzzle type pool
+ * reads it, types that the pool had already resolved before are only checked per class loader.
+ */
+final class ReferenceCheckCache {
+
+  private static final Cache<ClassLoader, Map<String, Boolean>> resultsByClassLoader =
+      Cache.weak();
+  private static final Cache<ClassLoader, Map<String, String>> classFileKeysByClassLoader =
+      Cache.weak();
+  // only successful checks are remembered, the value is always true
+  private static final Cache<String, Boolean> matchesByClassFile =
+      Cache.bounded("muzzle-class-file-matches", 10_000);
+
+  static Map<String, Boolean> resultsFor(ClassLoader classLoader) {
+    return resultsByClassLoader.computeIfAbsent(classLoader, cl -> new ConcurrentHashMap<>());
+  }
+
+  /**
+   * Returns the keys of the class files read by the muzzle type pool of the class loader, by class
+   * name.
+   */
+  static Map<String, String> classFileKeysFor(ClassLoader classLoader) {
+    return classFileKeysByClassLoader.computeIfAbsent(
+        classLoader, cl -> new ConcurrentHashMap<>());
+  }
+
+  static boolean isMatchedInClassFile(String classFileKey, String check) {
+    return matchesByClassFile.get(classFileKey + ' ' + check) != null;
+  }
+
+  static void recordMatchInClassFile(String classFileKey, String check) {
+    matchesByClassFile.put(classFileKey + ' ' + check, Boolean.TRUE);
+  }
+
+  private ReferenceCheckCache() {}
+}
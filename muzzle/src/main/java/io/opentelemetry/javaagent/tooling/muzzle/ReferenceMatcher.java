@@ -20,10 +20,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import net.bytebuddy.description.field.FieldDescription;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.pool.TypePool;
 import org.objectweb.asm.Type;
 
@@ -59,9 +62,16 @@ public final class ReferenceMatcher {
    * @return true if all references match the classpath of loader
    */
   public boolean matches(ClassLoader loader) {
-    TypePool typePool = createTypePool(loader);
+    Map<String, String> classFileKeys = ReferenceCheckCache.classFileKeysFor(loader);
+    TypePool typePool = createTypePool(loader, classFileKeys);
+    Map<String, Boolean> checkResults = ReferenceCheckCache.resultsFor(loader);
     for (ClassRef reference : references.values()) {
-      if (!checkMatch(reference, typePool, loader).isEmpty()) {
+      if (helperClassPredicate.isHelperClass(reference.getClassName())) {
+        if (!checkMatch(reference, typePool, loader).isEmpty()) {
+          return false;
+        }
+      } else if (!new ThirdPartyTypeChecks(reference, typePool, classFileKeys, checkResults)
+          .matches()) {
         return false;
       }
     }
@@ -94,6 +104,16 @@ public final class ReferenceMatcher {
         .typePool(AgentTooling.locationStrategy().classFileLocator(loader), loader);
   }
 
+  // records the keys of the class files that the type pool reads from the loader
+  private static TypePool createTypePool(ClassLoader loader, Map<String, String> classFileKeys) {
+    ClassFileLocator classFileLocator =
+        new ClassFileLocator.Compound(
+            new ClassFileKeyRecordingLocator(loader, classFileKeys),
+            // only the bootstrap proxy
+            AgentTooling.locationStrategy().classFileLocator(null));
+    return AgentTooling.poolStrategy().typePool(classFileLocator, loader);
+  }
+
   /**
    * Check a reference against a classloader's classpath.
    *
@@ -311,6 +331,175 @@ public final class ReferenceMatcher {
     return null;
   }
 
+  private static String flagsKey(Set<Flag> flags) {
+    if (flags.isEmpty()) {
+      return "";
+    }
+    return flags.stream().map(Flag::name).sorted().collect(Collectors.joining(",", " ", ""));
+  }
+
+  private enum CheckResult {
+    MISMATCH,
+    MATCH,
+    // the result only depends on the class file of the referenced class
+    MATCH_IN_CLASS_FILE
+  }
+
+  /**
+   * The checks of a single third party class reference, whose results are shared with the matchers
+   * of all the other instrumentation modules through the {@link ReferenceCheckCache}. The
+   * referenced type is only resolved when one of the checks was not done before.
+   */
+  private static final class ThirdPartyTypeChecks {
+    private final ClassRef reference;
+    private final TypePool typePool;
+    private final Map<String, String> classFileKeys;
+    private final Map<String, Boolean> checkResults;
+
+    private boolean typeResolved;
+    @Nullable private TypeDescription type;
+
+    ThirdPartyTypeChecks(
+        ClassRef reference,
+        TypePool typePool,
+        Map<String, String> classFileKeys,
+        Map<String, Boolean> checkResults) {
+      this.reference = reference;
+      this.typePool = typePool;
+      this.classFileKeys = classFileKeys;
+      this.checkResults = checkResults;
+    }
+
+    boolean matches() {
+      String className = reference.getClassName();
+      try {
+        // the class check comes first, the other checks need the class to exist
+        if (!check(className + flagsKey(reference.getFlags()), this::checkClass)) {
+          return false;
+        }
+        for (FieldRef fieldRef : reference.getFields()) {
+          String key =
+              className
+                  + '.'
+                  + fieldRef.getName()
+                  + ':'
+                  + fieldRef.getDescriptor()
+                  + flagsKey(fieldRef.getFlags());
+          if (!check(key, () -> checkField(fieldRef))) {
+            return false;
+          }
+        }
+        for (MethodRef methodRef : reference.getMethods()) {
+          String key =
+              className
+                  + '#'
+                  + methodRef.getName()
+                  + methodRef.getDescriptor()
+                  + flagsKey(methodRef.getFlags());
+          if (!check(key, () -> checkMethod(methodRef))) {
+            return false;
+          }
+        }
+        return true;
+      } catch (RuntimeException e) {
+        // e.g. a type in the hierarchy can't be resolved, getMismatchedReferenceSources() will
+        // report the details; the result is not cached
+        return false;
+      }
+    }
+
+    private boolean check(String key, Supplier<CheckResult> check) {
+      Boolean cached = checkResults.get(key);
+      if (cached != null) {
+        return cached;
+      }
+      String classFileKey = classFileKey();
+      if (classFileKey != null && ReferenceCheckCache.isMatchedInClassFile(classFileKey, key)) {
+        checkResults.put(key, true);
+        return true;
+      }
+      CheckResult result = check.get();
+      checkResults.put(key, result != CheckResult.MISMATCH);
+      if (result == CheckResult.MATCH_IN_CLASS_FILE && classFileKey != null) {
+        ReferenceCheckCache.recordMatchInClassFile(classFileKey, key);
+      }
+      return result != CheckResult.MISMATCH;
+    }
+
+    private CheckResult checkClass() {
+      TypeDescription typeOnClasspath = resolveType();
+      if (typeOnClasspath == null) {
+        return CheckResult.MISMATCH;
+      }
+      int modifiers = typeOnClasspath.getActualModifiers(false);
+      for (Flag flag : reference.getFlags()) {
+        if (!flag.matches(modifiers)) {
+          return CheckResult.MISMATCH;
+        }
+      }
+      return CheckResult.MATCH_IN_CLASS_FILE;
+    }
+
+    private CheckResult checkField(FieldRef fieldRef) {
+      TypeDescription typeOnClasspath = resolveType();
+      if (typeOnClasspath == null) {
+        return CheckResult.MISMATCH;
+      }
+      FieldDescription.InDefinedShape fieldDescription = findField(fieldRef, typeOnClasspath);
+      if (fieldDescription == null) {
+        return CheckResult.MISMATCH;
+      }
+      for (Flag flag : fieldRef.getFlags()) {
+        if (!flag.matches(fieldDescription.getModifiers())) {
+          return CheckResult.MISMATCH;
+        }
+      }
+      return declaredBy(fieldDescription.getDeclaringType(), typeOnClasspath);
+    }
+
+    private CheckResult checkMethod(MethodRef methodRef) {
+      TypeDescription typeOnClasspath = resolveType();
+      if (typeOnClasspath == null) {
+        return CheckResult.MISMATCH;
+      }
+      MethodDescription.InDefinedShape methodDescription = findMethod(methodRef, typeOnClasspath);
+      if (methodDescription == null) {
+        return CheckResult.MISMATCH;
+      }
+      for (Flag flag : methodRef.getFlags()) {
+        if (!flag.matches(methodDescription.getModifiers())) {
+          return CheckResult.MISMATCH;
+        }
+      }
+      return declaredBy(methodDescription.getDeclaringType(), typeOnClasspath);
+    }
+
+    // members inherited from a super type depend on which super type the class loader resolves
+    private static CheckResult declaredBy(
+        TypeDescription declaringType, TypeDescription typeOnClasspath) {
+      return declaringType.getName().equals(typeOnClasspath.getName())
+          ? CheckResult.MATCH_IN_CLASS_FILE
+          : CheckResult.MATCH;
+    }
+
+    @Nullable
+    private TypeDescription resolveType() {
+      if (!typeResolved) {
+        typeResolved = true;
+        TypePool.Resolution resolution = typePool.describe(reference.getClassName());
+        type = resolution.isResolved() ? resolution.resolve() : null;
+      }
+      return type;
+    }
+
+    // recorded by the type pool when it reads the class file, the type may have been resolved from
+    // the type pool cache though
+    @Nullable
+    private String classFileKey() {
+      return resolveType() != null ? classFileKeys.get(reference.getClassName()) : null;
+    }
+  }
+
   // optimization to avoid ArrayList allocation in the common case when there are no mismatches
   static List<Mismatch> add(List<Mismatch> mismatches, Mismatch mismatch) {
     List<Mismatch> result = mismatches.isEmpty() ? new ArrayList<>() : mismatches;
@@ -100,6 +100,31 @@ class ReferenceMatcherTest extends Specification {
     cl.count == countAfterFirstMatch
   }
 
+  def "reference checks are shared between matchers and class loaders"() {
+    setup:
+    def jar = ClasspathUtils.createJarWithClasses(MethodBodyAdvice.A,
+      MethodBodyAdvice.B,
+      MethodBodyAdvice.SomeInterface,
+      MethodBodyAdvice.SomeImplementation)
+    def cl = new CountingClassLoader([jar] as URL[], (ClassLoader) null)
+
+    def collector = new ReferenceCollector({ false })
+    collector.collectReferencesFromAdvice(MethodBodyAdvice.name)
+
+    def refMatcher1 = createMatcher(collector.getReferences())
+    def refMatcher2 = createMatcher(collector.getReferences())
+    assert refMatcher1.matches(cl)
+    int countAfterFirstMatch = cl.count
+    // the second matcher should reuse the check results of the first one
+    assert refMatcher2.matches(cl)
+
+    expect:
+    cl.count == countAfterFirstMatch
+    // checks remembered for the class files of the jar must not hide mismatches of other jars
+    refMatcher1.matches(new URLClassLoader([jar] as URL[], (ClassLoader) null))
+    !refMatcher1.matches(unsafeClasspath)
+  }
+
   def "matching ref #referenceName #referenceFlag against #classToCheck produces #expectedMismatches"() {
     setup:
     def ref = ClassRef.builder(referenceName)
@@ -7,6 +7,8 @@ package io.opentelemetry.javaagent.tooling.muzzle;
 
 import static net.bytebuddy.matcher.ElementMatchers.declaresMethod;
 import static net.bytebuddy.matcher.ElementMatchers.isAnnotatedWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.opentelemetry.test.AnnotatedTestClass;
@@ -14,6 +16,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.pool.TypePool;
@@ -61,4 +64,35 @@ class AgentCachingPoolStrategyTest {
         declaresMethod(isAnnotatedWith(AnnotatedTestClass.TestAnnotation.class))
             .matches(typeDescription));
   }
+
+  @Test
+  void testCacheTypesThatAreNotFound() {
+    AtomicInteger lookups = new AtomicInteger();
+    ClassLoader classLoader =
+        new ClassLoader(AgentCachingPoolStrategyTest.class.getClassLoader()) {
+          @Override
+          public InputStream getResourceAsStream(String name) {
+            if (name.startsWith("missing/")) {
+              lookups.incrementAndGet();
+            }
+            return super.getResourceAsStream(name);
+          }
+        };
+    ClassFileLocator locator = ClassFileLocator.ForClassLoader.of(classLoader);
+
+    assertFalse(
+        AgentTooling.poolStrategy()
+            .typePool(locator, classLoader)
+            .describe("missing.Type")
+            .isResolved());
+    assertEquals(1, lookups.get());
+
+    // a new pool, e.g. for the next class loaded by the class loader, doesn't look it up again
+    assertFalse(
+        AgentTooling.poolStrategy()
+            .typePool(locator, classLoader)
+            .describe("missing.Type")
+            .isResolved());
+    assertEquals(1, lookups.get());
+  }
 }
@@ -379,6 +379,7 @@ include(":instrumentation:rocketmq-client-4.8:library")
 include(":instrumentation:rocketmq-client-4.8:testing")
 include(":instrumentation:runtime-metrics:javaagent")
 include(":instrumentation:runtime-metrics:library")
+include(":instrumentation:runtime-metrics-jfr:library")
 include(":instrumentation:rxjava:rxjava-1.0:library")
 include(":instrumentation:rxjava:rxjava-2.0:library")
 include(":instrumentation:rxjava:rxjava-2.0:testing")